@@ -0,0 +1,95 @@
+package bf.kvill.spring_phone_book.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compare deux résultats JMH au format JSON (-rf json) : une ligne par benchmark et jeu de
+ * paramètres, avec l'écart en pourcentage.
+ *
+ * Une régression est un écart défavorable supérieur au seuil (10 % par défaut) et aux marges
+ * d'erreur cumulées des deux mesures : le bruit d'une exécution ne la déclenche pas. Le sens
+ * dépend du mode (temps moyen : plus bas est meilleur, débit : plus haut est meilleur).
+ * Code de sortie 1 en cas de régression, pour faire échouer la CI.
+ *
+ * mvn -Pjmh test-compile exec:exec@jmh-compare -Djmh.baseline=baseline.json [-Djmh.threshold=10]
+ */
+public final class BenchmarkComparison {
+
+    private BenchmarkComparison() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BenchmarkComparison <baseline.json> <current.json> [threshold %]");
+            System.exit(2);
+        }
+        Map<String, Result> baseline = read(Path.of(args[0]));
+        Map<String, Result> current = read(Path.of(args[1]));
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+
+        int regressions = 0;
+        System.out.printf("%-90s %14s %14s %9s%n", "benchmark", "baseline", "current", "delta");
+        for (Map.Entry<String, Result> entry : current.entrySet()) {
+            Result now = entry.getValue();
+            Result before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-90s %14s %14s %9s%n", entry.getKey(), "-", now.format(), "new");
+                continue;
+            }
+            double delta = (now.score - before.score) / before.score * 100;
+            // Écart dans le sens défavorable, au-delà du seuil et des marges d'erreur
+            double worse = now.higherIsBetter() ? -delta : delta;
+            boolean regression = worse > threshold
+                    && Math.abs(now.score - before.score) > before.error + now.error;
+            if (regression) {
+                regressions++;
+            }
+            System.out.printf("%-90s %14s %14s %+8.1f%%%s%n", entry.getKey(), before.format(), now.format(), delta,
+                    regression ? "  REGRESSION" : "");
+        }
+        baseline.keySet().stream()
+                .filter(key -> !current.containsKey(key))
+                .forEach(key -> System.out.printf("%-90s %14s %14s %9s%n", key, baseline.get(key).format(), "-", "removed"));
+
+        System.out.printf("%n%d regression(s) above %.1f%%%n", regressions, threshold);
+        if (regressions > 0) {
+            System.exit(1);
+        }
+    }
+
+    // Clé : benchmark, mode, threads et paramètres, triés pour un affichage stable
+    private static Map<String, Result> read(Path file) throws IOException {
+        Map<String, Result> results = new TreeMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file.toFile())) {
+            String benchmark = run.path("benchmark").asText().replace("bf.kvill.spring_phone_book.benchmark.", "");
+            String mode = run.path("mode").asText();
+            Map<String, String> params = new LinkedHashMap<>();
+            run.path("params").fields().forEachRemaining(param -> params.put(param.getKey(), param.getValue().asText()));
+            String key = benchmark + " " + mode + " t" + run.path("threads").asInt() + (params.isEmpty() ? "" : " " + params);
+
+            JsonNode metric = run.path("primaryMetric");
+            double error = metric.path("scoreError").asDouble();
+            results.put(key, new Result(mode, metric.path("score").asDouble(),
+                    Double.isNaN(error) ? 0 : error, metric.path("scoreUnit").asText()));
+        }
+        return results;
+    }
+
+    private record Result(String mode, double score, double error, String unit) {
+
+        boolean higherIsBetter() {
+            return mode.equals("thrpt");
+        }
+
+        String format() {
+            return String.format("%.3f %s", score, unit);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package bf.kvill.spring_phone_book.benchmark;
+
+import bf.kvill.spring_phone_book.cache.CompactCacheSerializer;
+import bf.kvill.spring_phone_book.dto.ContactView;
+import bf.kvill.spring_phone_book.model.Contact;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Compare l'ancien format du cache "contacts" (entités en JSON typé) au format binaire compact
+// mvn -Pjmh test-compile exec:exec -Djmh.includes=ContactCacheSerializationBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContactCacheSerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    private GenericJackson2JsonRedisSerializer json;
+    private CompactCacheSerializer compact;
+    private CompactCacheSerializer compactLz4;
+
+    private List<Contact> entities;
+    private List<ContactView> views;
+    private byte[] jsonBytes;
+    private byte[] compactBytes;
+    private byte[] compactLz4Bytes;
+
+    @Setup
+    public void setUp() {
+        json = new GenericJackson2JsonRedisSerializer();
+        compact = new CompactCacheSerializer(json, false, Integer.MAX_VALUE);
+        compactLz4 = new CompactCacheSerializer(json, true, 0);
+
+        entities = SyntheticContacts.book(SyntheticContacts.user(1L, "benchmark"), size);
+        views = entities.stream().map(ContactView::from).toList();
+
+        jsonBytes = json.serialize(entities);
+        compactBytes = compact.serialize(views);
+        compactLz4Bytes = compactLz4.serialize(views);
+
+        System.out.printf("%n[size=%d] json=%d B, compact=%d B, compact+lz4=%d B%n",
+                size, jsonBytes.length, compactBytes.length, compactLz4Bytes.length);
+    }
+
+    @Benchmark
+    public byte[] serializeJsonEntities() {
+        return json.serialize(entities);
+    }
+
+    @Benchmark
+    public byte[] serializeCompact() {
+        return compact.serialize(views);
+    }
+
+    @Benchmark
+    public byte[] serializeCompactLz4() {
+        return compactLz4.serialize(views);
+    }
+
+    @Benchmark
+    public Object deserializeJsonEntities() {
+        return json.deserialize(jsonBytes);
+    }
+
+    @Benchmark
+    public Object deserializeCompact() {
+        return compact.deserialize(compactBytes);
+    }
+
+    @Benchmark
+    public Object deserializeCompactLz4() {
+        return compactLz4.deserialize(compactLz4Bytes);
+    }
+}
@@ -0,0 +1,59 @@
+package bf.kvill.spring_phone_book.benchmark;
+
+import bf.kvill.spring_phone_book.dto.ContactView;
+import bf.kvill.spring_phone_book.model.Contact;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Sérialisation JSON des réponses de liste de contacts (ObjectMapper configuré comme celui de Spring MVC) :
+// entités Contact, comme avant les projections, contre ContactView, avec ou sans writer typé réutilisé
+// mvn -Pjmh test-compile exec:exec -Djmh.includes=ContactJsonBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContactJsonBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private ObjectWriter viewListWriter;
+    private List<Contact> entities;
+    private List<ContactView> views;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        viewListWriter = objectMapper.writerFor(new TypeReference<List<ContactView>>() { });
+        entities = SyntheticContacts.book(SyntheticContacts.user(1L, "benchmark"), size);
+        views = entities.stream().map(ContactView::from).toList();
+
+        System.out.printf("%n[size=%d] entities=%d B, views=%d B%n", size,
+                objectMapper.writeValueAsBytes(entities).length, objectMapper.writeValueAsBytes(views).length);
+    }
+
+    @Benchmark
+    public byte[] serializeEntities() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(entities);
+    }
+
+    @Benchmark
+    public byte[] serializeViews() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(views);
+    }
+
+    @Benchmark
+    public byte[] serializeViewsTypedWriter() throws JsonProcessingException {
+        return viewListWriter.writeValueAsBytes(views);
+    }
+}
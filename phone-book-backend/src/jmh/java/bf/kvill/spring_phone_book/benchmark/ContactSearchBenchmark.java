@@ -0,0 +1,123 @@
+package bf.kvill.spring_phone_book.benchmark;
+
+import bf.kvill.spring_phone_book.SpringPhoneBookApplication;
+import bf.kvill.spring_phone_book.dto.ContactView;
+import bf.kvill.spring_phone_book.enums.Role;
+import bf.kvill.spring_phone_book.model.PhoneNumbers;
+import bf.kvill.spring_phone_book.model.User;
+import bf.kvill.spring_phone_book.repository.UserRepository;
+import bf.kvill.spring_phone_book.search.ContactSearchIndex;
+import bf.kvill.spring_phone_book.security.UserRef;
+import bf.kvill.spring_phone_book.service.ContactService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// ContactService.searchContacts sur des carnets synthétiques de plusieurs tailles, application
+// démarrée sur H2 (profil test) : index de trigrammes en mémoire contre requête LIKE en base.
+// Cache "searches" désactivé et instrumentation des méthodes coupée : seul le service est mesuré.
+// mvn -Pjmh test-compile exec:exec -Djmh.includes=ContactSearchBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContactSearchBenchmark {
+
+    private static final int SEED_BATCH = 1_000;
+
+    @Param({"100", "1000", "10000"})
+    private int size;
+
+    @Param({"true", "false"})
+    private boolean searchIndex;
+
+    private ConfigurableApplicationContext context;
+    private ContactService contactService;
+    private UserRef user;
+    // Un nom de famille sur 50 (environ 2 % du carnet), puis un seul contact
+    private String commonQuery;
+    private String rareQuery;
+
+    @Setup(Level.Trial)
+    public void setUp() throws InterruptedException {
+        context = new SpringApplicationBuilder(SpringPhoneBookApplication.class)
+                .profiles("test")
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:search-benchmark-" + size + "-" + searchIndex,
+                        "spring.cache.type=none",
+                        "search.index.enabled=" + searchIndex,
+                        "metrics.methods.enabled=false",
+                        "logging.level.root=WARN",
+                        "logging.level.bf.kvill.spring_phone_book=WARN",
+                        "logging.level.org.springframework.security=WARN")
+                .run();
+        contactService = context.getBean(ContactService.class);
+
+        User owner = new User();
+        owner.setUsername("benchmark");
+        owner.setPassword(SyntheticContacts.PASSWORD_HASH);
+        owner.setRoles(Set.of(Role.USER));
+        owner = context.getBean(UserRepository.class).save(owner);
+        user = UserRef.from(owner);
+        seed(context.getBean(JdbcTemplate.class), owner.getId());
+
+        commonQuery = SyntheticContacts.lastName(7);
+        rareQuery = SyntheticContacts.firstName(size / 2L);
+        if (searchIndex) {
+            awaitIndex(context.getBean(ContactSearchIndex.class), owner.getId());
+        }
+        System.out.printf("%n[size=%d, index=%b] common=%d results, rare=%d results%n", size, searchIndex,
+                contactService.searchContacts(commonQuery, user).size(),
+                contactService.searchContacts(rareQuery, user).size());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ContactView> searchCommonName() {
+        return contactService.searchContacts(commonQuery, user);
+    }
+
+    @Benchmark
+    public List<ContactView> searchSingleContact() {
+        return contactService.searchContacts(rareQuery, user);
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate, Long userId) {
+        String sql = "INSERT INTO contacts (first_name, last_name, phone_number, phone_digits, phone_digits_reversed, email, user_id) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+        for (int from = 0; from < size; from += SEED_BATCH) {
+            List<Object[]> batch = new ArrayList<>(SEED_BATCH);
+            for (long i = from; i < Math.min(size, from + SEED_BATCH); i++) {
+                String phone = SyntheticContacts.phoneNumber(i);
+                batch.add(new Object[] { SyntheticContacts.firstName(i), SyntheticContacts.lastName(i), phone,
+                        PhoneNumbers.digits(phone), PhoneNumbers.reversedDigits(phone),
+                        "contact" + i + "@example.com", userId });
+            }
+            jdbcTemplate.batchUpdate(sql, batch);
+        }
+    }
+
+    // La première recherche lance la construction de l'index en arrière-plan
+    private static void awaitIndex(ContactSearchIndex index, Long userId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (index.search(userId, "warmup").isEmpty()) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("Search index not built after 30 s");
+            }
+            Thread.sleep(10);
+        }
+    }
+}
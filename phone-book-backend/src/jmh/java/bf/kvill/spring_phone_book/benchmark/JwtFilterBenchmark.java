@@ -0,0 +1,107 @@
+package bf.kvill.spring_phone_book.benchmark;
+
+import bf.kvill.spring_phone_book.enums.Role;
+import bf.kvill.spring_phone_book.model.User;
+import bf.kvill.spring_phone_book.repository.UserRepository;
+import bf.kvill.spring_phone_book.security.JwtAuthenticationFilter;
+import bf.kvill.spring_phone_book.security.JwtUtil;
+import bf.kvill.spring_phone_book.service.CustomUserDetailsService;
+import bf.kvill.spring_phone_book.service.TokenVersionService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// Coût par requête du filtre JWT : ancien chemin (clé recréée, token vérifié 3 fois)
+// contre un seul parse, avec ou sans cache des tokens vérifiés et en mode sans état
+// mvn -Pjmh test-compile exec:exec -Djmh.includes=JwtFilterBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    private static final String SECRET = "myVerySecureSecretKeyThatIsAtLeast256BitsLongForHS256Algorithm";
+
+    @Param({"false", "true"})
+    private boolean tokenCache;
+
+    // Principal construit depuis les claims, sans UserDetailsService
+    @Param({"false", "true"})
+    private boolean statelessAuth;
+
+    private JwtUtil jwtUtil;
+    private JwtAuthenticationFilter filter;
+    private CustomUserDetailsService userDetailsService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 3_600_000L);
+        ReflectionTestUtils.setField(jwtUtil, "refreshExpiration", 7_200_000L);
+        ReflectionTestUtils.setField(jwtUtil, "cacheEnabled", tokenCache);
+        jwtUtil.init();
+
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("benchmark");
+        user.setPassword("$2a$10$abcdefghijklmnopqrstuvwxyz0123456789ABCDEFGHIJKLMNOPQ");
+        user.setRoles(Set.of(Role.USER));
+        UserRepository userRepository = Mockito.mock(UserRepository.class);
+        Mockito.when(userRepository.findByUsername("benchmark")).thenReturn(Optional.of(user));
+        Mockito.when(userRepository.findTokenVersionById(1L)).thenReturn(Optional.of(0L));
+
+        userDetailsService = new CustomUserDetailsService(userRepository);
+        TokenVersionService tokenVersionService = new TokenVersionService(userRepository, new ConcurrentMapCacheManager());
+        filter = new JwtAuthenticationFilter(jwtUtil, userDetailsService, tokenVersionService);
+        ReflectionTestUtils.setField(filter, "statelessAuth", statelessAuth);
+        token = jwtUtil.generateToken(userDetailsService.loadUserByUsername("benchmark"));
+    }
+
+    @TearDown(Level.Invocation)
+    public void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    // Reproduction de l'ancien filtre : extractUsername puis validateToken (extractUsername + isTokenExpired)
+    @Benchmark
+    public boolean legacyFilterPath() {
+        String username = legacyClaims(token).getSubject();
+        UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        return legacyClaims(token).getSubject().equals(userDetails.getUsername())
+                && !legacyClaims(token).getExpiration().before(new Date());
+    }
+
+    @Benchmark
+    public Object filter() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/contacts");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    private static Claims legacyClaims(String token) {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+}
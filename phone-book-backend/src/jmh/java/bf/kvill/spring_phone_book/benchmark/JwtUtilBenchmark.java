@@ -0,0 +1,70 @@
+package bf.kvill.spring_phone_book.benchmark;
+
+import bf.kvill.spring_phone_book.security.AuthenticatedUser;
+import bf.kvill.spring_phone_book.security.JwtUtil;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Émission et vérification d'un token : signature HMAC-SHA256, puis parse complet ou lecture
+// du cache des tokens vérifiés (empreinte SHA-256 du token)
+// mvn -Pjmh test-compile exec:exec -Djmh.includes=JwtUtilBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    private static final String SECRET = "myVerySecureSecretKeyThatIsAtLeast256BitsLongForHS256Algorithm";
+
+    @Param({"false", "true"})
+    private boolean tokenCache;
+
+    private JwtUtil jwtUtil;
+    private AuthenticatedUser user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 3_600_000L);
+        ReflectionTestUtils.setField(jwtUtil, "refreshExpiration", 7_200_000L);
+        ReflectionTestUtils.setField(jwtUtil, "cacheEnabled", tokenCache);
+        jwtUtil.init();
+
+        user = new AuthenticatedUser(1L, "benchmark", SyntheticContacts.PASSWORD_HASH, 0L,
+                List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        token = jwtUtil.generateToken(user);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken(user);
+    }
+
+    @Benchmark
+    public String generateRefreshToken() {
+        return jwtUtil.generateRefreshToken(user);
+    }
+
+    // Chemin du filtre : un seul parse, puis lecture des claims
+    @Benchmark
+    public boolean validateToken() {
+        Claims claims = jwtUtil.parseClaims(token);
+        return jwtUtil.validateToken(claims, user) && jwtUtil.toPrincipal(claims) != null;
+    }
+
+    // Plusieurs requêtes vérifient en même temps : parseur partagé, cache Caffeine en lecture concurrente
+    @Benchmark
+    @Threads(4)
+    public boolean validateTokenContended() {
+        return jwtUtil.validateToken(jwtUtil.parseClaims(token), user);
+    }
+}
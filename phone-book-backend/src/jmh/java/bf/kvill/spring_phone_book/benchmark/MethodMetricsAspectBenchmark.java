@@ -0,0 +1,70 @@
+package bf.kvill.spring_phone_book.benchmark;
+
+import bf.kvill.spring_phone_book.aspect.MethodMetricsAspect;
+import bf.kvill.spring_phone_book.repository.UserRepository;
+import bf.kvill.spring_phone_book.service.TokenVersionService;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// Surcoût de MethodMetricsAspect sur un appel de service court (version du token servie par le cache) :
+// appel direct, proxy avec instrumentation désactivée à chaud, puis activée (registre Prometheus,
+// histogramme de percentiles et buckets SLO, comme en production)
+// mvn -Pjmh test-compile exec:exec -Djmh.includes=MethodMetricsAspectBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MethodMetricsAspectBenchmark {
+
+    @Param({"none", "disabled", "enabled"})
+    private String instrumentation;
+
+    // Sans histogramme : seuls les buckets SLO sont tenus à jour
+    @Param({"true", "false"})
+    private boolean percentileHistogram;
+
+    private TokenVersionService service;
+
+    @Setup
+    public void setUp() {
+        UserRepository userRepository = Mockito.mock(UserRepository.class);
+        Mockito.when(userRepository.findTokenVersionById(1L)).thenReturn(Optional.of(0L));
+        TokenVersionService target = new TokenVersionService(userRepository, new ConcurrentMapCacheManager());
+
+        if (instrumentation.equals("none")) {
+            service = target;
+        } else {
+            MethodMetricsAspect aspect = new MethodMetricsAspect(new PrometheusMeterRegistry(PrometheusConfig.DEFAULT),
+                    instrumentation.equals("enabled"), percentileHistogram,
+                    new Duration[]{Duration.ofMillis(5), Duration.ofMillis(25), Duration.ofMillis(100),
+                            Duration.ofMillis(250), Duration.ofMillis(500), Duration.ofSeconds(1)});
+            AspectJProxyFactory factory = new AspectJProxyFactory(target);
+            factory.setProxyTargetClass(true);
+            factory.addAspect(aspect);
+            service = factory.getProxy();
+        }
+        service.currentVersion(1L);
+    }
+
+    @Benchmark
+    public long currentVersion() {
+        return service.currentVersion(1L);
+    }
+
+    // Plusieurs threads enregistrent dans les mêmes timers
+    @Benchmark
+    @Threads(4)
+    public long currentVersionContended() {
+        return service.currentVersion(1L);
+    }
+}
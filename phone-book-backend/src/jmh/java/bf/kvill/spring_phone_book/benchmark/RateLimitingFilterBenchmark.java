@@ -0,0 +1,89 @@
+package bf.kvill.spring_phone_book.benchmark;
+
+import bf.kvill.spring_phone_book.security.LocalRateLimitBuckets;
+import bf.kvill.spring_phone_book.security.RateLimitBuckets;
+import bf.kvill.spring_phone_book.security.RateLimitingFilter;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.Refill;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.ThreadParams;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+// Résolution du bucket et consommation d'un jeton sous contention, 8 threads :
+// - shared : tous les threads sur la même IP (même bucket, CAS en concurrence)
+// - perThread : une IP par thread (lectures concurrentes du cache de buckets)
+// - churn : une nouvelle IP à chaque requête (création de buckets et éviction)
+// Capacité très élevée : aucune requête n'est refusée, seul le coût du filtre est mesuré
+// mvn -Pjmh test-compile exec:exec -Djmh.includes=RateLimitingFilterBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class RateLimitingFilterBenchmark {
+
+    private static final long CAPACITY = 1_000_000_000_000L;
+    private static final FilterChain NO_OP = (request, response) -> { };
+
+    @Param({"shared", "perThread", "churn"})
+    private String clients;
+
+    private RateLimitBuckets buckets;
+    private RateLimitingFilter filter;
+    private BucketConfiguration configuration;
+
+    @Setup
+    public void setUp() {
+        buckets = new LocalRateLimitBuckets(10_000, Duration.ofMinutes(10));
+        filter = new RateLimitingFilter(buckets, true, CAPACITY, CAPACITY, Duration.ofMinutes(1));
+        configuration = BucketConfiguration.builder()
+                .addLimit(Bandwidth.classic(CAPACITY, Refill.intervally(CAPACITY, Duration.ofMinutes(1))))
+                .build();
+    }
+
+    @State(Scope.Thread)
+    public static class Client {
+
+        private int thread;
+        private long sequence;
+        private MockHttpServletRequest request;
+        private MockHttpServletResponse response;
+
+        @Setup
+        public void setUp(ThreadParams threadParams) {
+            thread = threadParams.getThreadIndex();
+            request = new MockHttpServletRequest("GET", "/api/contacts/42");
+            response = new MockHttpServletResponse();
+        }
+
+        String nextIp(String clients) {
+            return switch (clients) {
+                case "shared" -> "10.0.0.1";
+                case "perThread" -> "10.0.0." + thread;
+                default -> "10." + thread + "." + ((sequence >> 8) & 0xff) + "." + (sequence++ & 0xff);
+            };
+        }
+    }
+
+    @Benchmark
+    public boolean resolveBucket(Client client) {
+        return buckets.resolve(client.nextIp(clients) + ":/api/contacts/{id}", () -> configuration).tryConsume(1);
+    }
+
+    // Chemin complet : filtre public, route normalisée, IP du client lue dans X-Forwarded-For
+    @Benchmark
+    public int filter(Client client) throws Exception {
+        client.request.removeHeader("X-Forwarded-For");
+        client.request.addHeader("X-Forwarded-For", client.nextIp(clients));
+        filter.doFilter(client.request, client.response, NO_OP);
+        return client.response.getStatus();
+    }
+}
@@ -0,0 +1,59 @@
+package bf.kvill.spring_phone_book.benchmark;
+
+import bf.kvill.spring_phone_book.model.Contact;
+import bf.kvill.spring_phone_book.model.Group;
+import bf.kvill.spring_phone_book.model.User;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Carnet synthétique commun aux benchmarks : noms répétés (50 noms de famille), un contact sur trois sans groupe
+final class SyntheticContacts {
+
+    static final String PASSWORD_HASH = "$2a$10$abcdefghijklmnopqrstuvwxyz0123456789ABCDEFGHIJKLMNOPQ";
+
+    private SyntheticContacts() {
+    }
+
+    static User user(long id, String username) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        user.setPassword(PASSWORD_HASH);
+        return user;
+    }
+
+    static List<Contact> book(User user, int size) {
+        Group group = new Group();
+        group.setId(1L);
+        group.setName("Famille");
+        group.setDescription("Contacts de la famille");
+        group.setUser(user);
+
+        List<Contact> contacts = new ArrayList<>(size);
+        for (long i = 0; i < size; i++) {
+            Contact contact = new Contact();
+            contact.setId(i);
+            contact.setFirstName(firstName(i));
+            contact.setLastName(lastName(i));
+            contact.setPhoneNumber(phoneNumber(i));
+            contact.setEmail("contact" + i + "@example.com");
+            contact.setGroup(i % 3 == 0 ? null : group);
+            contact.setUser(user);
+            contacts.add(contact);
+        }
+        return contacts;
+    }
+
+    static String firstName(long i) {
+        return "Prenom" + i;
+    }
+
+    static String lastName(long i) {
+        return "Nom" + (i % 50);
+    }
+
+    static String phoneNumber(long i) {
+        return "+226 70 " + String.format("%06d", i);
+    }
+}
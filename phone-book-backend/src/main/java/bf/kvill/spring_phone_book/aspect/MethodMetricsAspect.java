@@ -0,0 +1,125 @@
+package bf.kvill.spring_phone_book.aspect;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latence de chaque appel aux services et aux repositories : timer method.duration étiqueté
+ * class, method et outcome (success/error), avec histogramme de percentiles et buckets SLO.
+ *
+ * Étiquettes à cardinalité bornée : nom simple de la classe (interface pour les repositories
+ * Spring Data), nom de la méthode sans signature, deux résultats possibles. Les timers sont
+ * résolus une fois par méthode puis lus dans un cache, sans allocation par appel.
+ *
+ * Activable à chaud (setEnabled, PUT /api/admin/metrics/methods) : désactivé, il ne reste que
+ * le coût du proxy et d'une lecture volatile.
+ */
+@Aspect
+@Component
+public class MethodMetricsAspect {
+
+    static final String METRIC = "method.duration";
+    private static final String BASE_PACKAGE = "bf.kvill.spring_phone_book";
+
+    private final MeterRegistry meterRegistry;
+    private final boolean percentileHistogram;
+    private final Duration[] serviceLevelObjectives;
+    private final ConcurrentMap<Class<?>, ConcurrentMap<Method, MethodTimers>> timers = new ConcurrentHashMap<>();
+    private volatile boolean enabled;
+
+    public MethodMetricsAspect(MeterRegistry meterRegistry,
+                               @Value("${metrics.methods.enabled:true}") boolean enabled,
+                               @Value("${metrics.methods.percentile-histogram:true}") boolean percentileHistogram,
+                               @Value("${metrics.methods.slo:5ms,25ms,100ms,250ms,500ms,1s}") Duration[] serviceLevelObjectives) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.percentileHistogram = percentileHistogram;
+        this.serviceLevelObjectives = serviceLevelObjectives;
+    }
+
+    // MetricsService exclu : appelé depuis les contrôleurs pour ses propres compteurs
+    @Around("(within(bf.kvill.spring_phone_book.service..*) && !within(bf.kvill.spring_phone_book.service.MetricsService))"
+            + " || this(org.springframework.data.repository.Repository)")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!enabled) {
+            return joinPoint.proceed();
+        }
+        MethodTimers methodTimers = timers(joinPoint);
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable ex) {
+            methodTimers.error.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw ex;
+        }
+        // Méthodes asynchrones : durée jusqu'à la fin du travail, pas jusqu'à sa soumission
+        if (result instanceof CompletionStage<?> stage) {
+            stage.whenComplete((value, ex) -> (ex == null ? methodTimers.success : methodTimers.error)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+        } else {
+            methodTimers.success.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        return result;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    private MethodTimers timers(ProceedingJoinPoint joinPoint) {
+        Object proxy = joinPoint.getThis();
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        return timers.computeIfAbsent(proxy.getClass(), type -> new ConcurrentHashMap<>())
+                .computeIfAbsent(method, m -> new MethodTimers(
+                        timer(component(proxy, joinPoint.getTarget()), m.getName(), "success"),
+                        timer(component(proxy, joinPoint.getTarget()), m.getName(), "error")));
+    }
+
+    private Timer timer(String component, String method, String outcome) {
+        return Timer.builder(METRIC)
+                .description("Latency of service and repository methods")
+                .tag("class", component)
+                .tag("method", method)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram(percentileHistogram)
+                .serviceLevelObjectives(serviceLevelObjectives)
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(meterRegistry);
+    }
+
+    // Repository Spring Data : l'interface de l'application plutôt que SimpleJpaRepository ou le proxy
+    private static String component(Object proxy, Object target) {
+        if (proxy instanceof Repository<?, ?>) {
+            for (Class<?> type : ClassUtils.getAllInterfacesForClass(proxy.getClass())) {
+                if (type.getPackageName().startsWith(BASE_PACKAGE) && Repository.class.isAssignableFrom(type)) {
+                    return type.getSimpleName();
+                }
+            }
+        }
+        return ClassUtils.getUserClass(target).getSimpleName();
+    }
+
+    private record MethodTimers(Timer success, Timer error) {
+    }
+}
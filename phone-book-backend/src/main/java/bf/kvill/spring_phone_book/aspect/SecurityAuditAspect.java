@@ -1,81 +1,75 @@
 package bf.kvill.spring_phone_book.aspect;
 
-import lombok.extern.slf4j.Slf4j;
-import org.aspectj.lang.JoinPoint;
-import org.aspectj.lang.annotation.AfterReturning;
-import org.aspectj.lang.annotation.AfterThrowing;
+import bf.kvill.spring_phone_book.audit.AuditEvent;
+import bf.kvill.spring_phone_book.audit.AuditTrail;
+import bf.kvill.spring_phone_book.dto.AuthRequest;
+import bf.kvill.spring_phone_book.enums.AuditEventType;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
-import org.aspectj.lang.annotation.Before;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
 import jakarta.servlet.http.HttpServletRequest;
 
+import java.time.Instant;
+
+// Un événement d'audit par appel d'AuthController, publié dans la piste d'audit (AuditTrail) :
+// en-têtes bruts copiés, aucun formatage ni analyse sur le thread de la requête.
 @Aspect
 @Component
-@Slf4j
+@RequiredArgsConstructor
 public class SecurityAuditAspect {
 
-    private static final Logger securityLogger = LoggerFactory.getLogger("SECURITY");
+    private final AuditTrail auditTrail;
 
-    @Before("execution(* bf.kvill.spring_phone_book.controller.AuthController.*(..))")
-    public void logAuthAttempt(JoinPoint joinPoint) {
-        HttpServletRequest request = getCurrentRequest();
-        if (request != null) {
-            String clientIp = getClientIp(request);
-            String userAgent = request.getHeader("User-Agent");
-            
-            securityLogger.info("AUTH_ATTEMPT: method={}, ip={}, userAgent={}", 
-                joinPoint.getSignature().getName(), clientIp, userAgent);
-        }
+    @Around("execution(* bf.kvill.spring_phone_book.controller.AuthController.login(..))")
+    public Object auditLogin(ProceedingJoinPoint joinPoint) throws Throwable {
+        return audit(joinPoint, AuditEventType.LOGIN_SUCCESS, AuditEventType.LOGIN_FAILED);
     }
 
-    @AfterReturning(pointcut = "execution(* bf.kvill.spring_phone_book.controller.AuthController.login(..))", returning = "result")
-    public void logSuccessfulLogin(JoinPoint joinPoint, Object result) {
-        HttpServletRequest request = getCurrentRequest();
-        if (request != null) {
-            String clientIp = getClientIp(request);
-            securityLogger.info("LOGIN_SUCCESS: ip={}", clientIp);
-        }
+    @Around("execution(* bf.kvill.spring_phone_book.controller.AuthController.register(..))")
+    public Object auditRegistration(ProceedingJoinPoint joinPoint) throws Throwable {
+        return audit(joinPoint, AuditEventType.USER_REGISTERED, AuditEventType.REGISTRATION_FAILED);
     }
 
-    @AfterThrowing(pointcut = "execution(* bf.kvill.spring_phone_book.controller.AuthController.login(..))", throwing = "ex")
-    public void logFailedLogin(JoinPoint joinPoint, Throwable ex) {
-        HttpServletRequest request = getCurrentRequest();
-        if (request != null) {
-            String clientIp = getClientIp(request);
-            securityLogger.warn("LOGIN_FAILED: ip={}, reason={}", clientIp, ex.getMessage());
-        }
+    @Around("execution(* bf.kvill.spring_phone_book.controller.AuthController.refresh(..))")
+    public Object auditRefresh(ProceedingJoinPoint joinPoint) throws Throwable {
+        return audit(joinPoint, AuditEventType.TOKEN_REFRESHED, AuditEventType.TOKEN_REFRESH_FAILED);
     }
 
-    @AfterReturning(pointcut = "execution(* bf.kvill.spring_phone_book.controller.AuthController.register(..))")
-    public void logUserRegistration(JoinPoint joinPoint) {
-        HttpServletRequest request = getCurrentRequest();
-        if (request != null) {
-            String clientIp = getClientIp(request);
-            securityLogger.info("USER_REGISTERED: ip={}", clientIp);
+    // AuthController répond 400 plutôt que de lever une exception : le statut décide du résultat
+    private Object audit(ProceedingJoinPoint joinPoint, AuditEventType success, AuditEventType failure) throws Throwable {
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable ex) {
+            publish(joinPoint, failure, 500);
+            throw ex;
         }
+        int status = result instanceof ResponseEntity<?> response ? response.getStatusCode().value() : 200;
+        publish(joinPoint, status < 300 ? success : failure, status);
+        return result;
     }
 
-    private HttpServletRequest getCurrentRequest() {
+    private void publish(ProceedingJoinPoint joinPoint, AuditEventType type, int status) {
         ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
-        return attributes != null ? attributes.getRequest() : null;
-    }
-
-    private String getClientIp(HttpServletRequest request) {
-        String xForwardedFor = request.getHeader("X-Forwarded-For");
-        if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
-            return xForwardedFor.split(",")[0].trim();
+        if (attributes == null) {
+            return;
         }
-        
-        String xRealIp = request.getHeader("X-Real-IP");
-        if (xRealIp != null && !xRealIp.isEmpty()) {
-            return xRealIp;
+        HttpServletRequest request = attributes.getRequest();
+        String forwardedFor = request.getHeader("X-Forwarded-For");
+        if (forwardedFor == null) {
+            forwardedFor = request.getHeader("X-Real-IP");
         }
-        
-        return request.getRemoteAddr();
+        auditTrail.publish(new AuditEvent(Instant.now(), type, username(joinPoint.getArgs()), forwardedFor,
+                request.getRemoteAddr(), request.getHeader("User-Agent"), status));
+    }
+
+    private static String username(Object[] args) {
+        return args.length > 0 && args[0] instanceof AuthRequest request ? request.getUsername() : null;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,31 @@
+package bf.kvill.spring_phone_book.audit;
+
+import bf.kvill.spring_phone_book.enums.AuditEventType;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.Instant;
+
+/**
+ * Événement d'audit de sécurité, capturé tel quel sur le thread de la requête.
+ *
+ * Les en-têtes sont conservés bruts : l'adresse du client (clientIp) n'est calculée qu'au moment
+ * de l'écriture ou de la lecture, hors du chemin de la requête. forwardedFor contient la chaîne
+ * X-Forwarded-For complète (ou X-Real-IP à défaut).
+ */
+public record AuditEvent(Instant timestamp,
+                         AuditEventType type,
+                         String username,
+                         String forwardedFor,
+                         String remoteAddr,
+                         String userAgent,
+                         int status) {
+
+    @JsonProperty("clientIp")
+    public String clientIp() {
+        if (forwardedFor != null && !forwardedFor.isEmpty()) {
+            int comma = forwardedFor.indexOf(',');
+            return (comma < 0 ? forwardedFor : forwardedFor.substring(0, comma)).trim();
+        }
+        return remoteAddr;
+    }
+}
@@ -0,0 +1,168 @@
+package bf.kvill.spring_phone_book.audit;
+
+import bf.kvill.spring_phone_book.enums.AuditEventType;
+import bf.kvill.spring_phone_book.service.MetricsService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Piste d'audit de sécurité : publish() dépose l'événement dans une file bornée et rend la main,
+ * c'est tout ce que paie la requête. Un thread unique vide la file par lots, écrit chaque
+ * événement en JSON (une ligne) dans le fichier projeté en mémoire et le garde dans un tampon
+ * circulaire des derniers événements, consultable par les administrateurs.
+ *
+ * File pleine : l'événement est écarté et compté (audit.events.dropped) plutôt que de ralentir
+ * l'authentification.
+ */
+@Component
+@Slf4j
+public class AuditTrail {
+
+    private static final long POLL_MILLIS = 100;
+
+    private final ObjectMapper objectMapper;
+    private final MetricsService metricsService;
+    private final Path directory;
+    private final DataSize segmentSize;
+    private final int maxFiles;
+    private final int batchSize;
+    private final ArrayBlockingQueue<AuditEvent> queue;
+
+    // Tampon circulaire : écrit par le thread d'audit, lu par l'endpoint d'administration
+    private final AuditEvent[] recent;
+    private long recentCount;
+
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private volatile boolean running;
+    private MappedAuditFile file;
+    private Thread writer;
+
+    public AuditTrail(ObjectMapper objectMapper,
+                      MetricsService metricsService,
+                      @Value("${audit.dir:logs/audit}") String directory,
+                      @Value("${audit.segment-size:16MB}") DataSize segmentSize,
+                      @Value("${audit.max-files:30}") int maxFiles,
+                      @Value("${audit.queue-size:8192}") int queueSize,
+                      @Value("${audit.batch-size:256}") int batchSize,
+                      @Value("${audit.recent-size:1000}") int recentSize) {
+        this.objectMapper = objectMapper;
+        this.metricsService = metricsService;
+        this.directory = Path.of(directory);
+        this.segmentSize = segmentSize;
+        this.maxFiles = maxFiles;
+        this.batchSize = Math.max(batchSize, 1);
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+        this.recent = new AuditEvent[Math.max(recentSize, 1)];
+    }
+
+    @PostConstruct
+    public void start() {
+        file = new MappedAuditFile(directory, Math.toIntExact(segmentSize.toBytes()), maxFiles);
+        running = true;
+        writer = new Thread(this::drain, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+        metricsService.registerAuditTrail(this);
+    }
+
+    // Arrêt : les événements en file sont écrits, puis le segment courant est forcé sur disque
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    public void publish(AuditEvent event) {
+        if (!running || !queue.offer(event)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    // Du plus récent au plus ancien, éventuellement filtrés par type
+    public synchronized List<AuditEvent> recentEvents(int limit, AuditEventType type) {
+        int available = (int) Math.min(recentCount, recent.length);
+        List<AuditEvent> events = new ArrayList<>(Math.min(limit, available));
+        for (int i = 1; i <= available && events.size() < limit; i++) {
+            AuditEvent event = recent[(int) ((recentCount - i) % recent.length)];
+            if (type == null || event.type() == type) {
+                events.add(event);
+            }
+        }
+        return events;
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    private void drain() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        try {
+            while (running) {
+                AuditEvent first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        while (queue.drainTo(batch, batchSize) > 0) {
+            write(batch);
+        }
+        try {
+            file.close();
+        } catch (IOException e) {
+            log.error("Failed to close audit file in {}", directory, e);
+        }
+    }
+
+    private void write(List<AuditEvent> batch) {
+        for (AuditEvent event : batch) {
+            try {
+                byte[] json = objectMapper.writeValueAsBytes(event);
+                byte[] line = new byte[json.length + 1];
+                System.arraycopy(json, 0, line, 0, json.length);
+                line[json.length] = '\n';
+                file.append(line);
+                written.incrementAndGet();
+            } catch (IOException e) {
+                log.error("Failed to write audit event {}", event.type(), e);
+            }
+        }
+        remember(batch);
+        batch.clear();
+    }
+
+    // Un verrou par lot et non par événement
+    private synchronized void remember(List<AuditEvent> batch) {
+        for (AuditEvent event : batch) {
+            recent[(int) (recentCount++ % recent.length)] = event;
+        }
+    }
+}
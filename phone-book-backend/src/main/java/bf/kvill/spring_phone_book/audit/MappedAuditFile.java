@@ -0,0 +1,116 @@
+package bf.kvill.spring_phone_book.audit;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Fichier d'audit en ajout seul, projeté en mémoire par segments de taille fixe.
+ *
+ * Une écriture est une copie dans la projection (pas d'appel système par ligne) ; les pages
+ * sont écrites par le noyau et forcées sur disque à chaque rotation et à la fermeture. Le
+ * segment courant est audit.log ; plein, il est tronqué à sa longueur utile et renommé
+ * audit-yyyyMMdd-HHmmss-SSS-nnnn.log, et seuls les maxFiles derniers segments sont gardés.
+ * Les lignes ne contiennent jamais d'octet nul : au redémarrage, l'écriture reprend au premier.
+ *
+ * Non thread-safe : un seul thread écrit (AuditTrail).
+ */
+public class MappedAuditFile implements Closeable {
+
+    static final String CURRENT = "audit.log";
+    private static final DateTimeFormatter ROTATED = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxFiles;
+
+    private int rotations;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+
+    public MappedAuditFile(Path directory, int segmentSize, int maxFiles) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxFiles = maxFiles;
+        try {
+            Files.createDirectories(directory);
+            open();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open audit file in " + directory, e);
+        }
+    }
+
+    // Une ligne plus longue qu'un segment est tronquée : elle ne peut pas bloquer la rotation
+    public void append(byte[] line) throws IOException {
+        int length = Math.min(line.length, segmentSize);
+        if (buffer.remaining() < length) {
+            rotate();
+        }
+        buffer.put(line, 0, length);
+    }
+
+    public int position() {
+        return buffer.position();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel == null) {
+            return;
+        }
+        buffer.force();
+        int written = buffer.position();
+        buffer = null;
+        channel.truncate(written);
+        channel.close();
+        channel = null;
+    }
+
+    private void open() throws IOException {
+        channel = FileChannel.open(directory.resolve(CURRENT),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long existing = channel.size();
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        // Reprise après arrêt (fichier tronqué) ou crash (fin du segment à zéro)
+        int end = 0;
+        while (end < Math.min(existing, segmentSize) && buffer.get(end) != 0) {
+            end++;
+        }
+        buffer.position(end);
+    }
+
+    private void rotate() throws IOException {
+        close();
+        Files.move(directory.resolve(CURRENT),
+                directory.resolve(String.format("audit-%s-%04d.log", LocalDateTime.now().format(ROTATED), rotations++ % 10_000)),
+                StandardCopyOption.ATOMIC_MOVE);
+        deleteOldSegments();
+        open();
+    }
+
+    // Noms horodatés : l'ordre lexicographique est l'ordre chronologique
+    private void deleteOldSegments() throws IOException {
+        List<Path> rotated;
+        try (Stream<Path> files = Files.list(directory)) {
+            rotated = files.filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.startsWith("audit-") && name.endsWith(".log");
+                    })
+                    .sorted()
+                    .toList();
+        }
+        for (int i = 0; i < rotated.size() - maxFiles; i++) {
+            Files.deleteIfExists(rotated.get(i));
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package bf.kvill.spring_phone_book.cache;
+
+import bf.kvill.spring_phone_book.dto.ContactView;
+import bf.kvill.spring_phone_book.dto.GroupSummary;
+import bf.kvill.spring_phone_book.dto.GroupView;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sérialiseur binaire compact pour les listes de {@link ContactView}, {@link GroupView}
+ * et {@link GroupSummary}.
+ *
+ * En-tête : octet magique, version du schéma, drapeaux (bit 0 = LZ4), puis le type de liste,
+ * le nombre d'éléments et les champs. Une version inconnue est lue comme une absence
+ * d'entrée (cache miss) ; les autres valeurs sont déléguées au sérialiseur JSON.
+ */
+public class CompactCacheSerializer implements RedisSerializer<Object> {
+
+    static final byte MAGIC = (byte) 0xCB;
+    static final byte VERSION = 1;
+
+    private static final byte FLAG_LZ4 = 1;
+
+    private static final byte TYPE_EMPTY = 0;
+    private static final byte TYPE_CONTACTS = 1;
+    private static final byte TYPE_GROUPS = 2;
+    private static final byte TYPE_GROUP_SUMMARIES = 3;
+
+    // Implémentation Java "safe" : pas de JNI ni d'Unsafe sur des octets lus depuis Redis
+    private static final LZ4Factory LZ4 = LZ4Factory.safeInstance();
+
+    private final RedisSerializer<Object> fallback;
+    private final boolean compress;
+    private final int compressionThreshold;
+    private final LZ4Compressor compressor = LZ4.fastCompressor();
+    private final LZ4SafeDecompressor decompressor = LZ4.safeDecompressor();
+
+    public CompactCacheSerializer(RedisSerializer<Object> fallback, boolean compress, int compressionThreshold) {
+        this.fallback = fallback;
+        this.compress = compress;
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (!(value instanceof List<?> list) || !isSupported(list)) {
+            return fallback.serialize(value);
+        }
+
+        Writer payload = new Writer();
+        if (list.isEmpty()) {
+            payload.writeByte(TYPE_EMPTY);
+        } else if (list.get(0) instanceof ContactView) {
+            payload.writeByte(TYPE_CONTACTS);
+            payload.writeVarLong(list.size());
+            for (Object item : list) {
+                writeContact(payload, (ContactView) item);
+            }
+        } else if (list.get(0) instanceof GroupSummary) {
+            payload.writeByte(TYPE_GROUP_SUMMARIES);
+            payload.writeVarLong(list.size());
+            for (Object item : list) {
+                writeGroupSummary(payload, (GroupSummary) item);
+            }
+        } else {
+            payload.writeByte(TYPE_GROUPS);
+            payload.writeVarLong(list.size());
+            for (Object item : list) {
+                writeGroup(payload, (GroupView) item);
+            }
+        }
+
+        byte[] body = payload.toByteArray();
+        if (compress && body.length >= compressionThreshold) {
+            byte[] compressed = compressor.compress(body);
+            return ByteBuffer.allocate(7 + compressed.length)
+                    .put(MAGIC).put(VERSION).put(FLAG_LZ4)
+                    .putInt(body.length)
+                    .put(compressed)
+                    .array();
+        }
+        return ByteBuffer.allocate(3 + body.length)
+                .put(MAGIC).put(VERSION).put((byte) 0)
+                .put(body)
+                .array();
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != MAGIC) {
+            return fallback.deserialize(bytes);
+        }
+        if (bytes.length < 3 || bytes[1] != VERSION) {
+            // Entrée écrite par une autre version du schéma : traitée comme absente
+            return null;
+        }
+
+        byte[] body;
+        if ((bytes[2] & FLAG_LZ4) != 0) {
+            int length = ByteBuffer.wrap(bytes, 3, 4).getInt();
+            body = new byte[length];
+            decompressor.decompress(bytes, 7, bytes.length - 7, body, 0);
+        } else {
+            body = new byte[bytes.length - 3];
+            System.arraycopy(bytes, 3, body, 0, body.length);
+        }
+
+        Reader reader = new Reader(body);
+        byte type = reader.readByte();
+        if (type == TYPE_EMPTY) {
+            return new ArrayList<>();
+        }
+        int count = (int) reader.readVarLong();
+        List<Object> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            switch (type) {
+                case TYPE_CONTACTS -> items.add(readContact(reader));
+                case TYPE_GROUPS -> items.add(readGroup(reader));
+                case TYPE_GROUP_SUMMARIES -> items.add(readGroupSummary(reader));
+                default -> throw new SerializationException("Unknown cache payload type " + type);
+            }
+        }
+        return items;
+    }
+
+    private static boolean isSupported(List<?> list) {
+        if (list.isEmpty()) {
+            return true;
+        }
+        Class<?> type = list.get(0) == null ? null : list.get(0).getClass();
+        if (type != ContactView.class && type != GroupView.class && type != GroupSummary.class) {
+            return false;
+        }
+        for (Object item : list) {
+            if (item == null || item.getClass() != type) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void writeContact(Writer out, ContactView contact) {
+        out.writeNullableLong(contact.id());
+        out.writeString(contact.firstName());
+        out.writeString(contact.lastName());
+        out.writeString(contact.phoneNumber());
+        out.writeString(contact.email());
+        if (contact.group() == null) {
+            out.writeByte((byte) 0);
+        } else {
+            out.writeByte((byte) 1);
+            writeGroup(out, contact.group());
+        }
+    }
+
+    private static ContactView readContact(Reader in) {
+        Long id = in.readNullableLong();
+        String firstName = in.readString();
+        String lastName = in.readString();
+        String phoneNumber = in.readString();
+        String email = in.readString();
+        GroupView group = in.readByte() == 1 ? readGroup(in) : null;
+        return new ContactView(id, firstName, lastName, phoneNumber, email, group);
+    }
+
+    private static void writeGroup(Writer out, GroupView group) {
+        out.writeNullableLong(group.id());
+        out.writeString(group.name());
+        out.writeString(group.description());
+    }
+
+    private static GroupView readGroup(Reader in) {
+        return new GroupView(in.readNullableLong(), in.readString(), in.readString());
+    }
+
+    private static void writeGroupSummary(Writer out, GroupSummary summary) {
+        out.writeNullableLong(summary.id());
+        out.writeString(summary.name());
+        out.writeString(summary.description());
+        out.writeVarLong(summary.contactCount());
+    }
+
+    private static GroupSummary readGroupSummary(Reader in) {
+        return new GroupSummary(in.readNullableLong(), in.readString(), in.readString(), in.readVarLong());
+    }
+
+    // Entiers à longueur variable (7 bits par octet) et chaînes UTF-8 préfixées par leur longueur
+    private static final class Writer extends ByteArrayOutputStream {
+
+        Writer() {
+            super(256);
+        }
+
+        void writeByte(byte value) {
+            write(value);
+        }
+
+        void writeVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            write((int) value);
+        }
+
+        // 0 = null, sinon valeur + 1
+        void writeNullableLong(Long value) {
+            writeVarLong(value == null ? 0 : value + 1);
+        }
+
+        // 0 = null, sinon longueur + 1
+        void writeString(String value) {
+            if (value == null) {
+                writeVarLong(0);
+                return;
+            }
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(utf8.length + 1L);
+            write(utf8, 0, utf8.length);
+        }
+    }
+
+    private static final class Reader {
+
+        private final byte[] buffer;
+        private int position;
+
+        Reader(byte[] buffer) {
+            this.buffer = buffer;
+        }
+
+        byte readByte() {
+            if (position >= buffer.length) {
+                throw new SerializationException("Truncated cache payload");
+            }
+            return buffer[position++];
+        }
+
+        long readVarLong() {
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+
+        Long readNullableLong() {
+            long value = readVarLong();
+            return value == 0 ? null : value - 1;
+        }
+
+        String readString() {
+            int length = (int) readVarLong();
+            if (length == 0) {
+                return null;
+            }
+            length--;
+            if (position + length > buffer.length) {
+                throw new SerializationException("Truncated cache payload");
+            }
+            String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+    }
+}
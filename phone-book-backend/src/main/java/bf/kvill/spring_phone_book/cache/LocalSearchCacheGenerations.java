@@ -0,0 +1,20 @@
+package bf.kvill.spring_phone_book.cache;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Compteur en mémoire, pour un cache local à l'instance (spring.cache.type=simple)
+public class LocalSearchCacheGenerations implements SearchCacheGenerations {
+
+    private final Map<Long, Long> generations = new ConcurrentHashMap<>();
+
+    @Override
+    public long current(Long userId) {
+        return generations.getOrDefault(userId, 0L);
+    }
+
+    @Override
+    public void bump(Long userId) {
+        generations.merge(userId, 1L, Long::sum);
+    }
+}
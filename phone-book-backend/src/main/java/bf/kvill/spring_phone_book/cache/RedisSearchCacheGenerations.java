@@ -0,0 +1,26 @@
+package bf.kvill.spring_phone_book.cache;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+// Compteur partagé par tous les replicas : INCR atomique dans Redis
+public class RedisSearchCacheGenerations implements SearchCacheGenerations {
+
+    private static final String KEY_PREFIX = "cache:searches:gen:user:";
+
+    private final StringRedisTemplate redisTemplate;
+
+    public RedisSearchCacheGenerations(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public long current(Long userId) {
+        String value = redisTemplate.opsForValue().get(KEY_PREFIX + userId);
+        return value == null ? 0L : Long.parseLong(value);
+    }
+
+    @Override
+    public void bump(Long userId) {
+        redisTemplate.opsForValue().increment(KEY_PREFIX + userId);
+    }
+}
@@ -0,0 +1,32 @@
+package bf.kvill.spring_phone_book.cache;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Génération du cache "searches" par utilisateur.
+ *
+ * La génération courante fait partie de chaque clé de recherche mise en cache ; l'incrémenter
+ * invalide en O(1) toutes les recherches de l'utilisateur, sans parcourir les clés Redis.
+ * Les entrées des anciennes générations expirent simplement avec le TTL du cache.
+ */
+public interface SearchCacheGenerations {
+
+    long current(Long userId);
+
+    void bump(Long userId);
+
+    // Après commit : une recherche concurrente ne peut pas remettre en cache des données périmées
+    default void bumpAfterCommit(Long userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bump(userId);
+                }
+            });
+        } else {
+            bump(userId);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package bf.kvill.spring_phone_book.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache à deux niveaux : Caffeine en mémoire (L1) devant Redis (L2).
+ * Toute écriture ou éviction est diffusée aux autres replicas, qui vident leur L1.
+ */
+public class TwoLevelCache extends AbstractValueAdaptingCache {
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Object> local;
+    private final Cache remote;
+    private final CacheInvalidationBus invalidationBus;
+
+    private final LongAdder l1Hits = new LongAdder();
+    private final LongAdder l1Misses = new LongAdder();
+    private final LongAdder l2Hits = new LongAdder();
+    private final LongAdder l2Misses = new LongAdder();
+
+    public TwoLevelCache(String name,
+                         com.github.benmanes.caffeine.cache.Cache<Object, Object> local,
+                         Cache remote,
+                         CacheInvalidationBus invalidationBus) {
+        super(true);
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.invalidationBus = invalidationBus;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return local;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        Object storeValue = local.getIfPresent(key);
+        if (storeValue != null) {
+            l1Hits.increment();
+            return storeValue;
+        }
+        l1Misses.increment();
+
+        ValueWrapper wrapper = remote.get(key);
+        if (wrapper == null) {
+            l2Misses.increment();
+            return null;
+        }
+        l2Hits.increment();
+        storeValue = toStoreValue(wrapper.get());
+        local.put(key, storeValue);
+        return storeValue;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object storeValue = lookup(key);
+        if (storeValue != null) {
+            return (T) fromStoreValue(storeValue);
+        }
+        T value = remote.get(key, valueLoader);
+        local.put(key, toStoreValue(value));
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remote.put(key, value);
+        local.put(key, toStoreValue(value));
+        invalidationBus.publishEvict(name, key);
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        local.invalidate(key);
+        invalidationBus.publishEvict(name, key);
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        local.invalidateAll();
+        invalidationBus.publishClear(name);
+    }
+
+    // Appelés à la réception d'une invalidation venant d'un autre replica
+    void evictLocal(Object key) {
+        local.invalidate(key);
+    }
+
+    void clearLocal() {
+        local.invalidateAll();
+    }
+
+    void bindMetrics(MeterRegistry registry) {
+        counter(registry, "l1", "hit", l1Hits);
+        counter(registry, "l1", "miss", l1Misses);
+        counter(registry, "l2", "hit", l2Hits);
+        counter(registry, "l2", "miss", l2Misses);
+        ratio(registry, "l1", l1Hits, l1Misses);
+        ratio(registry, "l2", l2Hits, l2Misses);
+        Gauge.builder("cache.tier.size", local, c -> c.estimatedSize())
+                .description("Entries held in the local L1 cache")
+                .tag("cache", name)
+                .register(registry);
+    }
+
+    private void counter(MeterRegistry registry, String tier, String result, LongAdder adder) {
+        FunctionCounter.builder("cache.tier.gets", adder, LongAdder::sum)
+                .description("Cache lookups per tier")
+                .tags("cache", name, "tier", tier, "result", result)
+                .register(registry);
+    }
+
+    private void ratio(MeterRegistry registry, String tier, LongAdder hits, LongAdder misses) {
+        Gauge.builder("cache.tier.hit.ratio", () -> {
+                    long h = hits.sum();
+                    long total = h + misses.sum();
+                    return total == 0 ? 0.0 : (double) h / total;
+                })
+                .description("Hit ratio per cache tier")
+                .tags("cache", name, "tier", tier)
+                .register(registry);
+    }
+}
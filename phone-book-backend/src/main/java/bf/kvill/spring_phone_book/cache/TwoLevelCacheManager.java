@@ -0,0 +1,68 @@
+package bf.kvill.spring_phone_book.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * CacheManager composite : chaque cache Redis est précédé d'un cache Caffeine borné.
+ * La taille maximale du L1 est fixée par nom de cache ; le TTL local, plus court que celui
+ * de Redis, borne l'obsolescence si une invalidation pub/sub est perdue.
+ */
+public class TwoLevelCacheManager implements CacheManager {
+
+    private final CacheManager remoteCacheManager;
+    private final CacheInvalidationBus invalidationBus;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Long> localMaxSizes;
+    private final long defaultLocalMaxSize;
+    private final Duration localTtl;
+    private final Map<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+
+    public TwoLevelCacheManager(CacheManager remoteCacheManager,
+                                CacheInvalidationBus invalidationBus,
+                                MeterRegistry meterRegistry,
+                                Map<String, Long> localMaxSizes,
+                                long defaultLocalMaxSize,
+                                Duration localTtl) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.invalidationBus = invalidationBus;
+        this.meterRegistry = meterRegistry;
+        this.localMaxSizes = localMaxSizes;
+        this.defaultLocalMaxSize = defaultLocalMaxSize;
+        this.localTtl = localTtl;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return remoteCacheManager.getCacheNames();
+    }
+
+    private TwoLevelCache createCache(String name) {
+        Cache remote = remoteCacheManager.getCache(name);
+        if (remote == null) {
+            throw new IllegalStateException("No remote cache configured for '" + name + "'");
+        }
+        TwoLevelCache cache = new TwoLevelCache(name,
+                Caffeine.newBuilder()
+                        .maximumSize(localMaxSizes.getOrDefault(name, defaultLocalMaxSize))
+                        .expireAfterWrite(localTtl)
+                        .build(),
+                remote,
+                invalidationBus);
+        invalidationBus.register(cache);
+        cache.bindMetrics(meterRegistry);
+        return cache;
+    }
+}
@@ -0,0 +1,87 @@
+package bf.kvill.spring_phone_book.config;
+
+import bf.kvill.spring_phone_book.jdbc.SqlStatistics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.RejectedExecutionException;
+
+// Exécuteurs du travail asynchrone des services (appels JDBC/Redis bloquants), à la place du
+// ForkJoinPool commun. Un pool borné par opération sert de cloison : une recherche lente ne peut
+// pas occuper la capacité de la liste des contacts. Threads virtuels avec spring.threads.virtual.enabled.
+@Configuration
+public class AsyncConfig {
+
+    public static final String CONTACTS_EXECUTOR = "contactsExecutor";
+    public static final String SEARCH_EXECUTOR = "searchExecutor";
+    public static final String MVC_EXECUTOR = "mvcAsyncExecutor";
+
+    private final MeterRegistry meterRegistry;
+    private final boolean virtualThreads;
+
+    public AsyncConfig(MeterRegistry meterRegistry, Environment environment) {
+        this.meterRegistry = meterRegistry;
+        this.virtualThreads = Threading.VIRTUAL.isActive(environment);
+    }
+
+    @Bean(CONTACTS_EXECUTOR)
+    public ThreadPoolTaskExecutor contactsExecutor(@Value("${async.contacts.core-size:8}") int coreSize,
+                                                   @Value("${async.contacts.max-size:32}") int maxSize,
+                                                   @Value("${async.contacts.queue-capacity:200}") int queueCapacity) {
+        return boundedExecutor("contacts", coreSize, maxSize, queueCapacity);
+    }
+
+    @Bean(SEARCH_EXECUTOR)
+    public ThreadPoolTaskExecutor searchExecutor(@Value("${async.search.core-size:4}") int coreSize,
+                                                 @Value("${async.search.max-size:16}") int maxSize,
+                                                 @Value("${async.search.queue-capacity:100}") int queueCapacity) {
+        return boundedExecutor("search", coreSize, maxSize, queueCapacity);
+    }
+
+    // Réponses asynchrones de Spring MVC (export en flux) ; sans lui, MVC crée un thread par réponse
+    @Bean(MVC_EXECUTOR)
+    public ThreadPoolTaskExecutor mvcAsyncExecutor(@Value("${async.mvc.core-size:4}") int coreSize,
+                                                   @Value("${async.mvc.max-size:16}") int maxSize,
+                                                   @Value("${async.mvc.queue-capacity:50}") int queueCapacity) {
+        return boundedExecutor("mvc", coreSize, maxSize, queueCapacity);
+    }
+
+    // Pool et file bornés ; au-delà, la tâche est refusée (503) plutôt que mise en attente sans limite
+    ThreadPoolTaskExecutor boundedExecutor(String name, int coreSize, int maxSize, int queueCapacity) {
+        Counter rejected = Counter.builder("executor.rejected")
+                .description("Tasks rejected because the pool and its queue are full")
+                .tag("name", name)
+                .register(meterRegistry);
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix(name + "-");
+        if (virtualThreads) {
+            // Threads virtuels, toujours en nombre borné : la cloison est conservée
+            executor.setThreadFactory(Thread.ofVirtual().name(name + "-", 0).factory());
+        }
+        // Les requêtes SQL de la tâche comptent dans la requête HTTP qui l'a soumise
+        executor.setTaskDecorator(SqlStatistics::propagate);
+        executor.setRejectedExecutionHandler((task, pool) -> {
+            rejected.increment();
+            throw new RejectedExecutionException("Executor '" + name + "' is saturated");
+        });
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        executor.initialize();
+
+        // executor.pool.size, executor.active, executor.queued, executor.queue.remaining, executor.completed
+        new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), name, Tags.empty()).bindTo(meterRegistry);
+        return executor;
+    }
+}
@@ -1,5 +1,15 @@
 package bf.kvill.spring_phone_book.config;
 
+import bf.kvill.spring_phone_book.cache.CacheInvalidationBus;
+import bf.kvill.spring_phone_book.cache.CompactCacheSerializer;
+import bf.kvill.spring_phone_book.cache.LocalSearchCacheGenerations;
+import bf.kvill.spring_phone_book.cache.RedisSearchCacheGenerations;
+import bf.kvill.spring_phone_book.cache.SearchCacheGenerations;
+import bf.kvill.spring_phone_book.cache.TwoLevelCacheManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
@@ -7,6 +17,9 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
@@ -15,34 +28,97 @@ import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
+// Sans Redis (spring.cache.type=simple, ex. tests), Spring Boot fournit son propre CacheManager
 @Configuration
 @EnableCaching
 public class CacheConfig {
 
+    @Value("${cache.local.ttl:PT1M}")
+    private Duration localTtl;
+
+    @Value("${cache.local.default-max-size:1000}")
+    private long localDefaultMaxSize;
+
+    @Value("${cache.serializer.lz4.enabled:true}")
+    private boolean lz4Enabled;
+
+    // Taille (octets) à partir de laquelle une entrée est compressée
+    @Value("${cache.serializer.lz4.threshold:1024}")
+    private int lz4Threshold;
+
+    @Bean
+    @ConditionalOnProperty(name = "spring.cache.type", havingValue = "redis", matchIfMissing = true)
+    public CacheInvalidationBus cacheInvalidationBus(StringRedisTemplate redisTemplate) {
+        return new CacheInvalidationBus(redisTemplate);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "spring.cache.type", havingValue = "redis", matchIfMissing = true)
+    public RedisMessageListenerContainer cacheInvalidationListener(RedisConnectionFactory connectionFactory,
+                                                                   CacheInvalidationBus cacheInvalidationBus) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(cacheInvalidationBus, new ChannelTopic(CacheInvalidationBus.CHANNEL));
+        return container;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "spring.cache.type", havingValue = "redis", matchIfMissing = true)
+    public SearchCacheGenerations searchCacheGenerations(StringRedisTemplate redisTemplate) {
+        return new RedisSearchCacheGenerations(redisTemplate);
+    }
+
+    // Même nom de bean : référencé par @searchCacheGenerations dans les clés de cache
+    @Bean(name = "searchCacheGenerations")
+    @ConditionalOnMissingBean(SearchCacheGenerations.class)
+    public SearchCacheGenerations localSearchCacheGenerations() {
+        return new LocalSearchCacheGenerations();
+    }
+
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    @ConditionalOnProperty(name = "spring.cache.type", havingValue = "redis", matchIfMissing = true)
+    public CacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                     CacheInvalidationBus cacheInvalidationBus,
+                                     MeterRegistry meterRegistry) {
+        GenericJackson2JsonRedisSerializer jsonSerializer = new GenericJackson2JsonRedisSerializer();
         RedisCacheConfiguration defaultConfig = RedisCacheConfiguration.defaultCacheConfig()
                 .entryTtl(Duration.ofMinutes(30))
                 .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
-                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(new GenericJackson2JsonRedisSerializer()));
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(jsonSerializer));
+
+        // Listes de contacts/groupes : format binaire compact (+ LZ4), le reste retombe sur JSON
+        RedisCacheConfiguration compactConfig = defaultConfig.serializeValuesWith(
+                RedisSerializationContext.SerializationPair.fromSerializer(
+                        new CompactCacheSerializer(jsonSerializer, lz4Enabled, lz4Threshold)));
 
         Map<String, RedisCacheConfiguration> cacheConfigurations = new HashMap<>();
-        
+
         // Cache contacts - 15 minutes
-        cacheConfigurations.put("contacts", defaultConfig.entryTtl(Duration.ofMinutes(15)));
-        
+        cacheConfigurations.put("contacts", compactConfig.entryTtl(Duration.ofMinutes(15)));
+
         // Cache groups - 1 hour
-        cacheConfigurations.put("groups", defaultConfig.entryTtl(Duration.ofHours(1)));
-        
+        cacheConfigurations.put("groups", compactConfig.entryTtl(Duration.ofHours(1)));
+
         // Cache user data - 5 minutes
         cacheConfigurations.put("users", defaultConfig.entryTtl(Duration.ofMinutes(5)));
-        
-        // Cache search results - 10 minutes
-        cacheConfigurations.put("searches", defaultConfig.entryTtl(Duration.ofMinutes(10)));
 
-        return RedisCacheManager.builder(connectionFactory)
+        // Cache search results - 10 minutes (listes de ContactView, même format que "contacts")
+        cacheConfigurations.put("searches", compactConfig.entryTtl(Duration.ofMinutes(10)));
+
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
                 .cacheDefaults(defaultConfig)
                 .withInitialCacheConfigurations(cacheConfigurations)
                 .build();
+        redisCacheManager.initializeCaches();
+
+        // Taille max du cache local (L1) par cache, en nombre d'entrées
+        Map<String, Long> localMaxSizes = new HashMap<>();
+        localMaxSizes.put("contacts", 1_000L);
+        localMaxSizes.put("groups", 1_000L);
+        localMaxSizes.put("users", 10_000L);
+        localMaxSizes.put("searches", 5_000L);
+
+        return new TwoLevelCacheManager(redisCacheManager, cacheInvalidationBus, meterRegistry,
+                localMaxSizes, localDefaultMaxSize, localTtl);
     }
-}
\ No newline at end of file
+}
@@ -1,111 +1,149 @@
 package bf.kvill.spring_phone_book.config;
 
+import bf.kvill.spring_phone_book.logging.MeteredAsyncAppender;
+import bf.kvill.spring_phone_book.logging.MeteredAsyncAppender.OverflowPolicy;
+import bf.kvill.spring_phone_book.service.MetricsService;
 import ch.qos.logback.classic.Logger;
 import ch.qos.logback.classic.LoggerContext;
 import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
 import ch.qos.logback.classic.spi.ILoggingEvent;
 import ch.qos.logback.core.rolling.RollingFileAppender;
-import ch.qos.logback.core.rolling.TimeBasedRollingPolicy;
+import ch.qos.logback.core.rolling.SizeAndTimeBasedRollingPolicy;
+import ch.qos.logback.core.util.FileSize;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 
-import jakarta.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 
+// Journaux SECURITY, BUSINESS et ERROR : fichiers écrits par un thread dédié (MeteredAsyncAppender),
+// le thread de la requête ne fait que déposer l'événement dans une file bornée.
 @Configuration
+@RequiredArgsConstructor
+@Slf4j
 public class LoggingConfig {
 
+    private static final String PATTERN = "%d{yyyy-MM-dd HH:mm:ss} [%thread] %-5level %logger{36} - %msg%n";
+    private static final String MAX_FILE_SIZE = "100MB";
+
+    // Contextes Spring qui se servent de chaque appender, arrêté par le dernier qui le libère
+    private static final Map<MeteredAsyncAppender, Integer> USERS = new IdentityHashMap<>();
+
+    private final MetricsService metricsService;
+
+    @Value("${logging.async.queue-size:8192}")
+    private int queueSize;
+
+    @Value("${logging.async.overflow-policy:BLOCK}")
+    private OverflowPolicy overflowPolicy;
+
+    @Value("${logging.async.sample-rate:10}")
+    private int sampleRate;
+
+    @Value("${logging.async.batch-size:256}")
+    private int batchSize;
+
+    private final List<MeteredAsyncAppender> appenders = new ArrayList<>();
+
     @PostConstruct
     public void configureLogging() {
         LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
-        
+
         // Security Logger
-        configureSecurityLogger(context);
-        
+        configureLogger(context, "SECURITY", "logs/security", 30);
+
         // Business Logger
-        configureBusinessLogger(context);
-        
+        configureLogger(context, "BUSINESS", "logs/business", 90);
+
         // Error Logger
-        configureErrorLogger(context);
+        configureLogger(context, "ERROR", "logs/error", 365);
     }
 
-    private void configureSecurityLogger(LoggerContext context) {
-        RollingFileAppender<ILoggingEvent> appender = new RollingFileAppender<>();
-        appender.setContext(context);
-        appender.setName("SECURITY");
-        appender.setFile("logs/security.log");
+    // Arrêt du contexte : files vidées dans les fichiers, puis fichiers fermés, sauf si un autre
+    // contexte Spring de la même JVM (tests) se sert encore du même appender
+    @PreDestroy
+    public void flushLogs() {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        for (MeteredAsyncAppender appender : appenders) {
+            if (release(appender)) {
+                context.getLogger(appender.getName()).detachAppender(appender);
+                appender.stop();
+            }
+        }
+        appenders.clear();
+    }
 
-        TimeBasedRollingPolicy<ILoggingEvent> policy = new TimeBasedRollingPolicy<>();
+    private void configureLogger(LoggerContext context, String name, String path, int maxHistory) {
+        Logger logger = context.getLogger(name);
+        // Le LoggerContext est partagé par tous les contextes Spring de la JVM : un appender déjà
+        // en place est réutilisé, un second appender sur le même fichier serait refusé par Logback
+        if (logger.getAppender(name) instanceof MeteredAsyncAppender current && current.isStarted()) {
+            use(current);
+            return;
+        }
+
+        RollingFileAppender<ILoggingEvent> file = new RollingFileAppender<>();
+        file.setContext(context);
+        file.setName(name + "-FILE");
+        file.setFile(path + ".log");
+        // Flush par lot, fait par l'appender asynchrone
+        file.setImmediateFlush(false);
+
+        // %i dans le motif : rotation par taille en plus de la rotation journalière
+        SizeAndTimeBasedRollingPolicy<ILoggingEvent> policy = new SizeAndTimeBasedRollingPolicy<>();
         policy.setContext(context);
-        policy.setParent(appender);
-        policy.setFileNamePattern("logs/security.%d{yyyy-MM-dd}.%i.gz");
-        policy.setMaxHistory(30);
+        policy.setParent(file);
+        policy.setFileNamePattern(path + ".%d{yyyy-MM-dd}.%i.gz");
+        policy.setMaxFileSize(FileSize.valueOf(MAX_FILE_SIZE));
+        policy.setMaxHistory(maxHistory);
         policy.start();
 
         PatternLayoutEncoder encoder = new PatternLayoutEncoder();
         encoder.setContext(context);
-        encoder.setPattern("%d{yyyy-MM-dd HH:mm:ss} [%thread] %-5level %logger{36} - %msg%n");
+        encoder.setPattern(PATTERN);
         encoder.start();
 
-        appender.setRollingPolicy(policy);
-        appender.setEncoder(encoder);
-        appender.start();
-
-        Logger securityLogger = context.getLogger("SECURITY");
-        securityLogger.addAppender(appender);
-        securityLogger.setAdditive(false);
-    }
+        file.setRollingPolicy(policy);
+        file.setEncoder(encoder);
+        file.start();
+        // Fichier inutilisable : les appenders en place, s'il y en a, restent attachés
+        if (!file.isStarted()) {
+            log.warn("Log file {} could not be opened, logger {} keeps its current appenders", file.getFile(), name);
+            return;
+        }
 
-    private void configureBusinessLogger(LoggerContext context) {
-        RollingFileAppender<ILoggingEvent> appender = new RollingFileAppender<>();
+        MeteredAsyncAppender appender = new MeteredAsyncAppender(file, queueSize, overflowPolicy, sampleRate, batchSize);
         appender.setContext(context);
-        appender.setName("BUSINESS");
-        appender.setFile("logs/business.log");
-
-        TimeBasedRollingPolicy<ILoggingEvent> policy = new TimeBasedRollingPolicy<>();
-        policy.setContext(context);
-        policy.setParent(appender);
-        policy.setFileNamePattern("logs/business.%d{yyyy-MM-dd}.%i.gz");
-        policy.setMaxHistory(90);
-        policy.start();
-
-        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
-        encoder.setContext(context);
-        encoder.setPattern("%d{yyyy-MM-dd HH:mm:ss} [%thread] %-5level %logger{36} - %msg%n");
-        encoder.start();
-
-        appender.setRollingPolicy(policy);
-        appender.setEncoder(encoder);
+        appender.setName(name);
         appender.start();
 
-        Logger businessLogger = context.getLogger("BUSINESS");
-        businessLogger.addAppender(appender);
-        businessLogger.setAdditive(false);
+        // Remplacement une fois le nouvel appender démarré
+        logger.detachAndStopAllAppenders();
+        logger.addAppender(appender);
+        logger.setAdditive(false);
+        use(appender);
     }
 
-    private void configureErrorLogger(LoggerContext context) {
-        RollingFileAppender<ILoggingEvent> appender = new RollingFileAppender<>();
-        appender.setContext(context);
-        appender.setName("ERROR");
-        appender.setFile("logs/error.log");
-
-        TimeBasedRollingPolicy<ILoggingEvent> policy = new TimeBasedRollingPolicy<>();
-        policy.setContext(context);
-        policy.setParent(appender);
-        policy.setFileNamePattern("logs/error.%d{yyyy-MM-dd}.%i.gz");
-        policy.setMaxHistory(365);
-        policy.start();
-
-        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
-        encoder.setContext(context);
-        encoder.setPattern("%d{yyyy-MM-dd HH:mm:ss} [%thread] %-5level %logger{36} - %msg%n");
-        encoder.start();
-
-        appender.setRollingPolicy(policy);
-        appender.setEncoder(encoder);
-        appender.start();
+    private void use(MeteredAsyncAppender appender) {
+        synchronized (USERS) {
+            USERS.merge(appender, 1, Integer::sum);
+        }
+        appenders.add(appender);
+        metricsService.registerAsyncAppender(appender);
+    }
 
-        Logger errorLogger = context.getLogger("ERROR");
-        errorLogger.addAppender(appender);
-        errorLogger.setAdditive(false);
+    // true si plus aucun contexte ne se sert de l'appender
+    private static boolean release(MeteredAsyncAppender appender) {
+        synchronized (USERS) {
+            Integer users = USERS.computeIfPresent(appender, (key, count) -> count > 1 ? count - 1 : null);
+            return users == null;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,61 @@
+package bf.kvill.spring_phone_book.config;
+
+import bf.kvill.spring_phone_book.model.Contact;
+import bf.kvill.spring_phone_book.repository.ContactRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Migration des colonnes phone_digits / phone_digits_reversed : complète au démarrage,
+ * par lots, les contacts enregistrés avant leur ajout.
+ * En production (ddl-auto=validate), db/contact_phone_digits.sql fait ce travail une seule fois ;
+ * ce runner ne sert qu'aux bases créées par ddl-auto=update, le temps d'un démarrage
+ * (migration.phone-digits.backfill=true) : il parcourt la table entière à chaque lancement.
+ */
+@Component
+@ConditionalOnProperty(name = "migration.phone-digits.backfill", havingValue = "true")
+public class PhoneDigitsBackfill implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(PhoneDigitsBackfill.class);
+
+    private final ContactRepository contactRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${migration.phone-digits.batch-size:500}")
+    private int batchSize;
+
+    public PhoneDigitsBackfill(ContactRepository contactRepository, TransactionTemplate transactionTemplate) {
+        this.contactRepository = contactRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long total = 0;
+        int updated;
+        do {
+            // Une transaction par lot : les lignes traitées sortent du filtre IS NULL
+            Integer count = transactionTemplate.execute(status -> {
+                List<Contact> batch = contactRepository.findByPhoneDigitsIsNull(PageRequest.of(0, batchSize));
+                batch.forEach(contact -> contact.setPhoneNumber(contact.getPhoneNumber()));
+                contactRepository.saveAll(batch);
+                return batch.size();
+            });
+            updated = count == null ? 0 : count;
+            total += updated;
+        } while (updated == batchSize);
+
+        if (total > 0) {
+            log.info("Phone digits backfill completed: {} contacts updated", total);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package bf.kvill.spring_phone_book.config;
+
+import bf.kvill.spring_phone_book.security.LettuceCompareAndSwapProxyManager;
+import bf.kvill.spring_phone_book.security.LocalRateLimitBuckets;
+import bf.kvill.spring_phone_book.security.RateLimitBuckets;
+import bf.kvill.spring_phone_book.security.RedisRateLimitBuckets;
+import io.github.bucket4j.distributed.ExpirationAfterWriteStrategy;
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.SocketOptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+
+// rate-limit.store=redis : limites partagées par toutes les réplicas ; sinon buckets locaux bornés
+@Configuration
+public class RateLimitConfig {
+
+    @Value("${rate-limit.period:PT1M}")
+    private Duration period;
+
+    // Délai avant une nouvelle tentative de connexion à Redis, requêtes non limitées entre-temps
+    @Value("${rate-limit.redis.retry-delay:PT5S}")
+    private Duration retryDelay;
+
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnProperty(name = "rate-limit.store", havingValue = "redis")
+    public RedisClient rateLimitRedisClient(@Value("${spring.data.redis.host:localhost}") String host,
+                                            @Value("${spring.data.redis.port:6379}") int port,
+                                            @Value("${spring.data.redis.password:}") String password,
+                                            @Value("${spring.data.redis.timeout:2s}") Duration timeout) {
+        // Sans délai explicite Lettuce attend 60 s : un Redis lent bloquerait chaque requête filtrée
+        RedisURI.Builder uri = RedisURI.builder().withHost(host).withPort(port).withTimeout(timeout);
+        if (StringUtils.hasText(password)) {
+            uri.withPassword(password.toCharArray());
+        }
+        RedisClient client = RedisClient.create(uri.build());
+        // Même borne pour l'ouverture de connexion (10 s par défaut)
+        client.setOptions(ClientOptions.builder()
+                .socketOptions(SocketOptions.builder().connectTimeout(timeout).build())
+                .build());
+        return client;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "rate-limit.store", havingValue = "redis")
+    public RateLimitBuckets redisRateLimitBuckets(RedisClient rateLimitRedisClient) {
+        // Une clé Redis expire dès que son bucket serait de nouveau plein
+        return new RedisRateLimitBuckets(new LettuceCompareAndSwapProxyManager(rateLimitRedisClient,
+                ExpirationAfterWriteStrategy.basedOnTimeForRefillingBucketUpToMax(period), retryDelay));
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(RateLimitBuckets.class)
+    public RateLimitBuckets localRateLimitBuckets(@Value("${rate-limit.local.max-buckets:100000}") long maxBuckets,
+                                                  @Value("${rate-limit.local.idle-timeout:PT10M}") Duration idleTimeout) {
+        return new LocalRateLimitBuckets(maxBuckets, idleTimeout);
+    }
+}
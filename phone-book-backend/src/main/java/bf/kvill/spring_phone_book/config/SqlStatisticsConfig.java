@@ -0,0 +1,28 @@
+package bf.kvill.spring_phone_book.config;
+
+import bf.kvill.spring_phone_book.jdbc.CountingDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+// Toutes les connexions (Hibernate, JdbcTemplate) passent par CountingDataSource : nombre de requêtes
+// SQL et de lignes par requête HTTP (SqlStatisticsFilter). Le pool Hikari reste la cible et
+// reste visible par unwrap (métriques du pool).
+@Configuration
+public class SqlStatisticsConfig {
+
+    @Bean
+    public static BeanPostProcessor countingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof CountingDataSource)) {
+                    return new CountingDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,34 @@
+package bf.kvill.spring_phone_book.config;
+
+import bf.kvill.spring_phone_book.security.CurrentUserArgumentResolver;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final CurrentUserArgumentResolver currentUserArgumentResolver;
+    private final AsyncTaskExecutor mvcAsyncExecutor;
+
+    public WebConfig(CurrentUserArgumentResolver currentUserArgumentResolver,
+                     @Qualifier(AsyncConfig.MVC_EXECUTOR) AsyncTaskExecutor mvcAsyncExecutor) {
+        this.currentUserArgumentResolver = currentUserArgumentResolver;
+        this.mvcAsyncExecutor = mvcAsyncExecutor;
+    }
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(currentUserArgumentResolver);
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(mvcAsyncExecutor);
+    }
+}
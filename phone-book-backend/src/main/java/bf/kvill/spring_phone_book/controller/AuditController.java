@@ -0,0 +1,38 @@
+package bf.kvill.spring_phone_book.controller;
+
+import bf.kvill.spring_phone_book.audit.AuditEvent;
+import bf.kvill.spring_phone_book.audit.AuditTrail;
+import bf.kvill.spring_phone_book.enums.AuditEventType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+
+import java.util.List;
+
+// Réservé au rôle ADMIN (SecurityConfig : /api/admin/**)
+@RestController
+@RequestMapping("/api/admin/audit")
+@RequiredArgsConstructor
+@Tag(name = "Audit", description = "Consultation des événements d'audit de sécurité (administrateurs)")
+@SecurityRequirement(name = "bearerAuth")
+public class AuditController {
+
+    private static final int MAX_LIMIT = 1000;
+
+    private final AuditTrail auditTrail;
+
+    @Operation(summary = "Derniers événements d'audit", description = "Récupère les événements d'authentification les plus récents, du plus récent au plus ancien, éventuellement filtrés par type")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Événements retournés"),
+        @ApiResponse(responseCode = "403", description = "Rôle ADMIN requis")
+    })
+    @GetMapping("/events")
+    public List<AuditEvent> getRecentEvents(@RequestParam(defaultValue = "100") int limit,
+                                            @RequestParam(required = false) AuditEventType type) {
+        return auditTrail.recentEvents(Math.clamp(limit, 1, MAX_LIMIT), type);
+    }
+}
@@ -6,7 +6,10 @@ import bf.kvill.spring_phone_book.model.User;
 import bf.kvill.spring_phone_book.security.JwtUtil;
 import bf.kvill.spring_phone_book.service.CustomUserDetailsService;
 import bf.kvill.spring_phone_book.service.MetricsService;
+import bf.kvill.spring_phone_book.service.TokenVersionService;
 import bf.kvill.spring_phone_book.service.UserService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import io.micrometer.core.instrument.Timer;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -36,6 +39,7 @@ public class AuthController {
     private final JwtUtil jwtUtil;
     private final CustomUserDetailsService userDetailsService;
     private final MetricsService metricsService;
+    private final TokenVersionService tokenVersionService;
 
     @Operation(summary = "Connexion utilisateur", description = "Authentifie un utilisateur et retourne un token JWT")
     @ApiResponses(value = {
@@ -117,14 +121,24 @@ public class AuthController {
         try {
             String refreshToken = request.get("refreshToken");
             
-            if (refreshToken == null || !jwtUtil.isRefreshToken(refreshToken)) {
+            Claims claims = null;
+            if (refreshToken != null) {
+                try {
+                    claims = jwtUtil.parseClaims(refreshToken);
+                } catch (JwtException e) {
+                    log.debug("Invalid refresh token", e);
+                }
+            }
+
+            if (claims == null || !jwtUtil.isRefreshToken(claims)
+                    || !tokenVersionService.isCurrent(jwtUtil.extractUserId(claims), jwtUtil.extractTokenVersion(claims))) {
                 return ResponseEntity.badRequest().body(Map.of("error", "Token de rafraîchissement invalide"));
             }
             
-            String username = jwtUtil.extractUsername(refreshToken);
+            String username = claims.getSubject();
             UserDetails userDetails = userDetailsService.loadUserByUsername(username);
             
-            if (jwtUtil.validateToken(refreshToken, userDetails)) {
+            if (jwtUtil.validateToken(claims, userDetails)) {
                 String newToken = jwtUtil.generateToken(userDetails);
                 String newRefreshToken = jwtUtil.generateRefreshToken(userDetails);
                 
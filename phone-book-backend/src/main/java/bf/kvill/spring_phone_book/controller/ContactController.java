@@ -1,30 +1,61 @@
 package bf.kvill.spring_phone_book.controller;
 
+import bf.kvill.spring_phone_book.dto.ContactBatchRequest;
+import bf.kvill.spring_phone_book.dto.ContactBatchResult;
+import bf.kvill.spring_phone_book.dto.ContactPage;
 import bf.kvill.spring_phone_book.dto.ContactRequest;
+import bf.kvill.spring_phone_book.dto.ContactView;
+import bf.kvill.spring_phone_book.dto.ImportReport;
+import bf.kvill.spring_phone_book.enums.ExportFormat;
+import bf.kvill.spring_phone_book.enums.PhoneMatch;
 import bf.kvill.spring_phone_book.exception.ContactNotFoundException;
+import bf.kvill.spring_phone_book.importer.ContactRecordReader;
+import bf.kvill.spring_phone_book.importer.CsvContactReader;
+import bf.kvill.spring_phone_book.importer.VCardContactReader;
 import bf.kvill.spring_phone_book.model.Contact;
-import bf.kvill.spring_phone_book.model.User;
+import bf.kvill.spring_phone_book.security.CurrentUser;
+import bf.kvill.spring_phone_book.security.UserRef;
+import bf.kvill.spring_phone_book.service.CircuitBreakerService;
+import bf.kvill.spring_phone_book.service.ContactImportService;
+import bf.kvill.spring_phone_book.service.ContactBatchService;
+import bf.kvill.spring_phone_book.service.ContactExportService;
 import bf.kvill.spring_phone_book.service.ContactService;
 import bf.kvill.spring_phone_book.service.MetricsService;
-import bf.kvill.spring_phone_book.service.UserService;
 import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/contacts")
@@ -35,23 +66,21 @@ import java.util.List;
 public class ContactController {
     
     private final ContactService contactService;
-    private final UserService userService;
+    private final ContactBatchService contactBatchService;
+    private final ContactImportService contactImportService;
+    private final ContactExportService contactExportService;
+    private final CircuitBreakerService circuitBreakerService;
     private final MetricsService metricsService;
 
-    private User getCurrentUser(Authentication auth) {
-        return userService.findByUsername(auth.getName());
-    }
-
     @Operation(summary = "Créer un contact", description = "Ajoute un nouveau contact au répertoire de l'utilisateur")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "201", description = "Contact créé avec succès"),
         @ApiResponse(responseCode = "400", description = "Données invalides")
     })
     @PostMapping
-    public ResponseEntity<Contact> createContact(@Valid @RequestBody ContactRequest contactRequest, Authentication auth) {
+    public ResponseEntity<Contact> createContact(@Valid @RequestBody ContactRequest contactRequest, @CurrentUser UserRef user) {
         Timer.Sample sample = metricsService.startContactOperationTimer();
         try {
-            User user = getCurrentUser(auth);
             Contact contact = contactService.createContactFromRequest(contactRequest, user);
             metricsService.incrementContactsCreated();
             return ResponseEntity.status(HttpStatus.CREATED).body(contact);
@@ -60,100 +89,255 @@ public class ContactController {
         }
     }
 
+    @Operation(summary = "Opérations par lot", description = "Crée, modifie et supprime plusieurs contacts en une requête et une transaction ; le résultat donne un statut par opération, dans l'ordre reçu")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Lot traité, voir le statut de chaque opération"),
+        @ApiResponse(responseCode = "400", description = "Lot vide ou trop grand")
+    })
+    @PostMapping("/batch")
+    public ContactBatchResult batch(@Valid @RequestBody ContactBatchRequest request, @CurrentUser UserRef user) {
+        Timer.Sample sample = metricsService.startContactOperationTimer();
+        try {
+            ContactBatchResult result = contactBatchService.execute(request.getOperations(), user);
+            metricsService.incrementContactsCreated(result.getCreated());
+            metricsService.incrementContactsDeleted(result.getDeleted());
+            return result;
+        } finally {
+            metricsService.stopContactOperationTimer(sample);
+        }
+    }
+
+    @Operation(summary = "Importer des contacts", description = "Import en flux d'un fichier CSV (en-tête firstName, lastName, phoneNumber, email, group) ou vCard ; les lignes invalides sont listées dans le rapport")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Rapport d'import retourné"),
+        @ApiResponse(responseCode = "415", description = "Format non supporté")
+    })
+    @PostMapping(value = "/import", consumes = { "text/csv", "text/vcard", "text/x-vcard" })
+    public ImportReport importContacts(HttpServletRequest request, @CurrentUser UserRef user) throws IOException {
+        // Corps lu en flux : le fichier n'est jamais chargé entièrement en mémoire
+        Charset charset = request.getCharacterEncoding() != null
+                ? Charset.forName(request.getCharacterEncoding())
+                : StandardCharsets.UTF_8;
+        BufferedReader body = new BufferedReader(new InputStreamReader(request.getInputStream(), charset), 64 * 1024);
+        boolean vcard = request.getContentType().toLowerCase(Locale.ROOT).contains("vcard");
+        try (ContactRecordReader reader = vcard ? new VCardContactReader(body) : new CsvContactReader(body)) {
+            ImportReport report = contactImportService.importContacts(reader, user);
+            metricsService.incrementContactsCreated(report.getImported());
+            return report;
+        }
+    }
+
+    @Operation(summary = "Exporter les contacts", description = "Export en flux du carnet d'adresses trié par nom (format = NDJSON, CSV ou VCARD) ; les exports CSV et vCard se réimportent tels quels")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Fichier d'export"),
+        @ApiResponse(responseCode = "503", description = "Trop d'exports en cours")
+    })
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportContacts(
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+            @CurrentUser UserRef user,
+            HttpServletRequest request) {
+        // Place réservée avant la réponse, libérée à la fin du flux
+        ContactExportService.Slot slot = contactExportService.reserveSlot();
+        // ... ou à la fin de la requête asynchrone si le flux n'a jamais démarré
+        // (tâche refusée par mvcAsyncExecutor, délai dépassé, erreur avant l'écriture)
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(ContactExportService.Slot.class,
+                new CallableProcessingInterceptor() {
+                    @Override
+                    public <T> void afterCompletion(NativeWebRequest webRequest, Callable<T> task) {
+                        slot.close();
+                    }
+                });
+        // Écrit hors du thread de la requête, au fil de la lecture du curseur
+        StreamingResponseBody body = out -> {
+            try (slot) {
+                contactExportService.export(user.getId(), format, out);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getMediaType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("contacts." + format.getExtension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
     @Operation(summary = "Lister tous les contacts", description = "Récupère tous les contacts de l'utilisateur connecté")
     @ApiResponse(responseCode = "200", description = "Liste des contacts retournée")
     @GetMapping
-    public List<Contact> getAllContacts(Authentication auth) {
-        User user = getCurrentUser(auth);
+    public List<ContactView> getAllContacts(@CurrentUser UserRef user) {
         return contactService.getAllContactsForUser(user);
     }
 
+    @Operation(summary = "Lister tous les contacts (asynchrone)", description = "Comme GET /api/contacts, exécuté sur un pool dédié derrière un disjoncteur ; le thread de la requête est libéré pendant le traitement")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Liste des contacts retournée"),
+        @ApiResponse(responseCode = "503", description = "Service saturé ou disjoncteur ouvert")
+    })
+    @GetMapping("/async")
+    public CompletableFuture<List<ContactView>> getAllContactsAsync(@CurrentUser UserRef user) {
+        return circuitBreakerService.getContacts(user);
+    }
+
+    @Operation(summary = "Lister les contacts (paginé)", description = "Récupère une page de contacts triés par nom, prénom ; passer nextCursor dans 'after' pour la page suivante")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Page de contacts retournée"),
+        @ApiResponse(responseCode = "400", description = "Curseur invalide")
+    })
+    @GetMapping("/page")
+    public ContactPage getContactsPage(
+            @RequestParam(defaultValue = "50") @Min(1) @Max(200) int limit,
+            @RequestParam(required = false) String after,
+            @CurrentUser UserRef user) {
+        return contactService.getContactsPage(user, after, limit);
+    }
+
     @Operation(summary = "Obtenir un contact", description = "Récupère les détails d'un contact par son ID")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Contact trouvé"),
         @ApiResponse(responseCode = "404", description = "Contact non trouvé")
     })
     @GetMapping("/{id}")
-    public ResponseEntity<Contact> getContact(@PathVariable Long id, Authentication auth) {
-        User user = getCurrentUser(auth);
-        return ResponseEntity.ok(contactService.getContactById(id, user));
+    public ResponseEntity<ContactView> getContact(@PathVariable Long id, @CurrentUser UserRef user) {
+        return ResponseEntity.ok(contactService.getContactView(id, user));
     }
 
-    @Operation(summary = "Rechercher par numéro", description = "Recherche des contacts par numéro de téléphone")
+    @Operation(summary = "Rechercher par numéro", description = "Recherche des contacts par numéro de téléphone, quel que soit son format (match = CONTAINS, PREFIX ou SUFFIX)")
     @ApiResponse(responseCode = "200", description = "Contacts trouvés")
     @GetMapping("/search/phone")
-    public ResponseEntity<List<Contact>> searchByPhoneNumber(
+    public ResponseEntity<List<ContactView>> searchByPhoneNumber(
             @RequestParam @NotBlank @Pattern(regexp = "^[0-9+\\-\\s()]+$", message = "Format de téléphone invalide") String phoneNumber, 
-            Authentication auth) {
-        User user = getCurrentUser(auth);
-        List<Contact> results = contactService.searchByPhoneNumber(phoneNumber, user);
+            @RequestParam(defaultValue = "CONTAINS") PhoneMatch match,
+            @CurrentUser UserRef user) {
+        List<ContactView> results = contactService.searchByPhoneNumber(phoneNumber, match, user);
         if (results.isEmpty()) {
             throw new ContactNotFoundException("Aucun contact trouvé");
         }
         return ResponseEntity.ok(results);
     }
 
+    @Operation(summary = "Rechercher par numéro (paginé)", description = "Recherche paginée par curseur des contacts par numéro de téléphone")
+    @ApiResponse(responseCode = "200", description = "Page de contacts retournée")
+    @GetMapping("/search/phone/page")
+    public ContactPage searchByPhoneNumberPage(
+            @RequestParam @NotBlank @Pattern(regexp = "^[0-9+\\-\\s()]+$", message = "Format de téléphone invalide") String phoneNumber,
+            @RequestParam(defaultValue = "CONTAINS") PhoneMatch match,
+            @RequestParam(defaultValue = "50") @Min(1) @Max(200) int limit,
+            @RequestParam(required = false) String after,
+            @CurrentUser UserRef user) {
+        return contactService.searchByPhoneNumberPage(phoneNumber, match, user, after, limit);
+    }
+
     @Operation(summary = "Rechercher par prénom", description = "Recherche des contacts par prénom")
     @ApiResponse(responseCode = "200", description = "Contacts trouvés")
     @GetMapping("/search/firstname")
-    public ResponseEntity<List<Contact>> searchByFirstName(
+    public ResponseEntity<List<ContactView>> searchByFirstName(
             @RequestParam @NotBlank @Size(min = 2, max = 50) @Pattern(regexp = "^[a-zA-ZÀ-ÿ\\s-]+$", message = "Le prénom ne peut contenir que des lettres") String firstName, 
-            Authentication auth) {
-        User user = getCurrentUser(auth);
-        List<Contact> results = contactService.searchByFirstName(firstName, user);
+            @CurrentUser UserRef user) {
+        List<ContactView> results = contactService.searchByFirstName(firstName, user);
         if (results.isEmpty()) {
             throw new ContactNotFoundException("Aucun contact trouvé");
         }
         return ResponseEntity.ok(results);
     }
 
+    @Operation(summary = "Rechercher par prénom (paginé)", description = "Recherche paginée par curseur des contacts par prénom")
+    @ApiResponse(responseCode = "200", description = "Page de contacts retournée")
+    @GetMapping("/search/firstname/page")
+    public ContactPage searchByFirstNamePage(
+            @RequestParam @NotBlank @Size(min = 2, max = 50) @Pattern(regexp = "^[a-zA-ZÀ-ÿ\\s-]+$", message = "Le prénom ne peut contenir que des lettres") String firstName,
+            @RequestParam(defaultValue = "50") @Min(1) @Max(200) int limit,
+            @RequestParam(required = false) String after,
+            @CurrentUser UserRef user) {
+        return contactService.searchByFirstNamePage(firstName, user, after, limit);
+    }
+
     @Operation(summary = "Rechercher par nom", description = "Recherche des contacts par nom de famille")
     @ApiResponse(responseCode = "200", description = "Contacts trouvés")
     @GetMapping("/search/lastname")
-    public ResponseEntity<List<Contact>> searchByLastName(
+    public ResponseEntity<List<ContactView>> searchByLastName(
             @RequestParam @NotBlank @Size(min = 2, max = 50) @Pattern(regexp = "^[a-zA-ZÀ-ÿ\\s-]+$", message = "Le nom ne peut contenir que des lettres") String lastName, 
-            Authentication auth) {
-        User user = getCurrentUser(auth);
-        List<Contact> results = contactService.searchByLastName(lastName, user);
+            @CurrentUser UserRef user) {
+        List<ContactView> results = contactService.searchByLastName(lastName, user);
         if (results.isEmpty()) {
             throw new ContactNotFoundException("Aucun contact trouvé");
         }
         return ResponseEntity.ok(results);
     }
 
+    @Operation(summary = "Rechercher par nom (paginé)", description = "Recherche paginée par curseur des contacts par nom de famille")
+    @ApiResponse(responseCode = "200", description = "Page de contacts retournée")
+    @GetMapping("/search/lastname/page")
+    public ContactPage searchByLastNamePage(
+            @RequestParam @NotBlank @Size(min = 2, max = 50) @Pattern(regexp = "^[a-zA-ZÀ-ÿ\\s-]+$", message = "Le nom ne peut contenir que des lettres") String lastName,
+            @RequestParam(defaultValue = "50") @Min(1) @Max(200) int limit,
+            @RequestParam(required = false) String after,
+            @CurrentUser UserRef user) {
+        return contactService.searchByLastNamePage(lastName, user, after, limit);
+    }
+
     @Operation(summary = "Contacts par groupe", description = "Récupère tous les contacts d'un groupe spécifique")
     @ApiResponse(responseCode = "200", description = "Contacts du groupe retournés")
     @GetMapping("/group/{groupId}")
-    public ResponseEntity<List<Contact>> getContactsByGroup(@PathVariable Long groupId, Authentication auth) {
-        User user = getCurrentUser(auth);
+    public ResponseEntity<List<ContactView>> getContactsByGroup(@PathVariable Long groupId, @CurrentUser UserRef user) {
         return ResponseEntity.ok(contactService.getContactsByGroup(groupId, user));
     }
 
     @Operation(summary = "Recherche globale", description = "Recherche des contacts par nom, prénom ou numéro")
     @ApiResponse(responseCode = "200", description = "Résultats de recherche retournés")
     @GetMapping("/search")
-    public ResponseEntity<List<Contact>> searchContacts(
+    public ResponseEntity<List<ContactView>> searchContacts(
             @RequestParam @NotBlank @Size(min = 2, max = 50) String query, 
-            Authentication auth) {
+            @CurrentUser UserRef user) {
         metricsService.incrementSearchQueries();
-        User user = getCurrentUser(auth);
-        List<Contact> results = contactService.searchContacts(query, user);
+        List<ContactView> results = contactService.searchContacts(query, user);
         if (results.isEmpty()) {
             throw new ContactNotFoundException("Aucun contact trouvé");
         }
         return ResponseEntity.ok(results);
     }
 
+    @Operation(summary = "Recherche globale (asynchrone)", description = "Comme GET /api/contacts/search, sur un pool réservé aux recherches : une recherche lente n'occupe pas la capacité des autres opérations")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Résultats de recherche retournés"),
+        @ApiResponse(responseCode = "503", description = "Service saturé ou disjoncteur ouvert")
+    })
+    @GetMapping("/search/async")
+    public CompletableFuture<List<ContactView>> searchContactsAsync(
+            @RequestParam @NotBlank @Size(min = 2, max = 50) String query,
+            @CurrentUser UserRef user) {
+        metricsService.incrementSearchQueries();
+        return circuitBreakerService.searchContacts(query, user)
+                .thenApply(results -> {
+                    if (results.isEmpty()) {
+                        throw new ContactNotFoundException("Aucun contact trouvé");
+                    }
+                    return results;
+                });
+    }
+
+    @Operation(summary = "Recherche globale (paginée)", description = "Recherche paginée par curseur par nom, prénom ou numéro")
+    @ApiResponse(responseCode = "200", description = "Page de résultats retournée")
+    @GetMapping("/search/page")
+    public ContactPage searchContactsPage(
+            @RequestParam @NotBlank @Size(min = 2, max = 50) String query,
+            @RequestParam(defaultValue = "50") @Min(1) @Max(200) int limit,
+            @RequestParam(required = false) String after,
+            @CurrentUser UserRef user) {
+        metricsService.incrementSearchQueries();
+        return contactService.searchContactsPage(query, user, after, limit);
+    }
+
     @Operation(summary = "Modifier un contact", description = "Met à jour les informations d'un contact existant")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Contact modifié avec succès"),
         @ApiResponse(responseCode = "404", description = "Contact non trouvé")
     })
     @PutMapping("/{id}")
-    public ResponseEntity<Contact> updateContact(@PathVariable Long id, @Valid @RequestBody ContactRequest contactRequest, Authentication auth) {
+    public ResponseEntity<Contact> updateContact(@PathVariable Long id, @Valid @RequestBody ContactRequest contactRequest, @CurrentUser UserRef user) {
         Timer.Sample sample = metricsService.startContactOperationTimer();
         try {
-            User user = getCurrentUser(auth);
             Contact contact = contactService.updateContactFromRequest(id, contactRequest, user);
             return ResponseEntity.ok(contact);
         } finally {
@@ -167,8 +351,7 @@ public class ContactController {
         @ApiResponse(responseCode = "404", description = "Contact non trouvé")
     })
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteContact(@PathVariable Long id, Authentication auth) {
-        User user = getCurrentUser(auth);
+    public ResponseEntity<Void> deleteContact(@PathVariable Long id, @CurrentUser UserRef user) {
         contactService.deleteContact(id, user);
         metricsService.incrementContactsDeleted();
         return ResponseEntity.noContent().build();
@@ -1,14 +1,14 @@
 package bf.kvill.spring_phone_book.controller;
 
+import bf.kvill.spring_phone_book.dto.GroupSummary;
 import bf.kvill.spring_phone_book.model.Group;
-import bf.kvill.spring_phone_book.model.User;
+import bf.kvill.spring_phone_book.security.CurrentUser;
+import bf.kvill.spring_phone_book.security.UserRef;
 import bf.kvill.spring_phone_book.service.GroupService;
-import bf.kvill.spring_phone_book.service.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -26,11 +26,6 @@ import java.util.List;
 public class GroupController {
 
     private final GroupService groupService;
-    private final UserService userService;
-
-    private User getCurrentUser(Authentication auth) {
-        return userService.findByUsername(auth.getName());
-    }
 
     @Operation(summary = "Créer un groupe", description = "Crée un nouveau groupe pour organiser les contacts")
     @ApiResponses(value = {
@@ -38,27 +33,31 @@ public class GroupController {
         @ApiResponse(responseCode = "400", description = "Données invalides")
     })
     @PostMapping
-    public ResponseEntity<Group> createGroup(@Valid @RequestBody Group group, Authentication auth) {
-        User user = getCurrentUser(auth);
+    public ResponseEntity<Group> createGroup(@Valid @RequestBody Group group, @CurrentUser UserRef user) {
         return ResponseEntity.status(HttpStatus.CREATED).body(groupService.createGroup(group, user));
     }
 
     @Operation(summary = "Lister tous les groupes", description = "Récupère tous les groupes de l'utilisateur")
     @ApiResponse(responseCode = "200", description = "Liste des groupes retournée")
     @GetMapping
-    public List<Group> getAllGroups(Authentication auth) {
-        User user = getCurrentUser(auth);
+    public List<Group> getAllGroups(@CurrentUser UserRef user) {
         return groupService.getAllGroupsForUser(user);
     }
 
+    @Operation(summary = "Résumé des groupes", description = "Récupère les groupes de l'utilisateur avec le nombre de contacts de chacun, triés par nom")
+    @ApiResponse(responseCode = "200", description = "Groupes et nombre de contacts retournés")
+    @GetMapping("/summary")
+    public List<GroupSummary> getGroupSummaries(@CurrentUser UserRef user) {
+        return groupService.getGroupSummaries(user);
+    }
+
     @Operation(summary = "Obtenir un groupe", description = "Récupère les détails d'un groupe par son ID")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Groupe trouvé"),
         @ApiResponse(responseCode = "404", description = "Groupe non trouvé")
     })
     @GetMapping("/{id}")
-    public ResponseEntity<Group> getGroup(@PathVariable Long id, Authentication auth) {
-        User user = getCurrentUser(auth);
+    public ResponseEntity<Group> getGroup(@PathVariable Long id, @CurrentUser UserRef user) {
         return ResponseEntity.ok(groupService.getGroupById(id, user));
     }
 
@@ -68,8 +67,7 @@ public class GroupController {
         @ApiResponse(responseCode = "404", description = "Groupe non trouvé")
     })
     @PutMapping("/{id}")
-    public ResponseEntity<Group> updateGroup(@PathVariable Long id, @Valid @RequestBody Group group, Authentication auth) {
-        User user = getCurrentUser(auth);
+    public ResponseEntity<Group> updateGroup(@PathVariable Long id, @Valid @RequestBody Group group, @CurrentUser UserRef user) {
         return ResponseEntity.ok(groupService.updateGroup(id, group, user));
     }
 
@@ -79,8 +77,7 @@ public class GroupController {
         @ApiResponse(responseCode = "404", description = "Groupe non trouvé")
     })
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteGroup(@PathVariable Long id, Authentication auth) {
-        User user = getCurrentUser(auth);
+    public ResponseEntity<Void> deleteGroup(@PathVariable Long id, @CurrentUser UserRef user) {
         groupService.deleteGroup(id, user);
         return ResponseEntity.noContent().build();
     }
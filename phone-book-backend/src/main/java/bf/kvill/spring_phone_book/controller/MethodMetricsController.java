@@ -0,0 +1,41 @@
+package bf.kvill.spring_phone_book.controller;
+
+import bf.kvill.spring_phone_book.aspect.MethodMetricsAspect;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+
+import java.util.Map;
+
+// Réservé au rôle ADMIN (SecurityConfig : /api/admin/**)
+@RestController
+@RequestMapping("/api/admin/metrics/methods")
+@RequiredArgsConstructor
+@Tag(name = "Métriques", description = "Instrumentation des services et repositories (administrateurs)")
+@SecurityRequirement(name = "bearerAuth")
+public class MethodMetricsController {
+
+    private final MethodMetricsAspect methodMetricsAspect;
+
+    @Operation(summary = "État de l'instrumentation", description = "Indique si la latence des méthodes de services et repositories est mesurée (method.duration)")
+    @ApiResponse(responseCode = "200", description = "État retourné")
+    @GetMapping
+    public Map<String, Boolean> getState() {
+        return Map.of("enabled", methodMetricsAspect.isEnabled());
+    }
+
+    @Operation(summary = "Activer ou désactiver l'instrumentation", description = "Active ou désactive à chaud la mesure de method.duration, sans redémarrage")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Nouvel état retourné"),
+        @ApiResponse(responseCode = "403", description = "Rôle ADMIN requis")
+    })
+    @PutMapping
+    public Map<String, Boolean> setState(@RequestParam boolean enabled) {
+        methodMetricsAspect.setEnabled(enabled);
+        return Map.of("enabled", methodMetricsAspect.isEnabled());
+    }
+}
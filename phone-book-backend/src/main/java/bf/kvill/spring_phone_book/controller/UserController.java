@@ -1,6 +1,12 @@
 package bf.kvill.spring_phone_book.controller;
 
-import bf.kvill.spring_phone_book.service.UserService;
+import bf.kvill.spring_phone_book.security.CurrentUser;
+import bf.kvill.spring_phone_book.security.UserRef;
+import bf.kvill.spring_phone_book.service.TokenVersionService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -10,9 +16,17 @@ import java.util.Map;
 @RestController
 @RequestMapping("/api/users")
 @RequiredArgsConstructor
+@Tag(name = "Utilisateurs", description = "Gestion du compte de l'utilisateur connecté")
+@SecurityRequirement(name = "bearerAuth")
 public class UserController {
 
-    private final UserService userService;
+    private final TokenVersionService tokenVersionService;
 
-    // Endpoints utilisateur si nécessaire
+    @Operation(summary = "Révoquer mes tokens", description = "Invalide tous les tokens (accès et rafraîchissement) émis pour l'utilisateur connecté")
+    @ApiResponse(responseCode = "200", description = "Tokens révoqués")
+    @PostMapping("/me/revoke-tokens")
+    public ResponseEntity<?> revokeTokens(@CurrentUser UserRef user) {
+        tokenVersionService.revokeTokens(user.getId());
+        return ResponseEntity.ok(Map.of("message", "Tokens révoqués, reconnectez-vous"));
+    }
 }
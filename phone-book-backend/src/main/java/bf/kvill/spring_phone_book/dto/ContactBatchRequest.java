@@ -0,0 +1,16 @@
+package bf.kvill.spring_phone_book.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+// Les opérations ne sont pas validées ici : une opération invalide est rejetée seule, dans le résultat
+@Data
+public class ContactBatchRequest {
+
+    @NotEmpty(message = "Le lot doit contenir au moins une opération")
+    @Size(max = 1000, message = "Le lot ne peut pas dépasser 1000 opérations")
+    private List<ContactOperation> operations;
+}
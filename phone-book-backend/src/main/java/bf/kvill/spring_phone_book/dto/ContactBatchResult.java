@@ -0,0 +1,20 @@
+package bf.kvill.spring_phone_book.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// Résultat d'un lot : un statut HTTP par opération (201, 200, 204 ou 400, 404, 409), dans l'ordre reçu
+@Getter
+@AllArgsConstructor
+public class ContactBatchResult {
+    private final int created;
+    private final int updated;
+    private final int deleted;
+    private final int failed;
+    private final List<OperationResult> results;
+
+    public record OperationResult(int index, int status, Long id, String error) {
+    }
+}
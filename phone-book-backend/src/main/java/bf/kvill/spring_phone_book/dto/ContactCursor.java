@@ -0,0 +1,65 @@
+package bf.kvill.spring_phone_book.dto;
+
+import bf.kvill.spring_phone_book.exception.InvalidCursorException;
+import bf.kvill.spring_phone_book.model.Contact;
+import org.springframework.data.domain.ScrollPosition;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Base64;
+import java.util.Map;
+
+/**
+ * Curseur opaque pour la pagination keyset des contacts.
+ * Encode la clé de tri (lastName, firstName, id) du dernier élément renvoyé.
+ */
+public final class ContactCursor {
+
+    private static final byte VERSION = 1;
+
+    private ContactCursor() {
+    }
+
+    public static String encode(Contact last) {
+        return encode(last.getLastName(), last.getFirstName(), last.getId());
+    }
+
+    public static String encode(ContactView last) {
+        return encode(last.lastName(), last.firstName(), last.id());
+    }
+
+    private static String encode(String lastName, String firstName, long id) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeUTF(lastName);
+            out.writeUTF(firstName);
+            out.writeLong(id);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    // Position de départ : début de la liste si aucun curseur n'est fourni
+    public static ScrollPosition decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(cursor)))) {
+            if (in.readByte() != VERSION) {
+                throw new InvalidCursorException("Curseur de pagination invalide");
+            }
+            String lastName = in.readUTF();
+            String firstName = in.readUTF();
+            long id = in.readLong();
+            return ScrollPosition.forward(Map.of("lastName", lastName, "firstName", firstName, "id", id));
+        } catch (IOException | IllegalArgumentException e) {
+            throw new InvalidCursorException("Curseur de pagination invalide");
+        }
+    }
+}
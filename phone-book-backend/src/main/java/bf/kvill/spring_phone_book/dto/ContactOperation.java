@@ -0,0 +1,19 @@
+package bf.kvill.spring_phone_book.dto;
+
+import bf.kvill.spring_phone_book.enums.BatchOperationType;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+// Une opération du lot : id pour UPDATE et DELETE, contact pour CREATE et UPDATE
+@Data
+public class ContactOperation {
+
+    @NotNull(message = "L'opération est obligatoire (CREATE, UPDATE ou DELETE)")
+    private BatchOperationType op;
+
+    private Long id;
+
+    @Valid
+    private ContactRequest contact;
+}
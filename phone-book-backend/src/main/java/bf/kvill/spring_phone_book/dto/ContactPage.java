@@ -0,0 +1,15 @@
+package bf.kvill.spring_phone_book.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// Page de contacts paginée par curseur : nextCursor est à renvoyer tel quel dans ?after=
+@Getter
+@AllArgsConstructor
+public class ContactPage {
+    private final List<ContactView> items;
+    private final String nextCursor;
+    private final boolean hasMore;
+}
@@ -0,0 +1,24 @@
+package bf.kvill.spring_phone_book.dto;
+
+import bf.kvill.spring_phone_book.model.Contact;
+
+// Vue immuable d'un contact, sans proxy Hibernate : même forme JSON que l'entité pour le client
+public record ContactView(Long id,
+                          String firstName,
+                          String lastName,
+                          String phoneNumber,
+                          String email,
+                          GroupView group) {
+
+    // Constructeur des projections JPQL / Criteria : colonnes du groupe issues d'un LEFT JOIN
+    public ContactView(Long id, String firstName, String lastName, String phoneNumber, String email,
+                       Long groupId, String groupName, String groupDescription) {
+        this(id, firstName, lastName, phoneNumber, email,
+                groupId == null ? null : new GroupView(groupId, groupName, groupDescription));
+    }
+
+    public static ContactView from(Contact contact) {
+        return new ContactView(contact.getId(), contact.getFirstName(), contact.getLastName(),
+                contact.getPhoneNumber(), contact.getEmail(), GroupView.from(contact.getGroup()));
+    }
+}
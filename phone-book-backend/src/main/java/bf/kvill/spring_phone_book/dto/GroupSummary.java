@@ -0,0 +1,5 @@
+package bf.kvill.spring_phone_book.dto;
+
+// Groupe et nombre de ses contacts, calculé en base (GROUP BY) et mis en cache dans "groups"
+public record GroupSummary(Long id, String name, String description, long contactCount) {
+}
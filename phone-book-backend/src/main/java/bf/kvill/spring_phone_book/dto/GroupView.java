@@ -0,0 +1,11 @@
+package bf.kvill.spring_phone_book.dto;
+
+import bf.kvill.spring_phone_book.model.Group;
+
+// Vue immuable d'un groupe, sans association JPA : sûre à mettre en cache et à sérialiser
+public record GroupView(Long id, String name, String description) {
+
+    public static GroupView from(Group group) {
+        return group == null ? null : new GroupView(group.getId(), group.getName(), group.getDescription());
+    }
+}
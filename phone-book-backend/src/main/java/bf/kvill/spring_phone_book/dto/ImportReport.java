@@ -0,0 +1,19 @@
+package bf.kvill.spring_phone_book.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// Résultat d'un import : lignes importées, lignes rejetées et motif par ligne (liste plafonnée)
+@Getter
+@AllArgsConstructor
+public class ImportReport {
+    private final int imported;
+    private final int failed;
+    private final List<RowError> errors;
+    private final boolean errorsTruncated;
+
+    public record RowError(long line, String message) {
+    }
+}
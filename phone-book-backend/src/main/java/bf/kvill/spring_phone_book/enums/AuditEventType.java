@@ -0,0 +1,10 @@
+package bf.kvill.spring_phone_book.enums;
+
+public enum AuditEventType {
+    LOGIN_SUCCESS,
+    LOGIN_FAILED,
+    USER_REGISTERED,
+    REGISTRATION_FAILED,
+    TOKEN_REFRESHED,
+    TOKEN_REFRESH_FAILED
+}
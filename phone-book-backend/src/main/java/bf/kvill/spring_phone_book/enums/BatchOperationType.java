@@ -0,0 +1,8 @@
+package bf.kvill.spring_phone_book.enums;
+
+// Opération d'un lot POST /api/contacts/batch
+public enum BatchOperationType {
+    CREATE,
+    UPDATE,
+    DELETE
+}
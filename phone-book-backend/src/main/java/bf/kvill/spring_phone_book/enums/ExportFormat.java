@@ -0,0 +1,19 @@
+package bf.kvill.spring_phone_book.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+// Format d'export du carnet d'adresses
+@Getter
+@RequiredArgsConstructor
+public enum ExportFormat {
+    // Un objet JSON par ligne, même forme que GET /api/contacts
+    NDJSON("application/x-ndjson", "ndjson"),
+    // En-têtes reconnus par l'import
+    CSV("text/csv", "csv"),
+    // vCard 3.0, une fiche par contact
+    VCARD("text/vcard", "vcf");
+
+    private final String mediaType;
+    private final String extension;
+}
@@ -0,0 +1,11 @@
+package bf.kvill.spring_phone_book.enums;
+
+// Mode de recherche par numéro de téléphone
+public enum PhoneMatch {
+    // Les chiffres apparaissent n'importe où dans le numéro
+    CONTAINS,
+    // Le numéro commence par ces chiffres (indicatif, préfixe opérateur...)
+    PREFIX,
+    // Le numéro se termine par ces chiffres ("les 4 derniers chiffres")
+    SUFFIX
+}
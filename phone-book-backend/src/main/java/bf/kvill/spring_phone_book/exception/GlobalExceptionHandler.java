@@ -2,14 +2,18 @@ package bf.kvill.spring_phone_book.exception;
 
 import jakarta.validation.ConstraintViolationException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.servlet.resource.NoResourceFoundException;
 
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.UnsupportedCharsetException;
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 @ControllerAdvice
@@ -25,6 +29,52 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(error, HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ApiError> handleInvalidCursorException(InvalidCursorException e)
+    {
+        ApiError error = new ApiError();
+        error.setMessage(e.getMessage());
+        error.setCode(HttpStatus.BAD_REQUEST.value());
+        error.setTimestamp(Timestamp.valueOf(LocalDateTime.now()));
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
+    // Import : charset inconnu dans l'en-tête Content-Type
+    @ExceptionHandler({UnsupportedCharsetException.class, IllegalCharsetNameException.class})
+    public ResponseEntity<ApiError> handleUnsupportedCharsetException(IllegalArgumentException e)
+    {
+        ApiError error = new ApiError();
+        error.setMessage("Encodage de caractères non supporté : " + e.getMessage());
+        error.setCode(HttpStatus.BAD_REQUEST.value());
+        error.setTimestamp(Timestamp.valueOf(LocalDateTime.now()));
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
+    // Disjoncteur ouvert, délai dépassé ou exécuteur saturé
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ApiError> handleServiceUnavailableException(ServiceUnavailableException e)
+    {
+        ApiError error = new ApiError();
+        error.setMessage(e.getMessage());
+        error.setCode(HttpStatus.SERVICE_UNAVAILABLE.value());
+        error.setTimestamp(Timestamp.valueOf(LocalDateTime.now()));
+        return new ResponseEntity<>(error, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    // Tâche refusée par un exécuteur borné (AsyncConfig), par exemple la réponse d'un export :
+    // type JSON explicite, la réponse porte déjà le Content-Type du fichier
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<ApiError> handleRejectedExecutionException(RejectedExecutionException e)
+    {
+        ApiError error = new ApiError();
+        error.setMessage("Service saturé, réessayez plus tard");
+        error.setCode(HttpStatus.SERVICE_UNAVAILABLE.value());
+        error.setTimestamp(Timestamp.valueOf(LocalDateTime.now()));
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(error);
+    }
+
     @ExceptionHandler(NoResourceFoundException.class)
     public ResponseEntity<ApiError> handleNoResourceFound(NoResourceFoundException e)
     {
@@ -0,0 +1,7 @@
+package bf.kvill.spring_phone_book.exception;
+
+public class InvalidCursorException extends RuntimeException {
+  public InvalidCursorException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,7 @@
+package bf.kvill.spring_phone_book.exception;
+
+public class ServiceUnavailableException extends RuntimeException {
+  public ServiceUnavailableException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
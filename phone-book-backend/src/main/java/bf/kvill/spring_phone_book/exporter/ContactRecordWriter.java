@@ -0,0 +1,21 @@
+package bf.kvill.spring_phone_book.exporter;
+
+import bf.kvill.spring_phone_book.dto.ContactView;
+
+import java.io.IOException;
+
+/**
+ * Écriture incrémentale d'un export de contacts : chaque fiche est écrite dans le flux
+ * de la réponse dès sa lecture, sans accumuler la liste en mémoire.
+ */
+public interface ContactRecordWriter {
+
+    // En-tête éventuel, écrit même si le carnet est vide
+    default void begin() throws IOException {
+    }
+
+    void write(ContactView contact) throws IOException;
+
+    // Vide les tampons ; le flux sous-jacent reste ouvert (il appartient à la réponse)
+    void finish() throws IOException;
+}
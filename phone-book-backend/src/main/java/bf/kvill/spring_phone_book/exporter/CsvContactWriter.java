@@ -0,0 +1,65 @@
+package bf.kvill.spring_phone_book.exporter;
+
+import bf.kvill.spring_phone_book.dto.ContactView;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+// CSV RFC 4180, colonnes reconnues par CsvContactReader : l'export se réimporte tel quel
+public class CsvContactWriter implements ContactRecordWriter {
+
+    private static final String HEADER = "firstName,lastName,phoneNumber,email,group\r\n";
+
+    private final Writer writer;
+
+    public CsvContactWriter(OutputStream out) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 16 * 1024);
+    }
+
+    @Override
+    public void begin() throws IOException {
+        writer.write(HEADER);
+    }
+
+    @Override
+    public void write(ContactView contact) throws IOException {
+        field(contact.firstName());
+        writer.write(',');
+        field(contact.lastName());
+        writer.write(',');
+        field(contact.phoneNumber());
+        writer.write(',');
+        field(contact.email());
+        writer.write(',');
+        field(contact.group() == null ? null : contact.group().name());
+        writer.write("\r\n");
+    }
+
+    @Override
+    public void finish() throws IOException {
+        writer.flush();
+    }
+
+    // Entre guillemets seulement si nécessaire, guillemets internes doublés
+    private void field(String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,52 @@
+package bf.kvill.spring_phone_book.exporter;
+
+import bf.kvill.spring_phone_book.dto.ContactView;
+import bf.kvill.spring_phone_book.dto.GroupView;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+// Un objet JSON par ligne ; le générateur Jackson bufferise et écrit par blocs
+public class NdjsonContactWriter implements ContactRecordWriter {
+
+    private final JsonGenerator generator;
+
+    public NdjsonContactWriter(JsonFactory factory, OutputStream out) throws IOException {
+        this.generator = factory.createGenerator(out, JsonEncoding.UTF8);
+        this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // Pas d'espace entre deux valeurs racines : le séparateur est le retour à la ligne
+        this.generator.setRootValueSeparator(null);
+    }
+
+    @Override
+    public void write(ContactView contact) throws IOException {
+        generator.writeStartObject();
+        if (contact.id() != null) {
+            generator.writeNumberField("id", contact.id());
+        }
+        generator.writeStringField("firstName", contact.firstName());
+        generator.writeStringField("lastName", contact.lastName());
+        generator.writeStringField("phoneNumber", contact.phoneNumber());
+        generator.writeStringField("email", contact.email());
+        GroupView group = contact.group();
+        if (group == null) {
+            generator.writeNullField("group");
+        } else {
+            generator.writeObjectFieldStart("group");
+            generator.writeNumberField("id", group.id());
+            generator.writeStringField("name", group.name());
+            generator.writeStringField("description", group.description());
+            generator.writeEndObject();
+        }
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    @Override
+    public void finish() throws IOException {
+        generator.flush();
+    }
+}
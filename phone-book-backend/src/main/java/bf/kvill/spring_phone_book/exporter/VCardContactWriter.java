@@ -0,0 +1,53 @@
+package bf.kvill.spring_phone_book.exporter;
+
+import bf.kvill.spring_phone_book.dto.ContactView;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+// vCard 3.0 : N, FN, TEL, EMAIL et CATEGORIES (le groupe), relus par VCardContactReader
+public class VCardContactWriter implements ContactRecordWriter {
+
+    private final Writer writer;
+
+    public VCardContactWriter(OutputStream out) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 16 * 1024);
+    }
+
+    @Override
+    public void write(ContactView contact) throws IOException {
+        writer.write("BEGIN:VCARD\r\nVERSION:3.0\r\n");
+        writer.write("N:" + escape(contact.lastName()) + ";" + escape(contact.firstName()) + ";;;\r\n");
+        writer.write("FN:" + escape(contact.firstName()) + " " + escape(contact.lastName()) + "\r\n");
+        if (contact.phoneNumber() != null) {
+            writer.write("TEL;TYPE=CELL:" + contact.phoneNumber() + "\r\n");
+        }
+        if (contact.email() != null && !contact.email().isEmpty()) {
+            writer.write("EMAIL;TYPE=INTERNET:" + escape(contact.email()) + "\r\n");
+        }
+        if (contact.group() != null) {
+            writer.write("CATEGORIES:" + escape(contact.group().name()) + "\r\n");
+        }
+        writer.write("END:VCARD\r\n");
+    }
+
+    @Override
+    public void finish() throws IOException {
+        writer.flush();
+    }
+
+    private static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.replace("\\", "\\\\")
+                .replace(",", "\\,")
+                .replace(";", "\\;")
+                .replace("\r\n", "\\n")
+                .replace("\n", "\\n");
+    }
+}
@@ -0,0 +1,14 @@
+package bf.kvill.spring_phone_book.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Lecture incrémentale d'un fichier de contacts : une fiche à la fois, sans charger
+ * le fichier en mémoire.
+ */
+public interface ContactRecordReader extends Closeable {
+
+    // Fiche suivante, ou null en fin de fichier
+    ImportRow next() throws IOException;
+}
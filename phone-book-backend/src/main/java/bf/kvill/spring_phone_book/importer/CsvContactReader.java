@@ -0,0 +1,229 @@
+package bf.kvill.spring_phone_book.importer;
+
+import bf.kvill.spring_phone_book.dto.ContactRequest;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Lecteur CSV en flux (RFC 4180 : guillemets, guillemets doublés, retours à la ligne
+ * dans un champ entre guillemets). La première ligne est l'en-tête ; les colonnes
+ * reconnues sont firstName, lastName, phoneNumber, email et group (noms alternatifs
+ * acceptés, sans tenir compte de la casse). Le séparateur ';' est détecté sur l'en-tête.
+ *
+ * Champs et enregistrements ont une taille maximale : au-delà (guillemet jamais refermé,
+ * par exemple) le reste de l'enregistrement est lu sans être conservé et la ligne rejetée.
+ */
+public class CsvContactReader implements ContactRecordReader {
+
+    static final int MAX_FIELD_LENGTH = 4 * 1024;
+    static final int MAX_RECORD_LENGTH = 64 * 1024;
+
+    private static final Map<String, String> COLUMN_ALIASES = new HashMap<>();
+
+    static {
+        alias("firstName", "firstname", "first_name", "prenom", "prénom");
+        alias("lastName", "lastname", "last_name", "nom");
+        alias("phoneNumber", "phonenumber", "phone_number", "phone", "telephone", "téléphone", "tel");
+        alias("email", "email", "e-mail", "mail");
+        alias("group", "group", "groupe", "groupname", "group_name");
+    }
+
+    private final Reader reader;
+    private final StringBuilder field = new StringBuilder();
+    private Map<String, Integer> columns;
+    private char separator = ',';
+    private long line = 1;
+    private int pending = -2;
+    private boolean oversized;
+
+    public CsvContactReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public ImportRow next() throws IOException {
+        if (columns == null) {
+            readHeader();
+            if (columns == null) {
+                return null;
+            }
+        }
+        while (true) {
+            long startLine = line;
+            List<String> values = readRecord();
+            if (values == null) {
+                return null;
+            }
+            if (oversized) {
+                return ImportRow.rejected(startLine, "enregistrement trop long (plus de "
+                        + MAX_FIELD_LENGTH + " caractères par champ ou " + MAX_RECORD_LENGTH + " par ligne)");
+            }
+            // Lignes vides ignorées
+            if (values.size() == 1 && values.get(0).isBlank()) {
+                continue;
+            }
+            ContactRequest request = new ContactRequest();
+            request.setFirstName(value(values, "firstName"));
+            request.setLastName(value(values, "lastName"));
+            request.setPhoneNumber(value(values, "phoneNumber"));
+            request.setEmail(value(values, "email"));
+            return new ImportRow(startLine, request, value(values, "group"));
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private void readHeader() throws IOException {
+        if (!detectSeparator()) {
+            return;
+        }
+        List<String> header = readRecord();
+        if (header == null) {
+            return;
+        }
+        columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String name = COLUMN_ALIASES.get(header.get(i).replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT));
+            if (name != null) {
+                columns.putIfAbsent(name, i);
+            }
+        }
+    }
+
+    // ';' si l'en-tête en contient davantage que de ',' (export Excel français) ; false si le flux est vide
+    private boolean detectSeparator() throws IOException {
+        if (!reader.markSupported()) {
+            return true;
+        }
+        char[] buffer = new char[4096];
+        reader.mark(buffer.length);
+        int n = reader.read(buffer);
+        reader.reset();
+        if (n <= 0) {
+            return false;
+        }
+        int commas = 0;
+        int semicolons = 0;
+        for (int i = 0; i < n && buffer[i] != '\n'; i++) {
+            if (buffer[i] == ',') {
+                commas++;
+            } else if (buffer[i] == ';') {
+                semicolons++;
+            }
+        }
+        if (semicolons > commas) {
+            separator = ';';
+        }
+        return true;
+    }
+
+    private String value(List<String> values, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= values.size()) {
+            return null;
+        }
+        String value = values.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    // Lit un enregistrement complet, ou null en fin de flux ; oversized s'il dépasse les tailles maximales
+    private List<String> readRecord() throws IOException {
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        List<String> values = new ArrayList<>();
+        field.setLength(0);
+        oversized = false;
+        long length = 0;
+        boolean quoted = false;
+        boolean atFieldStart = true;
+        while (true) {
+            if (c == -1) {
+                addValue(values);
+                return values;
+            }
+            if (++length > MAX_RECORD_LENGTH) {
+                oversized = true;
+            }
+            char ch = (char) c;
+            if (quoted) {
+                if (ch == '"') {
+                    int nextChar = read();
+                    if (nextChar == '"') {
+                        append('"');
+                    } else {
+                        quoted = false;
+                        c = nextChar;
+                        continue;
+                    }
+                } else {
+                    if (ch == '\n') {
+                        line++;
+                    }
+                    append(ch);
+                }
+            } else if (ch == '"' && atFieldStart) {
+                quoted = true;
+                atFieldStart = false;
+            } else if (ch == separator) {
+                addValue(values);
+                field.setLength(0);
+                atFieldStart = true;
+            } else if (ch == '\n' || ch == '\r') {
+                if (ch == '\r') {
+                    int nextChar = read();
+                    if (nextChar != '\n' && nextChar != -1) {
+                        pending = nextChar;
+                    }
+                }
+                line++;
+                addValue(values);
+                return values;
+            } else {
+                append(ch);
+                atFieldStart = false;
+            }
+            c = read();
+        }
+    }
+
+    // Au-delà des tailles maximales, plus rien n'est conservé : la mémoire reste bornée
+    private void append(char ch) {
+        if (field.length() >= MAX_FIELD_LENGTH) {
+            oversized = true;
+        } else if (!oversized) {
+            field.append(ch);
+        }
+    }
+
+    private void addValue(List<String> values) {
+        if (!oversized) {
+            values.add(field.toString());
+        }
+    }
+
+    private int read() throws IOException {
+        if (pending != -2) {
+            int c = pending;
+            pending = -2;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private static void alias(String column, String... names) {
+        for (String name : names) {
+            COLUMN_ALIASES.put(name.toLowerCase(Locale.ROOT), column);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package bf.kvill.spring_phone_book.importer;
+
+import bf.kvill.spring_phone_book.dto.ContactRequest;
+
+// Une fiche lue dans le fichier importé : numéro de ligne (pour le rapport), champs et nom du groupe,
+// ou l'erreur de lecture qui la fait rejeter d'office (error non nul, sans champs)
+public record ImportRow(long line, ContactRequest request, String groupName, String error) {
+
+    public ImportRow(long line, ContactRequest request, String groupName) {
+        this(line, request, groupName, null);
+    }
+
+    public static ImportRow rejected(long line, String error) {
+        return new ImportRow(line, null, null, error);
+    }
+}
@@ -0,0 +1,233 @@
+package bf.kvill.spring_phone_book.importer;
+
+import bf.kvill.spring_phone_book.dto.ContactRequest;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Lecteur vCard (2.1, 3.0, 4.0) en flux : une fiche BEGIN:VCARD / END:VCARD à la fois.
+ * Propriétés lues : N (à défaut FN), premier TEL, premier EMAIL et première catégorie
+ * (CATEGORIES) comme groupe. Les lignes repliées (commençant par un espace) sont dépliées.
+ *
+ * Une ligne dépliée n'est conservée que jusqu'à {@link #MAX_LINE_LENGTH} caractères : une
+ * propriété lue plus longue fait rejeter la fiche, une propriété ignorée (PHOTO...) est tronquée.
+ */
+public class VCardContactReader implements ContactRecordReader {
+
+    static final int MAX_LINE_LENGTH = 4 * 1024;
+    private static final Set<String> READ_PROPERTIES = Set.of("N", "FN", "TEL", "EMAIL", "CATEGORIES");
+
+    private final BufferedReader reader;
+    private final StringBuilder physicalLine = new StringBuilder();
+    private String lookahead;
+    private long lookaheadLine;
+    private boolean lookaheadTruncated;
+    private long line;
+    // Troncatures de la dernière ligne physique lue et de la dernière ligne dépliée rendue
+    private boolean lineTruncated;
+    private boolean truncated;
+
+    public VCardContactReader(Reader reader) {
+        this.reader = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+    }
+
+    @Override
+    public ImportRow next() throws IOException {
+        String property;
+        // Avance jusqu'au début de la fiche suivante
+        do {
+            property = readUnfolded();
+            if (property == null) {
+                return null;
+            }
+        } while (!property.equalsIgnoreCase("BEGIN:VCARD"));
+
+        long startLine = line;
+        ContactRequest request = new ContactRequest();
+        String fullName = null;
+        String group = null;
+        boolean tooLong = false;
+        while ((property = readUnfolded()) != null && !property.equalsIgnoreCase("END:VCARD")) {
+            int colon = property.indexOf(':');
+            if (colon < 0) {
+                continue;
+            }
+            String name = propertyName(property.substring(0, colon));
+            String value = property.substring(colon + 1);
+            if (truncated && READ_PROPERTIES.contains(name)) {
+                tooLong = true;
+            }
+            switch (name) {
+                case "N" -> {
+                    String[] parts = splitUnescaped(value, ';');
+                    request.setLastName(emptyToNull(unescape(parts[0])));
+                    request.setFirstName(parts.length > 1 ? emptyToNull(unescape(parts[1])) : null);
+                }
+                case "FN" -> fullName = emptyToNull(unescape(value));
+                case "TEL" -> {
+                    if (request.getPhoneNumber() == null) {
+                        request.setPhoneNumber(emptyToNull(stripTelUri(value)));
+                    }
+                }
+                case "EMAIL" -> {
+                    if (request.getEmail() == null) {
+                        request.setEmail(emptyToNull(unescape(value)));
+                    }
+                }
+                case "CATEGORIES" -> {
+                    if (group == null) {
+                        group = emptyToNull(unescape(splitUnescaped(value, ',')[0]));
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+
+        if (tooLong) {
+            return ImportRow.rejected(startLine, "propriété trop longue (plus de " + MAX_LINE_LENGTH + " caractères)");
+        }
+
+        // Fiche sans N : "Prénom Nom" depuis FN
+        if (request.getLastName() == null && request.getFirstName() == null && fullName != null) {
+            int space = fullName.lastIndexOf(' ');
+            if (space > 0) {
+                request.setFirstName(fullName.substring(0, space).trim());
+                request.setLastName(fullName.substring(space + 1).trim());
+            } else {
+                request.setLastName(fullName);
+            }
+        }
+        return new ImportRow(startLine, request, group);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    // Ligne logique : les lignes physiques suivantes commençant par un espace ou une tabulation la prolongent
+    private String readUnfolded() throws IOException {
+        String current;
+        if (lookahead != null) {
+            current = lookahead;
+            line = lookaheadLine;
+            truncated = lookaheadTruncated;
+            lookahead = null;
+        } else {
+            current = readLine();
+            if (current == null) {
+                return null;
+            }
+            line++;
+            truncated = lineTruncated;
+        }
+        StringBuilder unfolded = null;
+        while (true) {
+            String nextLine = readLine();
+            if (nextLine == null) {
+                break;
+            }
+            long nextLineNumber = (unfolded == null ? line : lookaheadLine) + 1;
+            if (!nextLine.isEmpty() && (nextLine.charAt(0) == ' ' || nextLine.charAt(0) == '\t')) {
+                if (unfolded == null) {
+                    unfolded = new StringBuilder(current);
+                }
+                int room = MAX_LINE_LENGTH - unfolded.length();
+                if (lineTruncated || nextLine.length() - 1 > room) {
+                    truncated = true;
+                }
+                unfolded.append(nextLine, 1, 1 + Math.max(0, Math.min(room, nextLine.length() - 1)));
+                lookaheadLine = nextLineNumber;
+            } else {
+                lookahead = nextLine;
+                lookaheadLine = nextLineNumber;
+                lookaheadTruncated = lineTruncated;
+                break;
+            }
+        }
+        return (unfolded == null ? current : unfolded.toString()).trim();
+    }
+
+    // Comme BufferedReader.readLine (fin de ligne \n, \r ou \r\n), mais sans garder plus de MAX_LINE_LENGTH caractères
+    private String readLine() throws IOException {
+        physicalLine.setLength(0);
+        lineTruncated = false;
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        while (c != -1 && c != '\n' && c != '\r') {
+            if (physicalLine.length() < MAX_LINE_LENGTH) {
+                physicalLine.append((char) c);
+            } else {
+                lineTruncated = true;
+            }
+            c = reader.read();
+        }
+        if (c == '\r') {
+            reader.mark(1);
+            if (reader.read() != '\n') {
+                reader.reset();
+            }
+        }
+        return physicalLine.toString();
+    }
+
+    // "item1.TEL;TYPE=CELL" -> "TEL"
+    private static String propertyName(String raw) {
+        int params = raw.indexOf(';');
+        String name = params < 0 ? raw : raw.substring(0, params);
+        int group = name.lastIndexOf('.');
+        return (group < 0 ? name : name.substring(group + 1)).trim().toUpperCase(Locale.ROOT);
+    }
+
+    private static String stripTelUri(String value) {
+        String tel = value.trim();
+        if (tel.regionMatches(true, 0, "tel:", 0, 4)) {
+            tel = tel.substring(4);
+        }
+        // Séparateurs visuels retirés : la validation attend un numéro international compact
+        return tel.replaceAll("[\\s().-]", "");
+    }
+
+    private static String[] splitUnescaped(String value, char separator) {
+        java.util.List<String> parts = new java.util.ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            if (ch == '\\' && i + 1 < value.length()) {
+                current.append(ch).append(value.charAt(++i));
+            } else if (ch == separator) {
+                parts.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(ch);
+            }
+        }
+        parts.add(current.toString());
+        return parts.toArray(new String[0]);
+    }
+
+    private static String unescape(String value) {
+        StringBuilder out = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            if (ch == '\\' && i + 1 < value.length()) {
+                char escaped = value.charAt(++i);
+                out.append(escaped == 'n' || escaped == 'N' ? '\n' : escaped);
+            } else {
+                out.append(ch);
+            }
+        }
+        return out.toString().trim();
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+}
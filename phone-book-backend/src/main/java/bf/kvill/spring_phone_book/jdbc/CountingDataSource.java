@@ -0,0 +1,94 @@
+package bf.kvill.spring_phone_book.jdbc;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * DataSource qui compte les requêtes exécutées (execute*) et les lignes lues (ResultSet.next)
+ * dans la mesure SqlStatistics ouverte au moment où la connexion est obtenue.
+ *
+ * Hors mesure, la connexion du pool est rendue telle quelle : les tâches de fond ne paient rien.
+ * Un lot JDBC (executeBatch) compte pour une requête : un seul aller-retour vers la base.
+ */
+public class CountingDataSource extends DelegatingDataSource {
+
+    public CountingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    private static Connection wrap(Connection connection) {
+        SqlStatistics.Counts counts = SqlStatistics.current();
+        return counts == null ? connection : proxy(Connection.class, connection, counts);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, SqlStatistics.Counts counts) {
+        return (T) Proxy.newProxyInstance(CountingDataSource.class.getClassLoader(), new Class<?>[] { type },
+                new CountingHandler(target, counts));
+    }
+
+    // Connection -> Statement/PreparedStatement/CallableStatement -> ResultSet
+    private record CountingHandler(Object target, SqlStatistics.Counts counts) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            // Identité du proxy : Spring compare les connexions liées à la transaction
+            if (name.equals("equals") && method.getParameterCount() == 1) {
+                return proxy == args[0];
+            }
+            if (name.equals("hashCode") && method.getParameterCount() == 0) {
+                return System.identityHashCode(proxy);
+            }
+            if (target instanceof Statement && name.startsWith("execute")) {
+                counts.statement();
+            }
+
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+
+            if (target instanceof ResultSet) {
+                if (name.equals("next") && Boolean.TRUE.equals(result)) {
+                    counts.row();
+                }
+                return result;
+            }
+            if (result instanceof ResultSet resultSet) {
+                return proxy(ResultSet.class, resultSet, counts);
+            }
+            if (target instanceof Connection && result instanceof Statement statement
+                    && Statement.class.isAssignableFrom(method.getReturnType())) {
+                return proxy(castType(method.getReturnType()), statement, counts);
+            }
+            return result;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static Class<Statement> castType(Class<?> type) {
+            return (Class<Statement>) type;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package bf.kvill.spring_phone_book.jdbc;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Mesure du nombre de requêtes SQL exécutées et de lignes lues, par requête HTTP.
+ *
+ * Une mesure est ouverte sur le thread courant (open) ; les connexions obtenues pendant qu'elle
+ * est ouverte sont comptées par CountingDataSource, quel que soit le code qui les utilise
+ * (Hibernate ou JdbcTemplate). Les tâches soumises aux exécuteurs de l'application emportent la
+ * mesure du thread qui les soumet (propagate). Une mesure ouverte dans une autre (un test autour
+ * d'une requête MockMvc) compte aussi dans la mesure englobante.
+ */
+public final class SqlStatistics {
+
+    private static final ThreadLocal<Counts> CURRENT = new ThreadLocal<>();
+
+    private SqlStatistics() {
+    }
+
+    // Mesure du thread courant, null hors requête (tâches de fond, démarrage)
+    public static Counts current() {
+        return CURRENT.get();
+    }
+
+    public static Scope open() {
+        Counts parent = CURRENT.get();
+        Counts counts = new Counts(parent);
+        CURRENT.set(counts);
+        return new Scope(counts, parent);
+    }
+
+    // TaskDecorator des exécuteurs : la tâche compte dans la mesure de la requête qui l'a soumise
+    public static Runnable propagate(Runnable task) {
+        Counts counts = CURRENT.get();
+        if (counts == null) {
+            return task;
+        }
+        return () -> {
+            Counts previous = CURRENT.get();
+            CURRENT.set(counts);
+            try {
+                task.run();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    private static void restore(Counts previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    // Incrémentés depuis plusieurs threads (travail asynchrone d'une même requête)
+    public static final class Counts {
+
+        private final Counts parent;
+        private final LongAdder statements = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+
+        private Counts(Counts parent) {
+            this.parent = parent;
+        }
+
+        void statement() {
+            for (Counts counts = this; counts != null; counts = counts.parent) {
+                counts.statements.increment();
+            }
+        }
+
+        void row() {
+            for (Counts counts = this; counts != null; counts = counts.parent) {
+                counts.rows.increment();
+            }
+        }
+
+        public long statements() {
+            return statements.sum();
+        }
+
+        public long rows() {
+            return rows.sum();
+        }
+    }
+
+    // Referme la mesure et rend au thread la mesure englobante ; les compteurs restent lisibles
+    public static final class Scope implements AutoCloseable {
+
+        private final Counts counts;
+        private final Counts parent;
+
+        private Scope(Counts counts, Counts parent) {
+            this.counts = counts;
+            this.parent = parent;
+        }
+
+        public Counts counts() {
+            return counts;
+        }
+
+        @Override
+        public void close() {
+            restore(parent);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package bf.kvill.spring_phone_book.jdbc;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Requêtes SQL et lignes lues par requête HTTP, par route : distributions
+ * http.server.requests.sql.statements et http.server.requests.sql.rows (étiquettes method, uri).
+ *
+ * Une requête qui dépasse son budget (sql.budget.statements, sql.budget.rows) est journalisée et
+ * comptée dans http.server.requests.sql.over.budget. Premier filtre de la chaîne : les requêtes
+ * de l'authentification sont comptées aussi. Pour une réponse asynchrone (export, endpoints
+ * /async), la mesure est relevée à la fin de la réponse.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@Slf4j
+public class SqlStatisticsFilter extends OncePerRequestFilter {
+
+    private static final double[] STATEMENT_BUCKETS = {1, 2, 3, 5, 10, 20, 50};
+    private static final double[] ROW_BUCKETS = {1, 10, 100, 1_000, 10_000, 100_000};
+
+    private final MeterRegistry meterRegistry;
+    private final long statementBudget;
+    private final long rowBudget;
+
+    public SqlStatisticsFilter(MeterRegistry meterRegistry,
+                               @Value("${sql.budget.statements:10}") long statementBudget,
+                               @Value("${sql.budget.rows:5000}") long rowBudget) {
+        this.meterRegistry = meterRegistry;
+        this.statementBudget = statementBudget;
+        this.rowBudget = rowBudget;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlStatistics.Counts counts;
+        try (SqlStatistics.Scope scope = SqlStatistics.open()) {
+            counts = scope.counts();
+            filterChain.doFilter(request, response);
+        }
+
+        if (request.isAsyncStarted()) {
+            request.getAsyncContext().addListener(new AsyncListener() {
+                @Override
+                public void onComplete(AsyncEvent event) {
+                    record(request, counts);
+                }
+
+                @Override
+                public void onTimeout(AsyncEvent event) {
+                }
+
+                @Override
+                public void onError(AsyncEvent event) {
+                }
+
+                @Override
+                public void onStartAsync(AsyncEvent event) {
+                }
+            });
+        } else {
+            record(request, counts);
+        }
+    }
+
+    private void record(HttpServletRequest request, SqlStatistics.Counts counts) {
+        String method = request.getMethod();
+        String uri = route(request);
+        long statements = counts.statements();
+        long rows = counts.rows();
+
+        DistributionSummary.builder("http.server.requests.sql.statements")
+                .description("SQL statements executed per HTTP request")
+                .tag("method", method)
+                .tag("uri", uri)
+                .serviceLevelObjectives(STATEMENT_BUCKETS)
+                .register(meterRegistry)
+                .record(statements);
+        DistributionSummary.builder("http.server.requests.sql.rows")
+                .description("Rows fetched per HTTP request")
+                .tag("method", method)
+                .tag("uri", uri)
+                .serviceLevelObjectives(ROW_BUCKETS)
+                .register(meterRegistry)
+                .record(rows);
+
+        if (statements > statementBudget || rows > rowBudget) {
+            Counter.builder("http.server.requests.sql.over.budget")
+                    .description("HTTP requests over their SQL budget")
+                    .tag("method", method)
+                    .tag("uri", uri)
+                    .register(meterRegistry)
+                    .increment();
+            log.warn("SQL budget exceeded: {} {} ran {} statements (budget {}) and fetched {} rows (budget {})",
+                    method, uri, statements, statementBudget, rows, rowBudget);
+        }
+    }
+
+    // Motif de la route (/api/contacts/{id}) : cardinalité bornée par le nombre d'endpoints
+    private static String route(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+}
@@ -0,0 +1,190 @@
+package bf.kvill.spring_phone_book.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Appender asynchrone devant un appender fichier : le thread applicatif dépose l'événement dans
+ * une file bornée (tableau circulaire pré-alloué, section critique réduite à l'insertion) et un
+ * thread d'écriture unique le transmet au fichier par lots, avec un seul flush par lot.
+ *
+ * Quand la file approche de sa capacité, la politique de débordement décide du sort des
+ * événements DEBUG/INFO ; WARN et ERROR attendent toujours une place. Les événements écartés
+ * sont comptés (getDroppedCount) et la file est vidée dans le fichier à l'arrêt.
+ */
+public class MeteredAsyncAppender extends UnsynchronizedAppenderBase<ILoggingEvent> {
+
+    public enum OverflowPolicy {
+        // L'appelant attend une place : aucun événement perdu
+        BLOCK,
+        // DEBUG/INFO écartés quand la file est presque pleine
+        DROP,
+        // Un événement DEBUG/INFO sur sampleRate conservé quand la file est presque pleine
+        SAMPLE
+    }
+
+    private static final long POLL_MILLIS = 100;
+    private static final long STOP_TIMEOUT_MILLIS = 5000;
+
+    private final OutputStreamAppender<ILoggingEvent> delegate;
+    private final ArrayBlockingQueue<ILoggingEvent> queue;
+    private final OverflowPolicy overflowPolicy;
+    private final int sampleRate;
+    private final int batchSize;
+    // Places libres en dessous desquelles DEBUG/INFO sont écartés ou échantillonnés (20 % de la file)
+    private final int discardThreshold;
+
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong overflowEvents = new AtomicLong();
+    private Thread worker;
+
+    public MeteredAsyncAppender(OutputStreamAppender<ILoggingEvent> delegate, int queueSize,
+                                OverflowPolicy overflowPolicy, int sampleRate, int batchSize) {
+        this.delegate = delegate;
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+        this.overflowPolicy = overflowPolicy;
+        this.sampleRate = Math.max(sampleRate, 1);
+        this.batchSize = Math.max(batchSize, 1);
+        this.discardThreshold = queueSize / 5;
+    }
+
+    @Override
+    public void start() {
+        if (isStarted()) {
+            return;
+        }
+        if (!delegate.isStarted()) {
+            addError("Appender '" + delegate.getName() + "' is not started, async appender '" + getName() + "' disabled");
+            return;
+        }
+        super.start();
+        worker = new Thread(this::drain, "logging-" + getName());
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        // Plus d'événements acceptés ; le thread d'écriture vide la file puis s'arrête
+        super.stop();
+        try {
+            worker.join(STOP_TIMEOUT_MILLIS);
+            if (worker.isAlive()) {
+                addWarn("Async appender '" + getName() + "' stopped with " + queue.size() + " events still queued");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        delegate.stop();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        // Message, MDC et nom du thread figés avant le passage au thread d'écriture
+        event.prepareForDeferredProcessing();
+
+        if (overflowPolicy == OverflowPolicy.BLOCK || event.getLevel().isGreaterOrEqual(Level.WARN)) {
+            if (!queue.offer(event)) {
+                putWhileStarted(event);
+            }
+            return;
+        }
+
+        // DEBUG/INFO avec DROP ou SAMPLE : jamais bloquants
+        if (queue.remainingCapacity() < discardThreshold && !keepOnOverflow()) {
+            dropped.incrementAndGet();
+            return;
+        }
+        if (!queue.offer(event)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    private boolean keepOnOverflow() {
+        return overflowPolicy == OverflowPolicy.SAMPLE && overflowEvents.getAndIncrement() % sampleRate == 0;
+    }
+
+    // File pleine : attente d'une place tant que l'appender tourne, sans avaler l'interruption
+    private void putWhileStarted(ILoggingEvent event) {
+        boolean interrupted = false;
+        try {
+            while (isStarted()) {
+                try {
+                    if (queue.offer(event, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                        return;
+                    }
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            dropped.incrementAndGet();
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // Thread d'écriture : un événement attendu, puis tout ce qui est déjà en file, dans la limite d'un lot
+    private void drain() {
+        List<ILoggingEvent> batch = new ArrayList<>(batchSize);
+        while (isStarted()) {
+            try {
+                ILoggingEvent first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+            } catch (InterruptedException e) {
+                break;
+            }
+            queue.drainTo(batch, batchSize - 1);
+            write(batch);
+        }
+        // Arrêt : le reste de la file est écrit avant la fermeture du fichier
+        while (queue.drainTo(batch, batchSize) > 0) {
+            write(batch);
+        }
+    }
+
+    private void write(List<ILoggingEvent> batch) {
+        for (ILoggingEvent event : batch) {
+            delegate.doAppend(event);
+        }
+        batch.clear();
+        // immediateFlush=false sur l'appender fichier : un flush par lot plutôt que par événement
+        OutputStream out = delegate.getOutputStream();
+        if (out != null) {
+            try {
+                out.flush();
+            } catch (IOException e) {
+                addError("Failed to flush appender '" + delegate.getName() + "'", e);
+            }
+        }
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public int getQueueCapacity() {
+        return queue.size() + queue.remainingCapacity();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+}
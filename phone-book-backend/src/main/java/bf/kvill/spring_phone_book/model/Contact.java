@@ -1,5 +1,6 @@
 package bf.kvill.spring_phone_book.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
@@ -12,14 +13,29 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 // Entité Contact pour la base de données
+// Associations chargées à la demande : les lectures passent par ContactView, le graphe
+// "Contact.group" sert aux chemins qui renvoient l'entité avec son groupe
 @Entity
-@Table(name = "contacts")
+@NamedEntityGraph(name = Contact.WITH_GROUP, attributeNodes = @NamedAttributeNode("group"))
+@Table(name = "contacts", indexes = {
+        // Sert aussi de clé de pagination par curseur (keyset) : (user_id, last_name, first_name, id)
+        @Index(name = "idx_contacts_user_name", columnList = "user_id, last_name, first_name, id"),
+        // Recherche par début / fin de numéro en parcours d'index (LIKE 'x%')
+        @Index(name = "idx_contacts_user_phone_digits", columnList = "user_id, phone_digits"),
+        @Index(name = "idx_contacts_user_phone_digits_rev", columnList = "user_id, phone_digits_reversed")
+}, uniqueConstraints = {
+        // Nom fixe : l'import distingue un numéro en double des autres violations de contrainte
+        @UniqueConstraint(name = Contact.PHONE_NUMBER_UNIQUE, columnNames = "phone_number")
+})
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 public class Contact {
 
+    public static final String WITH_GROUP = "Contact.group";
+    public static final String PHONE_NUMBER_UNIQUE = "uk_contacts_phone_number";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -34,20 +50,42 @@ public class Contact {
 
     @NotBlank(message = "Le numéro de téléphone est obligatoire")
     @Pattern(regexp = "^[0-9+\\-\\s()]+$", message = "Format de téléphone invalide")
-    @Column(unique = true)
     private String phoneNumber;
 
+    // Numéro réduit à ses chiffres, calculé à l'écriture
+    @JsonIgnore
+    @Column(length = 32)
+    private String phoneDigits;
+
+    // Chiffres inversés, pour rechercher les N derniers chiffres
+    @JsonIgnore
+    @Column(length = 32)
+    private String phoneDigitsReversed;
+
     @Pattern(regexp = "^$|^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$", message = "Format d'email invalide")
     @Column(nullable = true)
     private String email;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "group_id")
-    @JsonIgnoreProperties({ "contacts", "user" })
+    @JsonIgnoreProperties({ "contacts", "user", "hibernateLazyInitializer", "handler" })
     private Group group;
 
-    @ManyToOne
+    // Propriétaire : la réponse n'expose que le contact (l'utilisateur est celui du token)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
-    @JsonIgnoreProperties({ "contacts", "password" })
+    @JsonIgnore
     private User user;
+
+    public void setPhoneNumber(String phoneNumber) {
+        this.phoneNumber = phoneNumber;
+        normalizePhoneNumber();
+    }
+
+    @PrePersist
+    @PreUpdate
+    void normalizePhoneNumber() {
+        this.phoneDigits = PhoneNumbers.digits(phoneNumber);
+        this.phoneDigitsReversed = PhoneNumbers.reversedDigits(phoneNumber);
+    }
 }
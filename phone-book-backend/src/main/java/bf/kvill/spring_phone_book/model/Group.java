@@ -23,11 +23,14 @@ public class Group {
 
     private String description;
 
-    @OneToMany(mappedBy = "group", cascade = CascadeType.ALL)
+    // Sans cascade : supprimer un groupe détache ses contacts (ContactRepository.detachFromGroup)
+    @OneToMany(mappedBy = "group")
     @JsonIgnore
     private Set<Contact> contacts = new HashSet<>();
 
-    @ManyToOne
+    // Propriétaire : jamais sérialisé (hash du mot de passe, référence non chargée)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
+    @JsonIgnore
     private User user;
 }
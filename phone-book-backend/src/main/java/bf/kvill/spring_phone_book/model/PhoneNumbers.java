@@ -0,0 +1,28 @@
+package bf.kvill.spring_phone_book.model;
+
+// Formes canoniques d'un numéro de téléphone, indexées pour la recherche
+public final class PhoneNumbers {
+
+    private PhoneNumbers() {
+    }
+
+    // "+226 (70) 12-34" -> "226701234"
+    public static String digits(String phoneNumber) {
+        if (phoneNumber == null) {
+            return "";
+        }
+        StringBuilder digits = new StringBuilder(phoneNumber.length());
+        for (int i = 0; i < phoneNumber.length(); i++) {
+            char c = phoneNumber.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            }
+        }
+        return digits.toString();
+    }
+
+    // Chiffres inversés : une recherche "se termine par" devient une recherche par préfixe
+    public static String reversedDigits(String phoneNumber) {
+        return new StringBuilder(digits(phoneNumber)).reverse().toString();
+    }
+}
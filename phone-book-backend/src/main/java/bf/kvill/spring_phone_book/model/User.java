@@ -27,4 +27,8 @@ public class User {
     @ElementCollection(fetch = FetchType.EAGER)
     @Enumerated(EnumType.STRING)
     private Set<Role> roles;
+
+    // Incrémentée pour révoquer tous les tokens JWT émis pour cet utilisateur
+    @Column(nullable = false)
+    private long tokenVersion;
 }
@@ -1,24 +1,46 @@
 package bf.kvill.spring_phone_book.repository;
 
 import bf.kvill.spring_phone_book.model.Contact;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 // Repository pour les opérations CRUD sur Contact
+// Toutes les lectures sont filtrées par propriétaire (user_id) côté base de données
 @Repository
-public interface ContactRepository extends JpaRepository<Contact, Long>
+public interface ContactRepository extends JpaRepository<Contact, Long>, JpaSpecificationExecutor<Contact>, ContactViewRepository
 {
-    //Recherche par numero de telephone
-    List<Contact> findByPhoneNumberContaining(String phoneNumber);
+    // Contact d'un utilisateur par son ID, avec son groupe (renvoyé tel quel par PUT)
+    @EntityGraph(Contact.WITH_GROUP)
+    Optional<Contact> findByIdAndUserId(Long id, Long userId);
 
-    // Recherche par prénom, sans tenir compte de la casse
-    List<Contact> findByFirstNameContainingIgnoreCase(String firstName);
+    // Lignes à compléter par la migration des colonnes phone_digits
+    List<Contact> findByPhoneDigitsIsNull(Pageable pageable);
 
-    // Recherche par nom, sans tenir compte de la casse
-    List<Contact> findByLastNameContainingIgnoreCase(String lastName);
+    List<Contact> findByUserIdAndGroupId(Long userId, Long groupId);
 
-    List<Contact> findByGroupId(Long groupId);
+    // Opérations par lot : ids appartenant à l'utilisateur, sans charger les entités
+    @Query("SELECT c.id FROM Contact c WHERE c.user.id = :userId AND c.id IN :ids")
+    Set<Long> findIdsByUserIdAndIdIn(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
 
-}
\ No newline at end of file
+    // Suppression en une requête
+    @Modifying
+    @Query("DELETE FROM Contact c WHERE c.user.id = :userId AND c.id IN :ids")
+    int deleteByUserIdAndIdIn(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+
+    // Suppression d'un groupe : ses contacts sont conservés, sans groupe
+    @Modifying
+    @Query("UPDATE Contact c SET c.group = null WHERE c.group.id = :groupId")
+    int detachFromGroup(@Param("groupId") Long groupId);
+
+}
@@ -0,0 +1,75 @@
+package bf.kvill.spring_phone_book.repository;
+
+import bf.kvill.spring_phone_book.enums.PhoneMatch;
+import bf.kvill.spring_phone_book.model.Contact;
+import bf.kvill.spring_phone_book.model.PhoneNumbers;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+
+// Critères réutilisables pour les lectures de Contact (projections et pagination par curseur)
+public final class ContactSpecifications {
+
+    // Caractère d'échappement des LIKE : '\' dépend du mode SQL de MySQL, '!' non
+    private static final char LIKE_ESCAPE = '!';
+
+    private ContactSpecifications() {
+    }
+
+    public static Specification<Contact> ownedBy(Long userId) {
+        return (root, query, cb) -> cb.equal(root.get("user").get("id"), userId);
+    }
+
+    public static Specification<Contact> hasId(Long id) {
+        return (root, query, cb) -> cb.equal(root.get("id"), id);
+    }
+
+    public static Specification<Contact> idIn(Collection<Long> ids) {
+        return (root, query, cb) -> root.get("id").in(ids);
+    }
+
+    public static Specification<Contact> inGroup(Long groupId) {
+        return (root, query, cb) -> cb.equal(root.get("group").get("id"), groupId);
+    }
+
+    public static Specification<Contact> phoneDigitsMatch(String phoneNumber, PhoneMatch match) {
+        String digits = PhoneNumbers.digits(phoneNumber);
+        return switch (match) {
+            case PREFIX -> (root, query, cb) -> cb.like(root.get("phoneDigits"), digits + "%");
+            case SUFFIX -> (root, query, cb) -> cb.like(root.get("phoneDigitsReversed"), PhoneNumbers.reversedDigits(digits) + "%");
+            case CONTAINS -> (root, query, cb) -> cb.like(root.get("phoneDigits"), contains(digits), LIKE_ESCAPE);
+        };
+    }
+
+    public static Specification<Contact> firstNameContains(String firstName) {
+        return (root, query, cb) -> cb.like(cb.lower(root.get("firstName")), contains(firstName.toLowerCase()), LIKE_ESCAPE);
+    }
+
+    public static Specification<Contact> lastNameContains(String lastName) {
+        return (root, query, cb) -> cb.like(cb.lower(root.get("lastName")), contains(lastName.toLowerCase()), LIKE_ESCAPE);
+    }
+
+    // Recherche globale : prénom, nom ou numéro, avec les mêmes règles que UserSearchIndex
+    public static Specification<Contact> matches(String query) {
+        // Requête vide ou faite d'espaces : aucun contact, comme l'index (l'API la refuse déjà en 400)
+        if (query.isBlank()) {
+            return (root, criteria, cb) -> cb.disjunction();
+        }
+        Specification<Contact> byName = firstNameContains(query).or(lastNameContains(query));
+        // Numéro comparé sur ses seuls chiffres, et seulement pour une requête sans lettres
+        if (hasLetters(query) || PhoneNumbers.digits(query).isEmpty()) {
+            return byName;
+        }
+        return byName.or(phoneDigitsMatch(query, PhoneMatch.CONTAINS));
+    }
+
+    private static boolean hasLetters(String value) {
+        return value.chars().anyMatch(Character::isLetter);
+    }
+
+    // Saisie prise littéralement : % et _ ne sont pas des jokers, \ n'échappe rien
+    private static String contains(String value) {
+        String escaped = value.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+        return "%" + escaped + "%";
+    }
+}
@@ -0,0 +1,24 @@
+package bf.kvill.spring_phone_book.repository;
+
+import bf.kvill.spring_phone_book.dto.ContactView;
+import bf.kvill.spring_phone_book.model.Contact;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Lectures de contacts projetées directement en {@link ContactView} : seules les colonnes
+ * affichées sont sélectionnées, le groupe est joint dans la même requête et aucune entité
+ * (ni son utilisateur) n'est chargée.
+ */
+public interface ContactViewRepository {
+
+    /**
+     * Contacts correspondant au filtre, triés par (lastName, firstName, id).
+     *
+     * @param after position keyset de départ (exclue), ou {@link ScrollPosition#keyset()} pour le début
+     * @param limit nombre maximum de lignes, 0 pour toutes
+     */
+    List<ContactView> findViews(Specification<Contact> filter, ScrollPosition after, int limit);
+}
@@ -0,0 +1,83 @@
+package bf.kvill.spring_phone_book.repository;
+
+import bf.kvill.spring_phone_book.dto.ContactView;
+import bf.kvill.spring_phone_book.model.Contact;
+import bf.kvill.spring_phone_book.model.Group;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// SELECT new ContactView(...) FROM contacts LEFT JOIN contact_groups, avec les Specifications existantes
+class ContactViewRepositoryImpl implements ContactViewRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<ContactView> findViews(Specification<Contact> filter, ScrollPosition after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ContactView> query = cb.createQuery(ContactView.class);
+        Root<Contact> contact = query.from(Contact.class);
+        Join<Contact, Group> group = contact.join("group", JoinType.LEFT);
+
+        query.select(cb.construct(ContactView.class,
+                contact.get("id"),
+                contact.get("firstName"),
+                contact.get("lastName"),
+                contact.get("phoneNumber"),
+                contact.get("email"),
+                group.get("id"),
+                group.get("name"),
+                group.get("description")));
+
+        List<Predicate> where = new ArrayList<>();
+        Predicate filterPredicate = filter.toPredicate(contact, query, cb);
+        if (filterPredicate != null) {
+            where.add(filterPredicate);
+        }
+        if (after instanceof KeysetScrollPosition keyset && !keyset.isInitial()) {
+            where.add(after(cb, contact, keyset.getKeys()));
+        }
+        query.where(where.toArray(new Predicate[0]));
+
+        Path<String> lastName = contact.get("lastName");
+        Path<String> firstName = contact.get("firstName");
+        Path<Long> id = contact.get("id");
+        query.orderBy(cb.asc(lastName), cb.asc(firstName), cb.asc(id));
+
+        TypedQuery<ContactView> typedQuery = entityManager.createQuery(query);
+        if (limit > 0) {
+            typedQuery.setMaxResults(limit);
+        }
+        return typedQuery.getResultList();
+    }
+
+    // (lastName, firstName, id) > (clé du curseur), développé pour rester sur l'index idx_contacts_user_name
+    private static Predicate after(CriteriaBuilder cb, Root<Contact> contact, Map<String, ?> keys) {
+        Path<String> lastName = contact.get("lastName");
+        Path<String> firstName = contact.get("firstName");
+        Path<Long> id = contact.get("id");
+        String lastNameKey = (String) keys.get("lastName");
+        String firstNameKey = (String) keys.get("firstName");
+        Long idKey = ((Number) keys.get("id")).longValue();
+        return cb.or(
+                cb.greaterThan(lastName, lastNameKey),
+                cb.and(cb.equal(lastName, lastNameKey), cb.or(
+                        cb.greaterThan(firstName, firstNameKey),
+                        cb.and(cb.equal(firstName, firstNameKey), cb.greaterThan(id, idKey)))));
+    }
+}
@@ -1,16 +1,33 @@
 package bf.kvill.spring_phone_book.repository;
 
+import bf.kvill.spring_phone_book.dto.GroupSummary;
 import bf.kvill.spring_phone_book.model.Group;
-import bf.kvill.spring_phone_book.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface GroupRepository extends JpaRepository<Group, Long> {
     Optional<Group> findByName(String name);
-    List<Group> findByUser(User user);
-    Optional<Group> findByIdAndUser(Long id, User user);
+
+    // Filtrés par user_id : pas besoin de charger l'utilisateur
+    List<Group> findByUserId(Long userId);
+    Optional<Group> findByIdAndUserId(Long id, Long userId);
+
+    @Query("SELECT g.id FROM Group g WHERE g.user.id = :userId AND g.id IN :ids")
+    Set<Long> findIdsByUserIdAndIdIn(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+
+    // Groupes de l'utilisateur avec leur nombre de contacts, en une requête
+    @Query("SELECT new bf.kvill.spring_phone_book.dto.GroupSummary(g.id, g.name, g.description, COUNT(c.id)) "
+            + "FROM Group g LEFT JOIN g.contacts c "
+            + "WHERE g.user.id = :userId "
+            + "GROUP BY g.id, g.name, g.description "
+            + "ORDER BY g.name")
+    List<GroupSummary> summarizeByUserId(@Param("userId") Long userId);
 }
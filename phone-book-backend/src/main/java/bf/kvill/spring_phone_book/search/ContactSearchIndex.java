@@ -0,0 +1,219 @@
+package bf.kvill.spring_phone_book.search;
+
+import bf.kvill.spring_phone_book.cache.SearchCacheGenerations;
+import bf.kvill.spring_phone_book.dto.ContactView;
+import bf.kvill.spring_phone_book.model.Contact;
+import bf.kvill.spring_phone_book.repository.ContactRepository;
+import bf.kvill.spring_phone_book.repository.ContactSpecifications;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Moteur de recherche en mémoire : un index de trigrammes par utilisateur.
+ *
+ * L'index d'un utilisateur est construit en arrière-plan à sa première recherche ;
+ * tant qu'il n'est pas prêt, {@link #search} renvoie {@link Optional#empty()} et l'appelant
+ * interroge la base. Il est ensuite tenu à jour à chaque écriture validée sur ce pod.
+ *
+ * L'index retient la génération de recherche ({@link SearchCacheGenerations}, partagée via Redis)
+ * à laquelle il correspond : si une autre replica l'a fait avancer, l'index est reconstruit et la
+ * recherche repasse par la base en attendant, pour ne pas mettre en cache un résultat périmé sous
+ * la nouvelle génération. {@code search.index.max-age} reste un filet de sécurité.
+ */
+@Component
+@Slf4j
+public class ContactSearchIndex {
+
+    private final ContactRepository contactRepository;
+    private final SearchCacheGenerations generations;
+    private final boolean enabled;
+    private final Duration maxAge;
+    private final Map<Long, Entry> entries;
+    private final ExecutorService builder = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "contact-search-index");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ContactSearchIndex(ContactRepository contactRepository,
+                              SearchCacheGenerations generations,
+                              @Value("${search.index.enabled:true}") boolean enabled,
+                              @Value("${search.index.max-users:1000}") int maxUsers,
+                              @Value("${search.index.max-age:PT5M}") Duration maxAge) {
+        this.contactRepository = contactRepository;
+        this.generations = generations;
+        this.enabled = enabled;
+        this.maxAge = maxAge;
+        // LRU : on ne garde en mémoire que les carnets des utilisateurs actifs
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, ContactSearchIndex.Entry> eldest) {
+                return size() > maxUsers;
+            }
+        });
+    }
+
+    /**
+     * IDs des contacts de l'utilisateur correspondant à la requête,
+     * ou vide si l'index est désactivé, en cours de construction ou en retard sur la génération courante.
+     */
+    public Optional<List<Long>> search(Long userId, String query) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        Entry entry = entries.computeIfAbsent(userId, id -> new Entry());
+        UserSearchIndex index = entry.index;
+        if (index == null) {
+            build(userId, entry);
+            return Optional.empty();
+        }
+        if (entry.generation != generations.current(userId)) {
+            build(userId, entry);
+            return Optional.empty();
+        }
+        if (System.nanoTime() - entry.builtAt > maxAge.toNanos()) {
+            build(userId, entry);
+        }
+
+        entry.lock.readLock().lock();
+        try {
+            return Optional.of(entry.index.search(query));
+        } finally {
+            entry.lock.readLock().unlock();
+        }
+    }
+
+    public void contactSaved(Contact contact) {
+        Long userId = contact.getUser().getId();
+        Long id = contact.getId();
+        String firstName = contact.getFirstName();
+        String lastName = contact.getLastName();
+        String phoneNumber = contact.getPhoneNumber();
+        afterCommit(userId, () -> update(userId, index -> index.put(id, firstName, lastName, phoneNumber)));
+    }
+
+    public void contactDeleted(Long userId, Long id) {
+        afterCommit(userId, () -> update(userId, index -> index.remove(id)));
+    }
+
+    // Pour les écritures en masse : l'index sera reconstruit à la prochaine recherche
+    public void invalidate(Long userId) {
+        afterCommit(userId, () -> entries.remove(userId));
+    }
+
+    private void update(Long userId, Consumer<UserSearchIndex> change) {
+        Entry entry = entries.get(userId);
+        if (entry == null) {
+            return;
+        }
+        if (entry.building.get()) {
+            entry.dirty = true;
+        }
+        UserSearchIndex index = entry.index;
+        if (index == null) {
+            return;
+        }
+        entry.lock.writeLock().lock();
+        try {
+            change.accept(entry.index);
+            // Génération déjà incrémentée pour cette écriture (afterCommit) : l'index la rattrape.
+            // Une écriture d'une autre replica entre-temps laisse un écart, donc une reconstruction.
+            entry.generation++;
+        } finally {
+            entry.lock.writeLock().unlock();
+        }
+    }
+
+    private void build(Long userId, Entry entry) {
+        if (!entry.building.compareAndSet(false, true)) {
+            return;
+        }
+        builder.execute(() -> {
+            try {
+                do {
+                    entry.dirty = false;
+                    long start = System.nanoTime();
+                    // Lue avant la requête : une écriture validée pendant la lecture fera de nouveau reconstruire
+                    long generation = generations.current(userId);
+                    UserSearchIndex fresh = new UserSearchIndex();
+                    // Projection : ni entités ni utilisateur chargés pour construire l'index
+                    for (ContactView contact : contactRepository.findViews(ContactSpecifications.ownedBy(userId), ScrollPosition.keyset(), 0)) {
+                        fresh.put(contact.id(), contact.firstName(), contact.lastName(), contact.phoneNumber());
+                    }
+                    entry.lock.writeLock().lock();
+                    try {
+                        entry.index = fresh;
+                        entry.generation = generation;
+                        entry.builtAt = System.nanoTime();
+                    } finally {
+                        entry.lock.writeLock().unlock();
+                    }
+                    log.debug("Search index built for user {}: {} contacts in {} ms",
+                            userId, fresh.size(), (System.nanoTime() - start) / 1_000_000);
+                } while (entry.dirty);
+            } catch (Exception e) {
+                log.warn("Search index build failed for user {}", userId, e);
+                entries.remove(userId);
+            } finally {
+                entry.building.set(false);
+            }
+        });
+    }
+
+    /**
+     * Après commit, en une seule synchronisation : la génération partagée avance d'abord, l'index
+     * local ensuite. Une recherche entre les deux trouve l'index en retard sur la génération et
+     * interroge la base, déjà à jour ; aucun résultat n'est mis en cache sous une génération qui
+     * ne lui correspond pas.
+     */
+    private void afterCommit(Long userId, Runnable change) {
+        Runnable action = () -> {
+            generations.bump(userId);
+            if (enabled) {
+                change.run();
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        builder.shutdownNow();
+    }
+
+    private static class Entry {
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private final AtomicBoolean building = new AtomicBoolean();
+        private volatile UserSearchIndex index;
+        private volatile long builtAt;
+        private volatile long generation;
+        private volatile boolean dirty;
+    }
+}
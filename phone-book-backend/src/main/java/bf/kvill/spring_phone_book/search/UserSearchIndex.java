@@ -0,0 +1,169 @@
+package bf.kvill.spring_phone_book.search;
+
+import bf.kvill.spring_phone_book.model.PhoneNumbers;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Index inversé de trigrammes pour le carnet d'un seul utilisateur.
+ * Les noms sont indexés en minuscules, les numéros sous forme de chiffres uniquement.
+ * Non thread-safe : l'accès est protégé par {@link ContactSearchIndex}.
+ */
+class UserSearchIndex {
+
+    // Marque la fin d'un champ, pour retrouver les requêtes de 2 caractères par préfixe
+    private static final char END = '\0';
+    // Préfixe des trigrammes de numéros, pour ne pas les mélanger avec ceux des noms
+    private static final char PHONE = '\u0001';
+
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final NavigableMap<String, Set<Long>> postings = new TreeMap<>();
+
+    void put(Long id, String firstName, String lastName, String phoneNumber) {
+        remove(id);
+        Document document = new Document(normalizeText(firstName), normalizeText(lastName), PhoneNumbers.digits(phoneNumber));
+        documents.put(id, document);
+        for (String gram : document.grams()) {
+            postings.computeIfAbsent(gram, g -> new HashSet<>()).add(id);
+        }
+    }
+
+    void remove(Long id) {
+        Document document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        for (String gram : document.grams()) {
+            Set<Long> ids = postings.get(gram);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    int size() {
+        return documents.size();
+    }
+
+    /**
+     * IDs des contacts dont le prénom ou le nom contient la requête, ou dont le numéro
+     * contient ses chiffres lorsque la requête ne contient pas de lettres.
+     */
+    List<Long> search(String query) {
+        String text = normalizeText(query);
+        String phoneDigits = hasLetters(text) ? "" : PhoneNumbers.digits(query);
+
+        Set<Long> candidates = new HashSet<>();
+        if (!text.isBlank()) {
+            candidates.addAll(candidates(text, ""));
+        }
+        if (!phoneDigits.isEmpty()) {
+            candidates.addAll(candidates(phoneDigits, String.valueOf(PHONE)));
+        }
+
+        List<Long> matches = new ArrayList<>();
+        for (Long id : candidates) {
+            Document document = documents.get(id);
+            if (document.matches(text, phoneDigits)) {
+                matches.add(id);
+            }
+        }
+        return matches;
+    }
+
+    // Intersection des listes de postings, en partant de la plus courte
+    private Collection<Long> candidates(String value, String namespace) {
+        if (value.length() < 2) {
+            return documents.keySet();
+        }
+        if (value.length() == 2) {
+            Set<Long> union = new HashSet<>();
+            String prefix = namespace + value;
+            for (Set<Long> ids : postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+                union.addAll(ids);
+            }
+            return union;
+        }
+
+        List<Set<Long>> lists = new ArrayList<>();
+        for (String gram : grams(value, namespace, false)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids == null) {
+                return Set.of();
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+
+        List<Long> result = new ArrayList<>();
+        Set<Long> smallest = lists.get(0);
+        outer:
+        for (Long id : smallest) {
+            for (int i = 1; i < lists.size(); i++) {
+                if (!lists.get(i).contains(id)) {
+                    continue outer;
+                }
+            }
+            result.add(id);
+        }
+        return result;
+    }
+
+    private static Set<String> grams(String value, String namespace, boolean padded) {
+        String source = padded ? value + END : value;
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + 3 <= source.length(); i++) {
+            grams.add(namespace + source.substring(i, i + 3));
+        }
+        if (padded && source.length() < 3) {
+            grams.add(namespace + source);
+        }
+        return grams;
+    }
+
+    static String normalizeText(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean hasLetters(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (Character.isLetter(value.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private record Document(String firstName, String lastName, String phoneDigits) {
+
+        Set<String> grams() {
+            Set<String> grams = new HashSet<>();
+            grams.addAll(UserSearchIndex.grams(firstName, "", true));
+            grams.addAll(UserSearchIndex.grams(lastName, "", true));
+            if (!phoneDigits.isEmpty()) {
+                grams.addAll(UserSearchIndex.grams(phoneDigits, String.valueOf(PHONE), true));
+            }
+            return grams;
+        }
+
+        boolean matches(String text, String queryDigits) {
+            if (!text.isBlank() && (firstName.contains(text) || lastName.contains(text))) {
+                return true;
+            }
+            return !queryDigits.isEmpty() && phoneDigits.contains(queryDigits);
+        }
+    }
+}
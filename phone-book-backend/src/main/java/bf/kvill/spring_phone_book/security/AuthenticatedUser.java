@@ -0,0 +1,28 @@
+package bf.kvill.spring_phone_book.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+// UserDetails enrichi de l'ID et de la version des tokens, embarqués dans le JWT à la connexion
+public class AuthenticatedUser extends User {
+
+    private final Long id;
+    private final long tokenVersion;
+
+    public AuthenticatedUser(Long id, String username, String password, long tokenVersion,
+                             Collection<? extends GrantedAuthority> authorities) {
+        super(username, password, authorities);
+        this.id = id;
+        this.tokenVersion = tokenVersion;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public long getTokenVersion() {
+        return tokenVersion;
+    }
+}
@@ -0,0 +1,17 @@
+package bf.kvill.spring_phone_book.security;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Injecte l'utilisateur connecté ({@link UserRef}) dans un paramètre de contrôleur.
+ * Résolu une seule fois par requête à partir du principal de sécurité.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CurrentUser {
+}
@@ -0,0 +1,62 @@
+package bf.kvill.spring_phone_book.security;
+
+import bf.kvill.spring_phone_book.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+// Résout @CurrentUser depuis le principal posé par JwtAuthenticationFilter, sans requête SQL
+@Component
+@RequiredArgsConstructor
+public class CurrentUserArgumentResolver implements HandlerMethodArgumentResolver {
+
+    // Mémorisé dans la requête : résolu une seule fois même si plusieurs paramètres le demandent
+    static final String REQUEST_ATTRIBUTE = CurrentUserArgumentResolver.class.getName() + ".USER";
+
+    private final UserRepository userRepository;
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(CurrentUser.class)
+                && UserRef.class.isAssignableFrom(parameter.getParameterType());
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        Object cached = webRequest.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (cached instanceof UserRef user) {
+            return user;
+        }
+        UserRef user = resolve(SecurityContextHolder.getContext().getAuthentication());
+        webRequest.setAttribute(REQUEST_ATTRIBUTE, user, RequestAttributes.SCOPE_REQUEST);
+        return user;
+    }
+
+    private UserRef resolve(Authentication auth) {
+        if (auth == null || auth instanceof AnonymousAuthenticationToken) {
+            throw new AuthenticationCredentialsNotFoundException("No authenticated user");
+        }
+        Object principal = auth.getPrincipal();
+        if (principal instanceof JwtPrincipal jwt) {
+            return new UserRef(jwt.id(), jwt.username());
+        }
+        if (principal instanceof AuthenticatedUser user) {
+            return new UserRef(user.getId(), user.getUsername());
+        }
+        // Autre mécanisme d'authentification : l'ID n'est connu que de la base
+        return userRepository.findByUsername(auth.getName())
+                .map(UserRef::from)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+    }
+}
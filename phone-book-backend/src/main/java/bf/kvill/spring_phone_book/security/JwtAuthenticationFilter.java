@@ -1,12 +1,16 @@
 package bf.kvill.spring_phone_book.security;
 
 import bf.kvill.spring_phone_book.service.CustomUserDetailsService;
+import bf.kvill.spring_phone_book.service.TokenVersionService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -21,6 +25,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final CustomUserDetailsService userDetailsService;
+    private final TokenVersionService tokenVersionService;
+
+    // Principal construit depuis les claims (uid, roles) : aucune requête SQL par requête
+    @Value("${jwt.stateless-auth.enabled:false}")
+    private boolean statelessAuth;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -28,24 +37,22 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         final String authorizationHeader = request.getHeader("Authorization");
 
-        String username = null;
-        String jwt = null;
+        // Le token n'est vérifié qu'une fois par requête ; les claims servent ensuite à la validation
+        Claims claims = null;
 
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwt = authorizationHeader.substring(7);
             try {
-                username = jwtUtil.extractUsername(jwt);
+                claims = jwtUtil.parseClaims(authorizationHeader.substring(7));
             } catch (Exception e) {
                 logger.error("JWT token extraction failed", e);
             }
         }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+        String username = claims != null ? claims.getSubject() : null;
 
-            if (jwtUtil.validateToken(jwt, userDetails)) {
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
+        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            UsernamePasswordAuthenticationToken authToken = authenticate(claims);
+            if (authToken != null) {
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
             }
@@ -53,4 +60,25 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    private UsernamePasswordAuthenticationToken authenticate(Claims claims) {
+        // Version révoquée : le token n'authentifie plus personne
+        if (!tokenVersionService.isCurrent(jwtUtil.extractUserId(claims), jwtUtil.extractTokenVersion(claims))) {
+            logger.debug("Revoked JWT token for user " + claims.getSubject());
+            return null;
+        }
+
+        JwtPrincipal principal = statelessAuth ? jwtUtil.toPrincipal(claims) : null;
+        if (principal != null) {
+            return new UsernamePasswordAuthenticationToken(principal, null,
+                    principal.roles().stream().map(SimpleGrantedAuthority::new).toList());
+        }
+
+        // Ancien token sans "uid", ou mode sans état désactivé : chargement de l'utilisateur en base
+        UserDetails userDetails = this.userDetailsService.loadUserByUsername(claims.getSubject());
+        if (jwtUtil.validateToken(claims, userDetails)) {
+            return new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+        }
+        return null;
+    }
+}
@@ -0,0 +1,13 @@
+package bf.kvill.spring_phone_book.security;
+
+import java.security.Principal;
+import java.util.List;
+
+// Principal construit uniquement à partir des claims d'un JWT vérifié (aucune requête SQL)
+public record JwtPrincipal(Long id, String username, List<String> roles) implements Principal {
+
+    @Override
+    public String getName() {
+        return username;
+    }
+}
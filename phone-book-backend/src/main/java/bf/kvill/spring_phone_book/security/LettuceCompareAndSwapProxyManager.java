@@ -0,0 +1,153 @@
+package bf.kvill.spring_phone_book.security;
+
+import io.github.bucket4j.distributed.ExpirationAfterWriteStrategy;
+import io.github.bucket4j.distributed.proxy.ClientSideConfig;
+import io.github.bucket4j.distributed.proxy.generic.compare_and_swap.AbstractCompareAndSwapBasedProxyManager;
+import io.github.bucket4j.distributed.proxy.generic.compare_and_swap.AsyncCompareAndSwapOperation;
+import io.github.bucket4j.distributed.proxy.generic.compare_and_swap.CompareAndSwapOperation;
+import io.github.bucket4j.distributed.remote.RemoteBucketState;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisConnectionException;
+import io.lettuce.core.ScriptOutputType;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.codec.ByteArrayCodec;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Compare-and-swap bucket4j sur Lettuce, à la place de LettuceBasedProxyManager 7.6 :
+ * son script de création renvoie le statut "OK" que la sortie BOOLEAN lit comme un échec,
+ * bucket4j rejoue alors la commande et le premier appel d'une clé consomme deux jetons.
+ * Les scripts ci-dessous renvoient explicitement 1 ou 0.
+ *
+ * La connexion est ouverte au premier appel et non au démarrage : un Redis injoignable ne bloque
+ * pas le lancement de l'application, les appels échouent (RedisConnectionException) et
+ * RateLimitingFilter laisse passer les requêtes. Après un échec, la connexion n'est retentée
+ * qu'au bout de {@code retryDelay}.
+ */
+public class LettuceCompareAndSwapProxyManager extends AbstractCompareAndSwapBasedProxyManager<byte[]> {
+
+    private static final String CREATE_SCRIPT =
+            "if redis.call('set', KEYS[1], ARGV[1], 'nx', 'px', ARGV[2]) then return 1 else return 0 end";
+    private static final String SWAP_SCRIPT =
+            "if redis.call('get', KEYS[1]) == ARGV[1] then redis.call('psetex', KEYS[1], ARGV[3], ARGV[2]); return 1 else return 0 end";
+
+    private final RedisClient client;
+    private final ExpirationAfterWriteStrategy expirationStrategy;
+    private final Duration retryDelay;
+    private final Lock connecting = new ReentrantLock();
+    private volatile StatefulRedisConnection<byte[], byte[]> connection;
+    private volatile long retryAt = System.nanoTime();
+
+    public LettuceCompareAndSwapProxyManager(RedisClient client, ExpirationAfterWriteStrategy expirationStrategy,
+                                             Duration retryDelay) {
+        super(ClientSideConfig.getDefault());
+        this.client = client;
+        this.expirationStrategy = expirationStrategy;
+        this.retryDelay = retryDelay;
+    }
+
+    @Override
+    protected CompareAndSwapOperation beginCompareAndSwapOperation(byte[] key) {
+        byte[][] keys = {key};
+        return new CompareAndSwapOperation() {
+            @Override
+            public Optional<byte[]> getStateData() {
+                return Optional.ofNullable(connection().sync().get(key));
+            }
+
+            @Override
+            public boolean compareAndSwap(byte[] originalData, byte[] newData, RemoteBucketState newState) {
+                byte[] ttl = ttl(newState);
+                Long swapped = originalData == null
+                        ? connection().sync().eval(CREATE_SCRIPT, ScriptOutputType.INTEGER, keys, newData, ttl)
+                        : connection().sync().eval(SWAP_SCRIPT, ScriptOutputType.INTEGER, keys, originalData, newData, ttl);
+                return swapped != null && swapped == 1L;
+            }
+        };
+    }
+
+    @Override
+    protected AsyncCompareAndSwapOperation beginAsyncCompareAndSwapOperation(byte[] key) {
+        byte[][] keys = {key};
+        return new AsyncCompareAndSwapOperation() {
+            @Override
+            public CompletableFuture<Optional<byte[]>> getStateData() {
+                try {
+                    return connection().async().get(key).thenApply(Optional::ofNullable).toCompletableFuture();
+                } catch (RuntimeException e) {
+                    return CompletableFuture.failedFuture(e);
+                }
+            }
+
+            @Override
+            public CompletableFuture<Boolean> compareAndSwap(byte[] originalData, byte[] newData, RemoteBucketState newState) {
+                try {
+                    byte[] ttl = ttl(newState);
+                    CompletableFuture<Long> swapped = (originalData == null
+                            ? connection().async().<Long>eval(CREATE_SCRIPT, ScriptOutputType.INTEGER, keys, newData, ttl)
+                            : connection().async().<Long>eval(SWAP_SCRIPT, ScriptOutputType.INTEGER, keys, originalData, newData, ttl))
+                            .toCompletableFuture();
+                    return swapped.thenApply(result -> result != null && result == 1L);
+                } catch (RuntimeException e) {
+                    return CompletableFuture.failedFuture(e);
+                }
+            }
+        };
+    }
+
+    @Override
+    public void removeProxy(byte[] key) {
+        connection().sync().del(key);
+    }
+
+    @Override
+    protected CompletableFuture<Void> removeAsync(byte[] key) {
+        try {
+            return connection().async().del(key).<Void>thenApply(deleted -> null).toCompletableFuture();
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @Override
+    public boolean isAsyncModeSupported() {
+        return true;
+    }
+
+    // Une seule tentative à la fois ; pendant qu'elle dure, et jusqu'à retryAt après un échec, on échoue tout de suite
+    private StatefulRedisConnection<byte[], byte[]> connection() {
+        StatefulRedisConnection<byte[], byte[]> current = connection;
+        if (current != null) {
+            return current;
+        }
+        if (System.nanoTime() - retryAt < 0 || !connecting.tryLock()) {
+            throw new RedisConnectionException("Redis connection not available");
+        }
+        try {
+            if (connection == null) {
+                try {
+                    connection = client.connect(ByteArrayCodec.INSTANCE);
+                } catch (RuntimeException e) {
+                    retryAt = System.nanoTime() + retryDelay.toNanos();
+                    throw e;
+                }
+            }
+            return connection;
+        } finally {
+            connecting.unlock();
+        }
+    }
+
+    // PSETEX refuse un délai nul : au moins une milliseconde
+    private byte[] ttl(RemoteBucketState state) {
+        long nowNanos = System.currentTimeMillis() * 1_000_000L;
+        long millis = Math.max(1L, expirationStrategy.calculateTimeToLiveMillis(state, nowNanos));
+        return Long.toString(millis).getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,44 @@
+package bf.kvill.spring_phone_book.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.local.LocalBucketBuilder;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Buckets en mémoire, bornés en nombre et supprimés après une période d'inactivité.
+ * Un bucket inactif depuis plus longtemps que sa période de recharge est de toute façon
+ * plein : l'évincer ne change pas la limite appliquée.
+ */
+public class LocalRateLimitBuckets implements RateLimitBuckets {
+
+    private final Cache<String, Bucket> buckets;
+
+    public LocalRateLimitBuckets(long maxBuckets, Duration idleTimeout) {
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxBuckets)
+                .expireAfterAccess(idleTimeout)
+                .build();
+    }
+
+    @Override
+    public Bucket resolve(String key, Supplier<BucketConfiguration> configuration) {
+        return buckets.get(key, k -> {
+            LocalBucketBuilder builder = Bucket.builder();
+            for (Bandwidth limit : configuration.get().getBandwidths()) {
+                builder.addLimit(limit);
+            }
+            return builder.build();
+        });
+    }
+
+    long size() {
+        buckets.cleanUp();
+        return buckets.estimatedSize();
+    }
+}
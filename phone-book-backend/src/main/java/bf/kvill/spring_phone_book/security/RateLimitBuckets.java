@@ -0,0 +1,12 @@
+package bf.kvill.spring_phone_book.security;
+
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+
+import java.util.function.Supplier;
+
+// Stockage des buckets de RateLimitingFilter : local (par réplica) ou partagé via Redis
+public interface RateLimitBuckets {
+
+    Bucket resolve(String key, Supplier<BucketConfiguration> configuration);
+}
@@ -2,22 +2,44 @@ package bf.kvill.spring_phone_book.security;
 
 import io.github.bucket4j.Bandwidth;
 import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
 import io.github.bucket4j.Refill;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.time.Duration;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
 
 @Component
+@Slf4j
 public class RateLimitingFilter extends OncePerRequestFilter {
 
-    private final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+    // Segments variables d'URL (IDs numériques) : /api/contacts/42 -> /api/contacts/{id}
+    private static final Pattern ID_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+
+    private final RateLimitBuckets buckets;
+    private final boolean enabled;
+    private final BucketConfiguration authLimit;
+    private final BucketConfiguration apiLimit;
+
+    public RateLimitingFilter(RateLimitBuckets buckets,
+                              @Value("${rate-limit.enabled:true}") boolean enabled,
+                              @Value("${rate-limit.auth.capacity:5}") long authCapacity,
+                              @Value("${rate-limit.api.capacity:100}") long apiCapacity,
+                              @Value("${rate-limit.period:PT1M}") Duration period) {
+        this.buckets = buckets;
+        this.enabled = enabled;
+        // 5 tentatives par minute pour l'authentification, 100 requêtes par minute ailleurs
+        this.authLimit = limit(authCapacity, period);
+        this.apiLimit = limit(apiCapacity, period);
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -26,7 +48,8 @@ public class RateLimitingFilter extends OncePerRequestFilter {
         String endpoint = request.getRequestURI();
         
         // Skip rate limiting for public endpoints
-        if (endpoint.startsWith("/swagger-ui") || endpoint.startsWith("/api-docs") || 
+        if (!enabled ||
+            endpoint.startsWith("/swagger-ui") || endpoint.startsWith("/api-docs") ||
             endpoint.startsWith("/v3/api-docs") || endpoint.equals("/swagger-ui.html") ||
             endpoint.startsWith("/actuator/health") || endpoint.startsWith("/actuator/info") ||
             endpoint.startsWith("/actuator/prometheus")) {
@@ -37,9 +60,7 @@ public class RateLimitingFilter extends OncePerRequestFilter {
         String clientIp = getClientIp(request);
 
         // Rate limiting plus strict pour les endpoints d'authentification
-        Bucket bucket = getBucket(clientIp, endpoint);
-
-        if (bucket.tryConsume(1)) {
+        if (tryConsume(clientIp, routeTemplate(endpoint))) {
             filterChain.doFilter(request, response);
         } else {
             response.setStatus(429);
@@ -47,24 +68,27 @@ public class RateLimitingFilter extends OncePerRequestFilter {
         }
     }
 
-    private Bucket getBucket(String clientIp, String endpoint) {
-        String key = clientIp + ":" + endpoint;
-        
-        return buckets.computeIfAbsent(key, k -> {
-            Bandwidth limit;
-            
-            if (endpoint.contains("/auth/")) {
-                // 5 tentatives par minute pour l'authentification
-                limit = Bandwidth.classic(5, Refill.intervally(5, Duration.ofMinutes(1)));
-            } else {
-                // 100 requêtes par minute pour les autres endpoints
-                limit = Bandwidth.classic(100, Refill.intervally(100, Duration.ofMinutes(1)));
-            }
-            
-            return Bucket.builder()
-                    .addLimit(limit)
-                    .build();
-        });
+    private boolean tryConsume(String clientIp, String route) {
+        BucketConfiguration configuration = route.contains("/auth/") ? authLimit : apiLimit;
+        try {
+            Bucket bucket = buckets.resolve(clientIp + ":" + route, () -> configuration);
+            return bucket.tryConsume(1);
+        } catch (RuntimeException e) {
+            // Stockage distant indisponible : on laisse passer plutôt que de bloquer toute l'API
+            log.warn("Rate limit store unavailable, request allowed: {}", e.getMessage());
+            return true;
+        }
+    }
+
+    // Une clé par route et non par URI : /api/contacts/1 et /api/contacts/2 partagent un bucket
+    static String routeTemplate(String uri) {
+        return ID_SEGMENT.matcher(uri).replaceAll("/{id}");
+    }
+
+    private static BucketConfiguration limit(long capacity, Duration period) {
+        return BucketConfiguration.builder()
+                .addLimit(Bandwidth.classic(capacity, Refill.intervally(capacity, period)))
+                .build();
     }
 
     private String getClientIp(HttpServletRequest request) {
@@ -80,4 +104,4 @@ public class RateLimitingFilter extends OncePerRequestFilter {
         
         return request.getRemoteAddr();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,26 @@
+package bf.kvill.spring_phone_book.security;
+
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.function.Supplier;
+
+// Buckets partagés par toutes les réplicas : l'état est stocké dans Redis (compare-and-swap)
+public class RedisRateLimitBuckets implements RateLimitBuckets {
+
+    private static final String KEY_PREFIX = "rate-limit:";
+
+    private final ProxyManager<byte[]> proxyManager;
+
+    public RedisRateLimitBuckets(ProxyManager<byte[]> proxyManager) {
+        this.proxyManager = proxyManager;
+    }
+
+    @Override
+    public Bucket resolve(String key, Supplier<BucketConfiguration> configuration) {
+        return proxyManager.builder()
+                .build((KEY_PREFIX + key).getBytes(StandardCharsets.UTF_8), configuration);
+    }
+}
@@ -0,0 +1,16 @@
+package bf.kvill.spring_phone_book.security;
+
+import bf.kvill.spring_phone_book.model.User;
+import lombok.Value;
+
+// Référence légère vers l'utilisateur connecté : suffit aux services, qui filtrent par user_id
+@Value
+public class UserRef {
+
+    Long id;
+    String username;
+
+    public static UserRef from(User user) {
+        return new UserRef(user.getId(), user.getUsername());
+    }
+}
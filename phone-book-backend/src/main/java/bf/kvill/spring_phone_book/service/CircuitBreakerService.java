@@ -1,73 +1,96 @@
 package bf.kvill.spring_phone_book.service;
 
+import bf.kvill.spring_phone_book.config.AsyncConfig;
+import bf.kvill.spring_phone_book.dto.ContactView;
+import bf.kvill.spring_phone_book.exception.ServiceUnavailableException;
+import bf.kvill.spring_phone_book.security.UserRef;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
 import io.github.resilience4j.timelimiter.annotation.TimeLimiter;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.TimeoutException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
 
+/**
+ * Lectures de contacts asynchrones et protégées (disjoncteur, nouvelle tentative, délai max).
+ *
+ * Chaque opération s'exécute sur son propre exécuteur borné (AsyncConfig) : le thread de la
+ * requête est libéré pendant le travail, et une recherche lente ne consomme pas la capacité
+ * de la liste des contacts. Un exécuteur saturé ou un disjoncteur ouvert répond 503.
+ * Un délai dépassé interrompt le thread de travail et n'est pas retenté : une requête lente
+ * n'occupe qu'un seul thread de l'exécuteur.
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class CircuitBreakerService {
 
     private final ContactService contactService;
-    private final UserService userService;
+    private final AsyncTaskExecutor contactsExecutor;
+    private final AsyncTaskExecutor searchExecutor;
+
+    public CircuitBreakerService(ContactService contactService,
+                                 @Qualifier(AsyncConfig.CONTACTS_EXECUTOR) AsyncTaskExecutor contactsExecutor,
+                                 @Qualifier(AsyncConfig.SEARCH_EXECUTOR) AsyncTaskExecutor searchExecutor) {
+        this.contactService = contactService;
+        this.contactsExecutor = contactsExecutor;
+        this.searchExecutor = searchExecutor;
+    }
 
     @CircuitBreaker(name = "contact-service", fallbackMethod = "fallbackGetContacts")
     @Retry(name = "contact-service")
     @TimeLimiter(name = "contact-service")
-    public CompletableFuture<Object> getContactsWithCircuitBreaker(Long userId) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                var user = userService.findById(userId);
-                return contactService.getAllContactsForUser(user);
-            } catch (Exception e) {
-                log.error("Error getting contacts for user {}", userId, e);
-                throw new RuntimeException("Service temporarily unavailable", e);
-            }
-        });
+    public CompletableFuture<List<ContactView>> getContacts(UserRef user) {
+        return submit(() -> contactService.getAllContactsForUser(user), contactsExecutor);
     }
 
     @CircuitBreaker(name = "search-service", fallbackMethod = "fallbackSearch")
     @Retry(name = "search-service")
-    public Object searchWithCircuitBreaker(String query, Long userId) {
+    @TimeLimiter(name = "search-service")
+    public CompletableFuture<List<ContactView>> searchContacts(String query, UserRef user) {
+        return submit(() -> contactService.searchContacts(query, user), searchExecutor);
+    }
+
+    // Un refus de l'exécuteur devient un échec du futur, traité par le fallback comme les autres
+    static <T> CompletableFuture<T> submit(Supplier<T> work, AsyncTaskExecutor executor) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> task;
         try {
-            var user = userService.findById(userId);
-            return contactService.searchContacts(query, user);
-        } catch (Exception e) {
-            log.error("Error searching contacts for user {} with query {}", userId, query, e);
-            throw new RuntimeException("Search service temporarily unavailable", e);
+            task = executor.submit(() -> {
+                try {
+                    result.complete(work.get());
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
         }
+        // supplyAsync ignore l'annulation : le TimeLimiter (cancel-running-future) interrompt ici le thread de travail
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                task.cancel(true);
+            }
+        });
+        return result;
     }
 
     // Fallback methods
-    public CompletableFuture<Object> fallbackGetContacts(Long userId, Exception ex) {
-        log.warn("Circuit breaker activated for contacts service, user: {}", userId);
-        return CompletableFuture.completedFuture(
-            new ServiceUnavailableResponse("Le service de contacts est temporairement indisponible")
-        );
-    }
-
-    public Object fallbackSearch(String query, Long userId, Exception ex) {
-        log.warn("Circuit breaker activated for search service, user: {}, query: {}", userId, query);
-        return new ServiceUnavailableResponse("Le service de recherche est temporairement indisponible");
+    public CompletableFuture<List<ContactView>> fallbackGetContacts(UserRef user, Throwable ex) {
+        log.warn("Contacts service unavailable for user {}: {}", user.getId(), ex.toString());
+        return CompletableFuture.failedFuture(new ServiceUnavailableException(
+                "Le service de contacts est temporairement indisponible", ex));
     }
 
-    public static class ServiceUnavailableResponse {
-        private final String message;
-        private final long timestamp;
-
-        public ServiceUnavailableResponse(String message) {
-            this.message = message;
-            this.timestamp = System.currentTimeMillis();
-        }
-
-        public String getMessage() { return message; }
-        public long getTimestamp() { return timestamp; }
+    public CompletableFuture<List<ContactView>> fallbackSearch(String query, UserRef user, Throwable ex) {
+        log.warn("Search service unavailable for user {}, query: {}: {}", user.getId(), query, ex.toString());
+        return CompletableFuture.failedFuture(new ServiceUnavailableException(
+                "Le service de recherche est temporairement indisponible", ex));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,269 @@
+package bf.kvill.spring_phone_book.service;
+
+import bf.kvill.spring_phone_book.dto.ContactBatchResult;
+import bf.kvill.spring_phone_book.dto.ContactBatchResult.OperationResult;
+import bf.kvill.spring_phone_book.dto.ContactOperation;
+import bf.kvill.spring_phone_book.dto.ContactRequest;
+import bf.kvill.spring_phone_book.enums.BatchOperationType;
+import bf.kvill.spring_phone_book.model.PhoneNumbers;
+import bf.kvill.spring_phone_book.repository.ContactRepository;
+import bf.kvill.spring_phone_book.repository.GroupRepository;
+import bf.kvill.spring_phone_book.search.ContactSearchIndex;
+import bf.kvill.spring_phone_book.security.UserRef;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Création, modification et suppression de contacts par lot, en une transaction.
+ *
+ * Toutes les vérifications sont faites avant d'écrire, avec une requête par type de donnée
+ * (contacts et groupes de l'utilisateur, numéros déjà utilisés) ; une opération refusée
+ * n'empêche pas les autres. Les écritures sont ensuite regroupées : un DELETE ... IN,
+ * un batch JDBC d'UPDATE, un batch JDBC d'INSERT. Les caches sont invalidés une fois par lot.
+ */
+@Service
+@RequiredArgsConstructor
+public class ContactBatchService {
+
+    private static final String INSERT_CONTACT = "INSERT INTO contacts "
+            + "(first_name, last_name, phone_number, phone_digits, phone_digits_reversed, email, group_id, user_id) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_CONTACT = "UPDATE contacts SET first_name = ?, last_name = ?, phone_number = ?, "
+            + "phone_digits = ?, phone_digits_reversed = ?, email = ?, group_id = ? "
+            + "WHERE id = ? AND user_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final Validator validator;
+    private final ContactRepository contactRepository;
+    private final GroupRepository groupRepository;
+    private final ContactSearchIndex searchIndex;
+
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(value = "contacts", key = "'user:' + #user.id"),
+            @CacheEvict(value = "groups", key = "'user:' + #user.id")
+    })
+    public ContactBatchResult execute(List<ContactOperation> operations, UserRef user) {
+        Long userId = user.getId();
+        OperationResult[] results = new OperationResult[operations.size()];
+
+        // 1. Validation de chaque opération (contraintes de ContactRequest, champs requis par type)
+        for (int i = 0; i < operations.size(); i++) {
+            String error = validate(operations.get(i));
+            if (error != null) {
+                results[i] = failure(i, HttpStatus.BAD_REQUEST, operations.get(i), error);
+            }
+        }
+
+        // 2. Contacts et groupes référencés : appartiennent-ils à l'utilisateur ?
+        Set<Long> contactIds = new HashSet<>();
+        Set<Long> groupIds = new HashSet<>();
+        forPending(operations, results, (i, op) -> {
+            if (op.getId() != null && op.getOp() != BatchOperationType.CREATE) {
+                contactIds.add(op.getId());
+            }
+            if (op.getContact() != null && op.getContact().getGroupId() != null && op.getOp() != BatchOperationType.DELETE) {
+                groupIds.add(op.getContact().getGroupId());
+            }
+        });
+        Set<Long> ownedContacts = contactIds.isEmpty() ? Set.of() : contactRepository.findIdsByUserIdAndIdIn(userId, contactIds);
+        Set<Long> ownedGroups = groupIds.isEmpty() ? Set.of() : groupRepository.findIdsByUserIdAndIdIn(userId, groupIds);
+
+        Set<Long> touched = new HashSet<>();
+        forPending(operations, results, (i, op) -> {
+            if (op.getOp() != BatchOperationType.CREATE) {
+                if (!ownedContacts.contains(op.getId())) {
+                    results[i] = failure(i, HttpStatus.NOT_FOUND, op, "Contact not found");
+                    return;
+                }
+                if (!touched.add(op.getId())) {
+                    results[i] = failure(i, HttpStatus.CONFLICT, op, "Contact déjà modifié ou supprimé dans ce lot");
+                    return;
+                }
+            }
+            if (op.getOp() != BatchOperationType.DELETE && op.getContact().getGroupId() != null
+                    && !ownedGroups.contains(op.getContact().getGroupId())) {
+                results[i] = failure(i, HttpStatus.NOT_FOUND, op, "Groupe non trouvé");
+            }
+        });
+
+        // 3. Numéros : uniques sur toute la table ; les suppressions du lot sont exécutées en premier
+        Set<Long> deletedIds = new HashSet<>();
+        Set<String> phones = new HashSet<>();
+        forPending(operations, results, (i, op) -> {
+            if (op.getOp() == BatchOperationType.DELETE) {
+                deletedIds.add(op.getId());
+            } else {
+                phones.add(op.getContact().getPhoneNumber());
+            }
+        });
+        Map<String, Long> phoneHolders = new HashMap<>();
+        if (!phones.isEmpty()) {
+            namedJdbcTemplate.query("SELECT id, phone_number FROM contacts WHERE phone_number IN (:phones)",
+                    Map.of("phones", phones),
+                    rs -> {
+                        phoneHolders.put(rs.getString("phone_number"), rs.getLong("id"));
+                    });
+        }
+        Set<String> batchPhones = new HashSet<>();
+        forPending(operations, results, (i, op) -> {
+            if (op.getOp() == BatchOperationType.DELETE) {
+                return;
+            }
+            String phone = op.getContact().getPhoneNumber();
+            Long holder = phoneHolders.get(phone);
+            // Un numéro tenu par un contact modifié dans le même lot reste refusé : l'ordre des UPDATE n'est pas garanti
+            if (holder != null && !holder.equals(op.getId()) && !deletedIds.contains(holder)) {
+                results[i] = failure(i, HttpStatus.CONFLICT, op, "phoneNumber: numéro déjà enregistré");
+            } else if (!batchPhones.add(phone)) {
+                results[i] = failure(i, HttpStatus.CONFLICT, op, "phoneNumber: numéro en double dans le lot");
+            }
+        });
+
+        // 4. Écritures groupées
+        List<Integer> deletes = new ArrayList<>();
+        List<Integer> updates = new ArrayList<>();
+        List<Integer> creates = new ArrayList<>();
+        forPending(operations, results, (i, op) -> {
+            switch (op.getOp()) {
+                case DELETE -> deletes.add(i);
+                case UPDATE -> updates.add(i);
+                case CREATE -> creates.add(i);
+            }
+        });
+
+        if (!deletes.isEmpty()) {
+            contactRepository.deleteByUserIdAndIdIn(userId, deletes.stream().map(i -> operations.get(i).getId()).toList());
+            for (int i : deletes) {
+                results[i] = new OperationResult(i, HttpStatus.NO_CONTENT.value(), operations.get(i).getId(), null);
+            }
+        }
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_CONTACT, updates, updates.size(), (ps, i) -> {
+                ContactOperation op = operations.get(i);
+                setContactColumns(ps, op.getContact());
+                ps.setLong(8, op.getId());
+                ps.setLong(9, userId);
+            });
+            for (int i : updates) {
+                results[i] = new OperationResult(i, HttpStatus.OK.value(), operations.get(i).getId(), null);
+            }
+        }
+        if (!creates.isEmpty()) {
+            List<Long> ids = insert(creates.stream().map(i -> operations.get(i).getContact()).toList(), userId);
+            for (int k = 0; k < creates.size(); k++) {
+                int i = creates.get(k);
+                results[i] = new OperationResult(i, HttpStatus.CREATED.value(), ids.get(k), null);
+            }
+        }
+
+        // 5. Une seule invalidation pour tout le lot, après commit
+        if (!deletes.isEmpty() || !updates.isEmpty() || !creates.isEmpty()) {
+            searchIndex.invalidate(userId);
+        }
+
+        int failed = operations.size() - deletes.size() - updates.size() - creates.size();
+        return new ContactBatchResult(creates.size(), updates.size(), deletes.size(), failed, Arrays.asList(results));
+    }
+
+    private String validate(ContactOperation op) {
+        if (op == null) {
+            return "op: opération vide";
+        }
+        Set<ConstraintViolation<ContactOperation>> violations = validator.validate(op);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .sorted(Comparator.comparing(v -> v.getPropertyPath().toString()))
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .collect(Collectors.joining(", "));
+        }
+        if (op.getOp() != BatchOperationType.CREATE && op.getId() == null) {
+            return "id: obligatoire pour " + op.getOp();
+        }
+        if (op.getOp() != BatchOperationType.DELETE && op.getContact() == null) {
+            return "contact: obligatoire pour " + op.getOp();
+        }
+        return null;
+    }
+
+    // Batch d'INSERT ; les ids générés sont relus dans l'ordre des lignes
+    private List<Long> insert(List<ContactRequest> contacts, Long userId) {
+        GeneratedKeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_CONTACT, new String[] { "id" }),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        setContactColumns(ps, contacts.get(i));
+                        ps.setLong(8, userId);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return contacts.size();
+                    }
+                },
+                keys);
+        return keys.getKeyList().stream()
+                .map(row -> ((Number) row.values().iterator().next()).longValue())
+                .toList();
+    }
+
+    // Colonnes 1 à 7, communes à l'INSERT et à l'UPDATE
+    private static void setContactColumns(PreparedStatement ps, ContactRequest contact) throws SQLException {
+        ps.setString(1, contact.getFirstName());
+        ps.setString(2, contact.getLastName());
+        ps.setString(3, contact.getPhoneNumber());
+        ps.setString(4, PhoneNumbers.digits(contact.getPhoneNumber()));
+        ps.setString(5, PhoneNumbers.reversedDigits(contact.getPhoneNumber()));
+        ps.setString(6, contact.getEmail());
+        if (contact.getGroupId() == null) {
+            ps.setNull(7, Types.BIGINT);
+        } else {
+            ps.setLong(7, contact.getGroupId());
+        }
+    }
+
+    private static OperationResult failure(int index, HttpStatus status, ContactOperation op, String error) {
+        return new OperationResult(index, status.value(), op == null ? null : op.getId(), error);
+    }
+
+    // Parcourt les opérations qui n'ont pas encore de résultat (ni refusées, ni exécutées)
+    private static void forPending(List<ContactOperation> operations, OperationResult[] results, PendingOperation action) {
+        for (int i = 0; i < operations.size(); i++) {
+            if (results[i] == null) {
+                action.accept(i, operations.get(i));
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface PendingOperation {
+        void accept(int index, ContactOperation op);
+    }
+}
@@ -0,0 +1,149 @@
+package bf.kvill.spring_phone_book.service;
+
+import bf.kvill.spring_phone_book.dto.ContactView;
+import bf.kvill.spring_phone_book.dto.GroupView;
+import bf.kvill.spring_phone_book.enums.ExportFormat;
+import bf.kvill.spring_phone_book.exception.ServiceUnavailableException;
+import bf.kvill.spring_phone_book.exporter.ContactRecordWriter;
+import bf.kvill.spring_phone_book.exporter.CsvContactWriter;
+import bf.kvill.spring_phone_book.exporter.NdjsonContactWriter;
+import bf.kvill.spring_phone_book.exporter.VCardContactWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Export du carnet d'adresses en flux.
+ *
+ * Les lignes sont lues avec un curseur en avant seulement et une taille de fetch bornée
+ * (curseur serveur MySQL avec useCursorFetch=true), puis écrites une à une dans la réponse :
+ * la mémoire utilisée ne dépend pas de la taille du carnet. L'ordre (nom, prénom, id) suit
+ * l'index idx_contacts_user_name, sans tri côté base.
+ *
+ * Un export garde sa connexion du pool pendant tout le téléchargement, aussi lent que soit
+ * le client : {@code export.max-concurrent} les borne sous la taille du pool Hikari.
+ */
+@Service
+@Slf4j
+public class ContactExportService {
+
+    private static final String SELECT_CONTACTS = "SELECT c.id, c.first_name, c.last_name, c.phone_number, c.email, "
+            + "g.id AS group_id, g.name AS group_name, g.description AS group_description "
+            + "FROM contacts c LEFT JOIN contact_groups g ON g.id = c.group_id "
+            + "WHERE c.user_id = ? "
+            + "ORDER BY c.last_name, c.first_name, c.id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+    private final Semaphore slots;
+
+    public ContactExportService(JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                ObjectMapper objectMapper,
+                                @Value("${export.fetch-size:1000}") int fetchSize,
+                                @Value("${export.max-concurrent:4}") int maxConcurrent) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+        this.slots = new Semaphore(maxConcurrent);
+    }
+
+    /**
+     * Réserve une place d'export, à libérer une fois le flux écrit.
+     * Appelée avant d'envoyer la réponse : un refus peut encore devenir un 503.
+     *
+     * @throws ServiceUnavailableException si {@code export.max-concurrent} exports sont en cours
+     */
+    public Slot reserveSlot() {
+        if (!slots.tryAcquire()) {
+            throw new ServiceUnavailableException("Trop d'exports en cours, réessayez plus tard", null);
+        }
+        AtomicBoolean released = new AtomicBoolean();
+        return () -> {
+            if (released.compareAndSet(false, true)) {
+                slots.release();
+            }
+        };
+    }
+
+    /**
+     * Écrit tous les contacts de l'utilisateur dans le flux, dans le format demandé.
+     * Une seule transaction en lecture : l'export est une photo cohérente du carnet.
+     *
+     * @return le nombre de contacts exportés
+     */
+    public long export(Long userId, ExportFormat format, OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        ContactRecordWriter writer = switch (format) {
+            case NDJSON -> new NdjsonContactWriter(objectMapper.getFactory(), out);
+            case CSV -> new CsvContactWriter(out);
+            case VCARD -> new VCardContactWriter(out);
+        };
+
+        Long count;
+        try {
+            count = readOnlyTransaction.execute(status -> jdbcTemplate.query(
+                    connection -> {
+                        PreparedStatement statement = connection.prepareStatement(SELECT_CONTACTS,
+                                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                        statement.setFetchSize(fetchSize);
+                        statement.setLong(1, userId);
+                        return statement;
+                    },
+                    rs -> {
+                        try {
+                            long written = 0;
+                            writer.begin();
+                            while (rs.next()) {
+                                writer.write(toView(rs));
+                                written++;
+                            }
+                            writer.finish();
+                            return written;
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }));
+        } catch (UncheckedIOException e) {
+            // Client déconnecté en cours d'export, par exemple
+            throw e.getCause();
+        }
+
+        log.info("Exported {} contacts for user {} as {} in {} ms",
+                count, userId, format, (System.nanoTime() - start) / 1_000_000);
+        return count == null ? 0 : count;
+    }
+
+    // Place d'export réservée ; close() la libère une seule fois
+    public interface Slot extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+
+    private static ContactView toView(ResultSet rs) throws SQLException {
+        long groupId = rs.getLong("group_id");
+        GroupView group = rs.wasNull()
+                ? null
+                : new GroupView(groupId, rs.getString("group_name"), rs.getString("group_description"));
+        return new ContactView(rs.getLong("id"), rs.getString("first_name"), rs.getString("last_name"),
+                rs.getString("phone_number"), rs.getString("email"), group);
+    }
+}
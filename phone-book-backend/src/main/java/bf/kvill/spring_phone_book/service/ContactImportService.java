@@ -0,0 +1,302 @@
+package bf.kvill.spring_phone_book.service;
+
+import bf.kvill.spring_phone_book.dto.ContactRequest;
+import bf.kvill.spring_phone_book.dto.GroupRequest;
+import bf.kvill.spring_phone_book.dto.ImportReport;
+import bf.kvill.spring_phone_book.importer.ContactRecordReader;
+import bf.kvill.spring_phone_book.importer.ImportRow;
+import bf.kvill.spring_phone_book.model.Contact;
+import bf.kvill.spring_phone_book.model.Group;
+import bf.kvill.spring_phone_book.model.PhoneNumbers;
+import bf.kvill.spring_phone_book.model.User;
+import bf.kvill.spring_phone_book.repository.GroupRepository;
+import bf.kvill.spring_phone_book.repository.UserRepository;
+import bf.kvill.spring_phone_book.search.ContactSearchIndex;
+import bf.kvill.spring_phone_book.security.UserRef;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Import en masse de contacts lus en flux (CSV, vCard).
+ *
+ * Les lignes sont validées une à une puis insérées par lots : une requête pour les numéros
+ * déjà présents, une pour les groupes inconnus du lot, puis un batch JDBC par lot dans sa
+ * propre transaction. Hibernate n'est pas utilisé pour les contacts : avec un id IDENTITY,
+ * il exécute un INSERT par entité et ne peut pas les regrouper.
+ */
+@Service
+@Slf4j
+public class ContactImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private static final String INSERT_CONTACT = "INSERT INTO contacts "
+            + "(first_name, last_name, phone_number, phone_digits, phone_digits_reversed, email, group_id, user_id) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final GroupRepository groupRepository;
+    private final UserRepository userRepository;
+    private final ContactSearchIndex searchIndex;
+    private final CacheManager cacheManager;
+    private final int batchSize;
+
+    public ContactImportService(JdbcTemplate jdbcTemplate,
+                                NamedParameterJdbcTemplate namedJdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                Validator validator,
+                                GroupRepository groupRepository,
+                                UserRepository userRepository,
+                                ContactSearchIndex searchIndex,
+                                CacheManager cacheManager,
+                                @Value("${import.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.groupRepository = groupRepository;
+        this.userRepository = userRepository;
+        this.searchIndex = searchIndex;
+        this.cacheManager = cacheManager;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Importe toutes les fiches du lecteur pour l'utilisateur. Les lots déjà insérés restent
+     * acquis si la lecture échoue en cours de route ; l'erreur figure alors dans le rapport.
+     */
+    public ImportReport importContacts(ContactRecordReader reader, UserRef user) {
+        long start = System.nanoTime();
+        ImportState state = new ImportState(user.getId());
+        List<ImportRow> batch = new ArrayList<>(batchSize);
+        try {
+            try {
+                ImportRow row;
+                while ((row = reader.next()) != null) {
+                    state.lastLine = row.line();
+                    if (row.error() != null) {
+                        state.reject(row.line(), row.error());
+                    } else if (accept(row, state)) {
+                        batch.add(row);
+                    }
+                    if (batch.size() >= batchSize) {
+                        flush(batch, state);
+                        batch.clear();
+                    }
+                }
+            } catch (IOException e) {
+                log.warn("Import for user {} interrupted after line {}", user.getId(), state.lastLine, e);
+                state.reject(state.lastLine + 1, "Lecture du fichier interrompue : " + e.getMessage());
+            }
+            if (!batch.isEmpty()) {
+                flush(batch, state);
+            }
+        } finally {
+            if (state.imported > 0) {
+                evictCaches(user.getId());
+            }
+        }
+
+        log.info("Import for user {}: {} imported, {} rejected in {} ms",
+                user.getId(), state.imported, state.failed, (System.nanoTime() - start) / 1_000_000);
+        return new ImportReport(state.imported, state.failed, state.errors, state.errorsTruncated);
+    }
+
+    // Contraintes de ContactRequest (et de GroupRequest pour le nom du groupe), doublons du fichier
+    private boolean accept(ImportRow row, ImportState state) {
+        Set<ConstraintViolation<ContactRequest>> violations = validator.validate(row.request());
+        if (!violations.isEmpty()) {
+            state.reject(row.line(), violations.stream()
+                    .sorted(Comparator.comparing(v -> v.getPropertyPath().toString()))
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .collect(Collectors.joining(", ")));
+            return false;
+        }
+        if (row.groupName() != null) {
+            Set<ConstraintViolation<GroupRequest>> groupViolations =
+                    validator.validateValue(GroupRequest.class, "name", row.groupName());
+            if (!groupViolations.isEmpty()) {
+                state.reject(row.line(), "group: " + groupViolations.iterator().next().getMessage());
+                return false;
+            }
+        }
+        if (!state.phones.add(row.request().getPhoneNumber())) {
+            state.reject(row.line(), "phoneNumber: numéro déjà présent plus haut dans le fichier");
+            return false;
+        }
+        return true;
+    }
+
+    private void flush(List<ImportRow> batch, ImportState state) {
+        // Le numéro est unique sur toute la table, pas seulement dans le carnet de l'utilisateur
+        Set<String> existingPhones = new HashSet<>(namedJdbcTemplate.queryForList(
+                "SELECT phone_number FROM contacts WHERE phone_number IN (:phones)",
+                Map.of("phones", batch.stream().map(row -> row.request().getPhoneNumber()).toList()),
+                String.class));
+        resolveGroups(batch, state);
+
+        List<ImportRow> rows = new ArrayList<>(batch.size());
+        List<Object[]> params = new ArrayList<>(batch.size());
+        for (ImportRow row : batch) {
+            ContactRequest request = row.request();
+            if (existingPhones.contains(request.getPhoneNumber())) {
+                state.reject(row.line(), "phoneNumber: numéro déjà enregistré");
+                continue;
+            }
+            Long groupId = null;
+            if (row.groupName() != null) {
+                groupId = state.groups.get(row.groupName());
+                if (groupId == null) {
+                    state.reject(row.line(), "group: le nom de groupe '" + row.groupName() + "' est déjà utilisé");
+                    continue;
+                }
+            }
+            rows.add(row);
+            params.add(new Object[] {
+                    request.getFirstName(),
+                    request.getLastName(),
+                    request.getPhoneNumber(),
+                    PhoneNumbers.digits(request.getPhoneNumber()),
+                    PhoneNumbers.reversedDigits(request.getPhoneNumber()),
+                    request.getEmail(),
+                    groupId,
+                    state.userId
+            });
+        }
+        if (params.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_CONTACT, params));
+            state.imported += params.size();
+        } catch (DataIntegrityViolationException e) {
+            // Numéro inséré entre-temps par une autre requête : le lot est rejoué ligne par ligne
+            log.debug("Import batch rejected for user {}, retrying row by row", state.userId, e);
+            for (int i = 0; i < params.size(); i++) {
+                try {
+                    jdbcTemplate.update(INSERT_CONTACT, params.get(i));
+                    state.imported++;
+                } catch (DataIntegrityViolationException rowError) {
+                    if (isDuplicatePhone(rowError)) {
+                        state.reject(rows.get(i).line(), "phoneNumber: numéro déjà enregistré");
+                    } else {
+                        log.debug("Import row {} rejected by the database for user {}", rows.get(i).line(), state.userId, rowError);
+                        state.reject(rows.get(i).line(), "ligne refusée par la base de données");
+                    }
+                }
+            }
+        }
+    }
+
+    // Seule la contrainte d'unicité du numéro est un doublon ; colonne trop longue, clé étrangère... ne le sont pas
+    private static boolean isDuplicatePhone(DataIntegrityViolationException e) {
+        String message = e.getMostSpecificCause().getMessage();
+        return message != null && message.toLowerCase(Locale.ROOT).contains(Contact.PHONE_NUMBER_UNIQUE);
+    }
+
+    // Groupes du lot absents du cache de l'import : une requête, puis création de ceux qui n'existent pas
+    private void resolveGroups(List<ImportRow> batch, ImportState state) {
+        Set<String> unknown = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        for (ImportRow row : batch) {
+            if (row.groupName() != null && !state.groups.containsKey(row.groupName())
+                    && !state.foreignGroups.contains(row.groupName())) {
+                unknown.add(row.groupName());
+            }
+        }
+        if (unknown.isEmpty()) {
+            return;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            namedJdbcTemplate.query("SELECT id, name, user_id FROM contact_groups WHERE name IN (:names)",
+                    Map.of("names", unknown),
+                    rs -> {
+                        String name = rs.getString("name");
+                        if (rs.getLong("user_id") == state.userId) {
+                            state.groups.put(name, rs.getLong("id"));
+                        } else {
+                            // Nom unique sur toute la table : pris par un autre utilisateur
+                            state.foreignGroups.add(name);
+                        }
+                        unknown.remove(name);
+                    });
+            if (unknown.isEmpty()) {
+                return;
+            }
+            User owner = userRepository.getReferenceById(state.userId);
+            for (String name : unknown) {
+                Group group = new Group();
+                group.setName(name);
+                group.setUser(owner);
+                state.groups.put(name, groupRepository.save(group).getId());
+            }
+        });
+    }
+
+    private void evictCaches(Long userId) {
+        Cache contacts = cacheManager.getCache("contacts");
+        if (contacts != null) {
+            contacts.evict("user:" + userId);
+        }
+        // Nombre de contacts par groupe (et groupes créés par l'import)
+        Cache groups = cacheManager.getCache("groups");
+        if (groups != null) {
+            groups.evict("user:" + userId);
+        }
+        // Index de recherche reconstruit à la prochaine recherche plutôt que mis à jour contact par contact
+        searchIndex.invalidate(userId);
+    }
+
+    private static final class ImportState {
+
+        private final long userId;
+        private final Set<String> phones = new HashSet<>();
+        // Noms de groupe comparés sans tenir compte de la casse, comme la collation MySQL
+        private final Map<String, Long> groups = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        private final Set<String> foreignGroups = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        private final List<ImportReport.RowError> errors = new ArrayList<>();
+        private int imported;
+        private int failed;
+        private boolean errorsTruncated;
+        private long lastLine;
+
+        ImportState(long userId) {
+            this.userId = userId;
+        }
+
+        void reject(long line, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ImportReport.RowError(line, message));
+            } else {
+                errorsTruncated = true;
+            }
+        }
+    }
+}
@@ -1,16 +1,26 @@
 package bf.kvill.spring_phone_book.service;
 
+import bf.kvill.spring_phone_book.dto.ContactCursor;
+import bf.kvill.spring_phone_book.dto.ContactPage;
 import bf.kvill.spring_phone_book.dto.ContactRequest;
+import bf.kvill.spring_phone_book.dto.ContactView;
+import bf.kvill.spring_phone_book.enums.PhoneMatch;
 import bf.kvill.spring_phone_book.exception.ContactNotFoundException;
 import bf.kvill.spring_phone_book.model.Contact;
 import bf.kvill.spring_phone_book.model.Group;
-import bf.kvill.spring_phone_book.model.User;
+import bf.kvill.spring_phone_book.model.PhoneNumbers;
 import bf.kvill.spring_phone_book.repository.ContactRepository;
+import bf.kvill.spring_phone_book.repository.ContactSpecifications;
 import bf.kvill.spring_phone_book.repository.GroupRepository;
+import bf.kvill.spring_phone_book.repository.UserRepository;
+import bf.kvill.spring_phone_book.search.ContactSearchIndex;
+import bf.kvill.spring_phone_book.security.UserRef;
 import lombok.RequiredArgsConstructor;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,32 +32,46 @@ public class ContactService {
 
     private final ContactRepository contactRepository;
     private final GroupRepository groupRepository;
+    private final UserRepository userRepository;
+    private final ContactSearchIndex searchIndex;
 
     @Transactional
-    public Contact createContact(Contact contact, User user) {
-        contact.setUser(user);
-        return contactRepository.save(contact);
+    @Caching(evict = {
+            @CacheEvict(value = "contacts", key = "'user:' + #user.id"),
+            @CacheEvict(value = "groups", key = "'user:' + #user.id")
+    })
+    public Contact createContact(Contact contact, UserRef user) {
+        contact.setUser(userRepository.getReferenceById(user.getId()));
+        Contact saved = contactRepository.save(contact);
+        searchIndex.contactSaved(saved);
+        return saved;
     }
 
-    // @Cacheable(value = "contacts", key = "'user:' + #user.id") // Désactivé
-    // temporairement - problème sérialisation Redis
-    public List<Contact> getAllContactsForUser(User user) {
-        return contactRepository.findAll().stream()
-                .filter(c -> c.getUser().getId().equals(user.getId()))
-                .toList();
+    // Mis en cache sous forme de ContactView (sérialisation binaire compacte, cf. CompactCacheSerializer)
+    @Cacheable(value = "contacts", key = "'user:' + #user.id")
+    public List<ContactView> getAllContactsForUser(UserRef user) {
+        return contactRepository.findViews(ContactSpecifications.ownedBy(user.getId()), ScrollPosition.keyset(), 0);
     }
 
-    public Contact getContactById(Long id, User user) {
-        Contact contact = contactRepository.findById(id)
+    public Contact getContactById(Long id, UserRef user) {
+        return contactRepository.findByIdAndUserId(id, user.getId())
+                .orElseThrow(() -> new ContactNotFoundException("Contact not found"));
+    }
+
+    // Lecture seule : projection, sans charger l'entité
+    public ContactView getContactView(Long id, UserRef user) {
+        return contactRepository.findViews(ContactSpecifications.ownedBy(user.getId()).and(ContactSpecifications.hasId(id)), ScrollPosition.keyset(), 1)
+                .stream()
+                .findFirst()
                 .orElseThrow(() -> new ContactNotFoundException("Contact not found"));
-        if (!contact.getUser().getId().equals(user.getId())) {
-            throw new ContactNotFoundException("Contact not found");
-        }
-        return contact;
     }
 
     @Transactional
-    public Contact updateContact(Long id, Contact updatedContact, User user) {
+    @Caching(evict = {
+            @CacheEvict(value = "contacts", key = "'user:' + #user.id"),
+            @CacheEvict(value = "groups", key = "'user:' + #user.id")
+    })
+    public Contact updateContact(Long id, Contact updatedContact, UserRef user) {
         Contact contact = getContactById(id, user);
         contact.setFirstName(updatedContact.getFirstName());
         contact.setLastName(updatedContact.getLastName());
@@ -55,72 +79,121 @@ public class ContactService {
         if (updatedContact.getGroup() != null) {
             contact.setGroup(updatedContact.getGroup());
         }
-        return contactRepository.save(contact);
+        Contact saved = contactRepository.save(contact);
+        searchIndex.contactSaved(saved);
+        return saved;
     }
 
     @Transactional
-    @CacheEvict(value = "contacts", key = "'user:' + #user.id")
-    public void deleteContact(Long id, User user) {
+    @Caching(evict = {
+            @CacheEvict(value = "contacts", key = "'user:' + #user.id"),
+            @CacheEvict(value = "groups", key = "'user:' + #user.id")
+    })
+    public void deleteContact(Long id, UserRef user) {
         Contact contact = getContactById(id, user);
         contactRepository.delete(contact);
+        searchIndex.contactDeleted(user.getId(), id);
+    }
+
+    public List<ContactView> searchByPhoneNumber(String phoneNumber, PhoneMatch match, UserRef user) {
+        if (PhoneNumbers.digits(phoneNumber).isEmpty()) {
+            return List.of();
+        }
+        return findViews(ContactSpecifications.ownedBy(user.getId()).and(ContactSpecifications.phoneDigitsMatch(phoneNumber, match)));
+    }
+
+    public List<ContactView> searchByFirstName(String firstName, UserRef user) {
+        return findViews(ContactSpecifications.ownedBy(user.getId()).and(ContactSpecifications.firstNameContains(firstName)));
+    }
+
+    public List<ContactView> searchByLastName(String lastName, UserRef user) {
+        return findViews(ContactSpecifications.ownedBy(user.getId()).and(ContactSpecifications.lastNameContains(lastName)));
+    }
+
+    public List<ContactView> getContactsByGroup(Long groupId, UserRef user) {
+        return findViews(ContactSpecifications.ownedBy(user.getId()).and(ContactSpecifications.inGroup(groupId)));
+    }
+
+    public ContactPage getContactsPage(UserRef user, String after, int limit) {
+        return scroll(ContactSpecifications.ownedBy(user.getId()), after, limit);
+    }
+
+    public ContactPage searchContactsPage(String query, UserRef user, String after, int limit) {
+        return scroll(ContactSpecifications.ownedBy(user.getId()).and(ContactSpecifications.matches(query)), after, limit);
+    }
+
+    public ContactPage searchByPhoneNumberPage(String phoneNumber, PhoneMatch match, UserRef user, String after, int limit) {
+        if (PhoneNumbers.digits(phoneNumber).isEmpty()) {
+            return new ContactPage(List.of(), null, false);
+        }
+        return scroll(ContactSpecifications.ownedBy(user.getId()).and(ContactSpecifications.phoneDigitsMatch(phoneNumber, match)), after, limit);
     }
 
-    public List<Contact> searchByPhoneNumber(String phoneNumber, User user) {
-        return contactRepository.findByPhoneNumberContaining(phoneNumber).stream()
-                .filter(c -> c.getUser().getId().equals(user.getId()))
-                .toList();
+    public ContactPage searchByFirstNamePage(String firstName, UserRef user, String after, int limit) {
+        return scroll(ContactSpecifications.ownedBy(user.getId()).and(ContactSpecifications.firstNameContains(firstName)), after, limit);
     }
 
-    public List<Contact> searchByFirstName(String firstName, User user) {
-        return contactRepository.findByFirstNameContainingIgnoreCase(firstName).stream()
-                .filter(c -> c.getUser().getId().equals(user.getId()))
-                .toList();
+    public ContactPage searchByLastNamePage(String lastName, UserRef user, String after, int limit) {
+        return scroll(ContactSpecifications.ownedBy(user.getId()).and(ContactSpecifications.lastNameContains(lastName)), after, limit);
     }
 
-    public List<Contact> searchByLastName(String lastName, User user) {
-        return contactRepository.findByLastNameContainingIgnoreCase(lastName).stream()
-                .filter(c -> c.getUser().getId().equals(user.getId()))
-                .toList();
+    // Pagination par curseur : WHERE (last_name, first_name, id) > curseur, jamais d'OFFSET
+    private ContactPage scroll(Specification<Contact> filter, String after, int limit) {
+        // Une ligne de plus que demandé : indique s'il reste une page
+        List<ContactView> rows = contactRepository.findViews(filter, ContactCursor.decode(after), limit + 1);
+        boolean hasMore = rows.size() > limit;
+        List<ContactView> items = hasMore ? rows.subList(0, limit) : rows;
+        String nextCursor = hasMore ? ContactCursor.encode(items.get(items.size() - 1)) : null;
+        return new ContactPage(items, nextCursor, hasMore);
     }
 
-    public List<Contact> getContactsByGroup(Long groupId, User user) {
-        return contactRepository.findByGroupId(groupId).stream()
-                .filter(c -> c.getUser().getId().equals(user.getId()))
-                .toList();
+    private List<ContactView> findViews(Specification<Contact> filter) {
+        return contactRepository.findViews(filter, ScrollPosition.keyset(), 0);
     }
 
-    @Cacheable(value = "searches", key = "'user:' + #user.id + ':query:' + #query")
-    public List<Contact> searchContacts(String query, User user) {
-        return contactRepository.findAll().stream()
-                .filter(c -> c.getUser().getId().equals(user.getId()))
-                .filter(c -> c.getFirstName().toLowerCase().contains(query.toLowerCase()) ||
-                        c.getLastName().toLowerCase().contains(query.toLowerCase()) ||
-                        c.getPhoneNumber().contains(query))
-                .toList();
+    // La génération courante de l'utilisateur fait partie de la clé : toute écriture l'incrémente
+    @Cacheable(value = "searches",
+            key = "'user:' + #user.id + ':gen:' + @searchCacheGenerations.current(#user.id) + ':query:' + #query")
+    public List<ContactView> searchContacts(String query, UserRef user) {
+        // Index en mémoire si prêt, sinon requête en base pendant sa construction
+        Specification<Contact> owned = ContactSpecifications.ownedBy(user.getId());
+        return searchIndex.search(user.getId(), query)
+                .map(ids -> ids.isEmpty()
+                        ? List.<ContactView>of()
+                        : findViews(owned.and(ContactSpecifications.idIn(ids))))
+                .orElseGet(() -> findViews(owned.and(ContactSpecifications.matches(query))));
     }
 
     @Transactional
-    @CacheEvict(value = "contacts", key = "'user:' + #user.id")
-    public Contact createContactFromRequest(ContactRequest request, User user) {
+    @Caching(evict = {
+            @CacheEvict(value = "contacts", key = "'user:' + #user.id"),
+            @CacheEvict(value = "groups", key = "'user:' + #user.id")
+    })
+    public Contact createContactFromRequest(ContactRequest request, UserRef user) {
         Contact contact = new Contact();
         contact.setFirstName(request.getFirstName());
         contact.setLastName(request.getLastName());
         contact.setPhoneNumber(request.getPhoneNumber());
         contact.setEmail(request.getEmail());
-        contact.setUser(user);
+        contact.setUser(userRepository.getReferenceById(user.getId()));
 
         if (request.getGroupId() != null) {
-            Group group = groupRepository.findById(request.getGroupId())
+            Group group = groupRepository.findByIdAndUserId(request.getGroupId(), user.getId())
                     .orElseThrow(() -> new RuntimeException("Groupe non trouvé"));
             contact.setGroup(group);
         }
 
-        return contactRepository.save(contact);
+        Contact saved = contactRepository.save(contact);
+        searchIndex.contactSaved(saved);
+        return saved;
     }
 
     @Transactional
-    @CacheEvict(value = "contacts", key = "'user:' + #user.id")
-    public Contact updateContactFromRequest(Long id, ContactRequest request, User user) {
+    @Caching(evict = {
+            @CacheEvict(value = "contacts", key = "'user:' + #user.id"),
+            @CacheEvict(value = "groups", key = "'user:' + #user.id")
+    })
+    public Contact updateContactFromRequest(Long id, ContactRequest request, UserRef user) {
         Contact contact = getContactById(id, user);
         contact.setFirstName(request.getFirstName());
         contact.setLastName(request.getLastName());
@@ -128,13 +201,15 @@ public class ContactService {
         contact.setEmail(request.getEmail());
 
         if (request.getGroupId() != null) {
-            Group group = groupRepository.findById(request.getGroupId())
+            Group group = groupRepository.findByIdAndUserId(request.getGroupId(), user.getId())
                     .orElseThrow(() -> new RuntimeException("Groupe non trouvé"));
             contact.setGroup(group);
         } else {
             contact.setGroup(null);
         }
 
-        return contactRepository.save(contact);
+        Contact saved = contactRepository.save(contact);
+        searchIndex.contactSaved(saved);
+        return saved;
     }
 }
@@ -1,9 +1,9 @@
 package bf.kvill.spring_phone_book.service;
 
 import bf.kvill.spring_phone_book.repository.UserRepository;
+import bf.kvill.spring_phone_book.security.AuthenticatedUser;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -20,12 +20,9 @@ public class CustomUserDetailsService implements UserDetailsService {
         bf.kvill.spring_phone_book.model.User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
 
-        return User.builder()
-                .username(user.getUsername())
-                .password(user.getPassword())
-                .authorities(user.getRoles().stream()
+        return new AuthenticatedUser(user.getId(), user.getUsername(), user.getPassword(), user.getTokenVersion(),
+                user.getRoles().stream()
                         .map(role -> new SimpleGrantedAuthority("ROLE_" + role.name()))
-                        .toList())
-                .build();
+                        .toList());
     }
 }
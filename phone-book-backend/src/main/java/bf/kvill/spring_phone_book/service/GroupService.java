@@ -1,9 +1,16 @@
 package bf.kvill.spring_phone_book.service;
 
+import bf.kvill.spring_phone_book.cache.SearchCacheGenerations;
+import bf.kvill.spring_phone_book.dto.GroupSummary;
 import bf.kvill.spring_phone_book.model.Group;
-import bf.kvill.spring_phone_book.model.User;
+import bf.kvill.spring_phone_book.repository.ContactRepository;
 import bf.kvill.spring_phone_book.repository.GroupRepository;
+import bf.kvill.spring_phone_book.repository.UserRepository;
+import bf.kvill.spring_phone_book.security.UserRef;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -14,33 +21,58 @@ import java.util.List;
 public class GroupService {
 
     private final GroupRepository groupRepository;
+    private final UserRepository userRepository;
+    private final ContactRepository contactRepository;
+    private final SearchCacheGenerations searchCacheGenerations;
 
     @Transactional
-    public Group createGroup(Group group, User user) {
-        group.setUser(user);
+    @CacheEvict(value = "groups", key = "'user:' + #user.id")
+    public Group createGroup(Group group, UserRef user) {
+        group.setUser(userRepository.getReferenceById(user.getId()));
         return groupRepository.save(group);
     }
 
-    public List<Group> getAllGroupsForUser(User user) {
-        return groupRepository.findByUser(user);
+    public List<Group> getAllGroupsForUser(UserRef user) {
+        return groupRepository.findByUserId(user.getId());
     }
 
-    public Group getGroupById(Long id, User user) {
-        return groupRepository.findByIdAndUser(id, user)
+    // Groupes et nombre de contacts en une requête (GROUP BY) ; invalidé à chaque écriture
+    // sur les groupes ou les contacts de l'utilisateur
+    @Cacheable(value = "groups", key = "'user:' + #user.id")
+    public List<GroupSummary> getGroupSummaries(UserRef user) {
+        return groupRepository.summarizeByUserId(user.getId());
+    }
+
+    public Group getGroupById(Long id, UserRef user) {
+        return groupRepository.findByIdAndUserId(id, user.getId())
                 .orElseThrow(() -> new RuntimeException("Group not found"));
     }
 
     @Transactional
-    public Group updateGroup(Long id, Group updatedGroup, User user) {
+    @Caching(evict = {
+            @CacheEvict(value = "contacts", key = "'user:' + #user.id"),
+            @CacheEvict(value = "groups", key = "'user:' + #user.id")
+    })
+    public Group updateGroup(Long id, Group updatedGroup, UserRef user) {
         Group group = getGroupById(id, user);
         group.setName(updatedGroup.getName());
         group.setDescription(updatedGroup.getDescription());
+        // Le nom et la description du groupe figurent dans les listes de contacts en cache
+        searchCacheGenerations.bumpAfterCommit(user.getId());
         return groupRepository.save(group);
     }
 
     @Transactional
-    public void deleteGroup(Long id, User user) {
+    @Caching(evict = {
+            @CacheEvict(value = "contacts", key = "'user:' + #user.id"),
+            @CacheEvict(value = "groups", key = "'user:' + #user.id")
+    })
+    public void deleteGroup(Long id, UserRef user) {
         Group group = getGroupById(id, user);
+        // Une requête pour tous les contacts du groupe, sans charger la collection
+        if (contactRepository.detachFromGroup(group.getId()) > 0) {
+            searchCacheGenerations.bumpAfterCommit(user.getId());
+        }
         groupRepository.delete(group);
     }
 }
@@ -1,6 +1,10 @@
 package bf.kvill.spring_phone_book.service;
 
+import bf.kvill.spring_phone_book.audit.AuditTrail;
+import bf.kvill.spring_phone_book.logging.MeteredAsyncAppender;
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.PostConstruct;
@@ -88,10 +92,18 @@ public class MetricsService {
         contactsCreated.increment();
     }
 
+    public void incrementContactsCreated(long count) {
+        contactsCreated.increment(count);
+    }
+
     public void incrementContactsDeleted() {
         contactsDeleted.increment();
     }
 
+    public void incrementContactsDeleted(long count) {
+        contactsDeleted.increment(count);
+    }
+
     public void incrementSearchQueries() {
         searchQueries.increment();
     }
@@ -112,4 +124,37 @@ public class MetricsService {
     public void stopContactOperationTimer(Timer.Sample sample) {
         sample.stop(contactOperationTimer);
     }
-}
\ No newline at end of file
+
+    // Journalisation asynchrone : profondeur de file et événements écartés, par appender
+    public void registerAsyncAppender(MeteredAsyncAppender appender) {
+        Gauge.builder("logging.async.queue.depth", appender, MeteredAsyncAppender::getQueueDepth)
+                .description("Log events waiting to be written")
+                .tag("appender", appender.getName())
+                .register(meterRegistry);
+
+        Gauge.builder("logging.async.queue.capacity", appender, MeteredAsyncAppender::getQueueCapacity)
+                .description("Capacity of the async log queue")
+                .tag("appender", appender.getName())
+                .register(meterRegistry);
+
+        FunctionCounter.builder("logging.async.dropped", appender, MeteredAsyncAppender::getDroppedCount)
+                .description("Log events dropped by the overflow policy")
+                .tag("appender", appender.getName())
+                .register(meterRegistry);
+    }
+
+    // Piste d'audit : événements en attente, écrits et écartés (file pleine)
+    public void registerAuditTrail(AuditTrail auditTrail) {
+        Gauge.builder("audit.queue.depth", auditTrail, AuditTrail::getQueueDepth)
+                .description("Audit events waiting to be written")
+                .register(meterRegistry);
+
+        FunctionCounter.builder("audit.events.written", auditTrail, AuditTrail::getWrittenCount)
+                .description("Audit events written to the audit file")
+                .register(meterRegistry);
+
+        FunctionCounter.builder("audit.events.dropped", auditTrail, AuditTrail::getDroppedCount)
+                .description("Audit events dropped because the queue was full")
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,83 @@
+package bf.kvill.spring_phone_book.service;
+
+import bf.kvill.spring_phone_book.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Version des tokens JWT par utilisateur, servie depuis le cache "users".
+ *
+ * Chaque token porte la version en vigueur à son émission (claim "ver") ; incrémenter la
+ * version révoque tous les tokens déjà émis. En régime établi la vérification est un hit du
+ * cache local, sans requête SQL.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TokenVersionService {
+
+    private static final String CACHE_NAME = "users";
+
+    // Version d'un utilisateur inexistant : aucun token ne peut correspondre
+    private static final long UNKNOWN_USER = -1L;
+
+    private final UserRepository userRepository;
+    private final CacheManager cacheManager;
+
+    public long currentVersion(Long userId) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache == null) {
+            return loadVersion(userId);
+        }
+        Object version = cache.get(key(userId), () -> loadVersion(userId));
+        // Relu depuis Redis (JSON), un petit Long peut revenir en Integer
+        return ((Number) version).longValue();
+    }
+
+    // Un token sans version (émis avant la révocation par version) reste accepté jusqu'à expiration
+    public boolean isCurrent(Long userId, Long tokenVersion) {
+        if (tokenVersion == null) {
+            return true;
+        }
+        return userId != null && currentVersion(userId) == tokenVersion;
+    }
+
+    @Transactional
+    public void revokeTokens(Long userId) {
+        userRepository.incrementTokenVersion(userId);
+        log.info("JWT tokens revoked for user {}", userId);
+
+        // Après commit : une lecture concurrente ne peut pas remettre l'ancienne version en cache
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(userId);
+                }
+            });
+        } else {
+            evict(userId);
+        }
+    }
+
+    private long loadVersion(Long userId) {
+        return userRepository.findTokenVersionById(userId).orElse(UNKNOWN_USER);
+    }
+
+    private void evict(Long userId) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache != null) {
+            cache.evict(key(userId));
+        }
+    }
+
+    private static String key(Long userId) {
+        return "tokenVersion:" + userId;
+    }
+}
@@ -0,0 +1,15 @@
+-- Colonnes de recherche normalisée des numéros (MySQL 8)
+-- À appliquer avant le déploiement lorsque spring.jpa.hibernate.ddl-auto=validate.
+-- Les contacts existants sont complétés ici, une seule fois, comme PhoneNumbers.digits().
+
+ALTER TABLE contacts
+    ADD COLUMN phone_digits VARCHAR(32) NULL,
+    ADD COLUMN phone_digits_reversed VARCHAR(32) NULL;
+
+UPDATE contacts
+SET phone_digits = REGEXP_REPLACE(COALESCE(phone_number, ''), '[^0-9]', ''),
+    phone_digits_reversed = REVERSE(REGEXP_REPLACE(COALESCE(phone_number, ''), '[^0-9]', ''))
+WHERE phone_digits IS NULL;
+
+CREATE INDEX idx_contacts_user_phone_digits ON contacts (user_id, phone_digits);
+CREATE INDEX idx_contacts_user_phone_digits_rev ON contacts (user_id, phone_digits_reversed);
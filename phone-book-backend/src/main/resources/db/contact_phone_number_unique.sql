@@ -0,0 +1,15 @@
+-- Nom fixe de la contrainte d'unicité du numéro (MySQL 8)
+-- À appliquer avant le déploiement lorsque spring.jpa.hibernate.ddl-auto=validate.
+-- L'import reconnaît un numéro en double au nom uk_contacts_phone_number ; l'index créé
+-- auparavant par Hibernate (@Column(unique = true)) porte un nom généré, renommé ici.
+
+SET @old_name = (SELECT index_name FROM information_schema.statistics
+                 WHERE table_schema = DATABASE() AND table_name = 'contacts'
+                   AND column_name = 'phone_number' AND non_unique = 0
+                 LIMIT 1);
+SET @ddl = IF(@old_name IS NULL,
+              'ALTER TABLE contacts ADD CONSTRAINT uk_contacts_phone_number UNIQUE (phone_number)',
+              CONCAT('ALTER TABLE contacts RENAME INDEX `', @old_name, '` TO uk_contacts_phone_number'));
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
@@ -0,0 +1,6 @@
+-- Index de tri et de pagination par curseur des contacts (MySQL 8)
+-- À appliquer avant le déploiement lorsque spring.jpa.hibernate.ddl-auto=validate :
+-- validate ne crée pas les index, et sans lui la pagination par curseur et l'export
+-- (ORDER BY last_name, first_name, id) trient tout le carnet à chaque requête.
+
+CREATE INDEX idx_contacts_user_name ON contacts (user_id, last_name, first_name, id);
@@ -0,0 +1,7 @@
+-- Version des tokens JWT par utilisateur (MySQL 8)
+-- À appliquer avant le déploiement lorsque spring.jpa.hibernate.ddl-auto=validate.
+-- Les tokens émis avant la migration ne portent pas de claim "ver" et restent acceptés
+-- par le chemin de repli (chargement de l'utilisateur en base).
+
+ALTER TABLE users
+    ADD COLUMN token_version BIGINT NOT NULL DEFAULT 0;
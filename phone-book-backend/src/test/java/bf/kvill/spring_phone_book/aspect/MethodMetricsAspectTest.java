@@ -0,0 +1,72 @@
+package bf.kvill.spring_phone_book.aspect;
+
+import bf.kvill.spring_phone_book.repository.UserRepository;
+import bf.kvill.spring_phone_book.service.TokenVersionService;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MethodMetricsAspectTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private MethodMetricsAspect aspect;
+    private TokenVersionService service;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        aspect = new MethodMetricsAspect(meterRegistry, true, true,
+                new Duration[]{Duration.ofMillis(5), Duration.ofMillis(100)});
+
+        UserRepository userRepository = Mockito.mock(UserRepository.class);
+        Mockito.when(userRepository.findTokenVersionById(1L)).thenReturn(Optional.of(3L));
+        Mockito.when(userRepository.findTokenVersionById(2L)).thenThrow(new IllegalStateException("database down"));
+
+        AspectJProxyFactory factory = new AspectJProxyFactory(new TokenVersionService(userRepository, new ConcurrentMapCacheManager()));
+        factory.setProxyTargetClass(true);
+        factory.addAspect(aspect);
+        service = factory.getProxy();
+    }
+
+    @Test
+    void recordsLatencyPerClassMethodAndOutcome() {
+        assertEquals(3L, service.currentVersion(1L));
+        assertEquals(3L, service.currentVersion(1L));
+        assertThrows(RuntimeException.class, () -> service.currentVersion(2L));
+
+        assertEquals(2, timer("success").count());
+        assertEquals(1, timer("error").count());
+        // Buckets SLO publiés avec l'histogramme
+        assertTrue(timer("success").takeSnapshot().histogramCounts().length >= 2);
+    }
+
+    @Test
+    void recordsNothingWhileDisabled() {
+        aspect.setEnabled(false);
+        service.currentVersion(1L);
+        assertTrue(meterRegistry.find(MethodMetricsAspect.METRIC).timers().isEmpty());
+
+        aspect.setEnabled(true);
+        service.currentVersion(1L);
+        assertEquals(1, timer("success").count());
+    }
+
+    private Timer timer(String outcome) {
+        return meterRegistry.get(MethodMetricsAspect.METRIC)
+                .tag("class", "TokenVersionService")
+                .tag("method", "currentVersion")
+                .tag("outcome", outcome)
+                .timer();
+    }
+}
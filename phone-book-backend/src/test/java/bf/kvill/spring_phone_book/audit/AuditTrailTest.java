@@ -0,0 +1,57 @@
+package bf.kvill.spring_phone_book.audit;
+
+import bf.kvill.spring_phone_book.enums.AuditEventType;
+import bf.kvill.spring_phone_book.service.MetricsService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuditTrailTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void writesEveryEventAsAJsonLineAndKeepsTheMostRecent() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        MetricsService metricsService = new MetricsService(meterRegistry);
+        metricsService.init();
+        AuditTrail auditTrail = new AuditTrail(objectMapper, metricsService, directory.toString(),
+                DataSize.ofKilobytes(64), 5, 128, 16, 10);
+        auditTrail.start();
+
+        for (int i = 0; i < 30; i++) {
+            AuditEventType type = i % 3 == 0 ? AuditEventType.LOGIN_FAILED : AuditEventType.LOGIN_SUCCESS;
+            auditTrail.publish(new AuditEvent(Instant.now(), type, "user" + i, "203.0.113.7, 10.0.0.1",
+                    "10.0.0.2", "JUnit", type == AuditEventType.LOGIN_FAILED ? 400 : 200));
+        }
+        auditTrail.stop();
+
+        List<String> lines = Files.readAllLines(directory.resolve(MappedAuditFile.CURRENT));
+        assertEquals(30, lines.size());
+        assertTrue(lines.get(0).contains("\"clientIp\":\"203.0.113.7\""));
+        assertEquals(30.0, meterRegistry.get("audit.events.written").functionCounter().count());
+
+        // Tampon de 10 : les derniers événements, du plus récent au plus ancien
+        List<AuditEvent> recent = auditTrail.recentEvents(100, null);
+        assertEquals(10, recent.size());
+        assertEquals("user29", recent.get(0).username());
+        List<AuditEvent> failures = auditTrail.recentEvents(2, AuditEventType.LOGIN_FAILED);
+        assertEquals(List.of("user27", "user24"), failures.stream().map(AuditEvent::username).toList());
+    }
+}
@@ -0,0 +1,71 @@
+package bf.kvill.spring_phone_book.audit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MappedAuditFileTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void closeTruncatesToWrittenLengthAndReopenAppends() throws IOException {
+        try (MappedAuditFile file = new MappedAuditFile(directory, 1024, 5)) {
+            file.append(line("first"));
+        }
+        try (MappedAuditFile file = new MappedAuditFile(directory, 1024, 5)) {
+            file.append(line("second"));
+        }
+
+        assertEquals(List.of("first", "second"), Files.readAllLines(directory.resolve(MappedAuditFile.CURRENT)));
+    }
+
+    @Test
+    void reopenAfterCrashResumesAtFirstUnwrittenByte() throws IOException {
+        // Pas de close() : le segment garde sa taille projetée, la fin est à zéro
+        MappedAuditFile crashed = new MappedAuditFile(directory, 1024, 5);
+        crashed.append(line("before crash"));
+
+        try (MappedAuditFile file = new MappedAuditFile(directory, 1024, 5)) {
+            assertEquals(line("before crash").length, file.position());
+            file.append(line("after restart"));
+        }
+
+        assertEquals(List.of("before crash", "after restart"), Files.readAllLines(directory.resolve(MappedAuditFile.CURRENT)));
+    }
+
+    @Test
+    void fullSegmentsAreRotatedAndOnlyTheLatestAreKept() throws IOException {
+        // 10 octets par ligne, 3 lignes par segment de 32 octets
+        try (MappedAuditFile file = new MappedAuditFile(directory, 32, 2)) {
+            for (int i = 0; i < 20; i++) {
+                file.append(line(String.format("event-%03d", i)));
+            }
+        }
+
+        List<Path> rotated;
+        try (Stream<Path> files = Files.list(directory)) {
+            rotated = files.filter(path -> path.getFileName().toString().startsWith("audit-")).sorted().toList();
+        }
+        assertEquals(2, rotated.size());
+        for (Path segment : rotated) {
+            assertTrue(Files.size(segment) <= 32);
+        }
+        List<String> current = Files.readAllLines(directory.resolve(MappedAuditFile.CURRENT));
+        assertEquals("event-019", current.get(current.size() - 1));
+    }
+
+    private static byte[] line(String text) {
+        return (text + "\n").getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,82 @@
+package bf.kvill.spring_phone_book.cache;
+
+import bf.kvill.spring_phone_book.dto.ContactView;
+import bf.kvill.spring_phone_book.dto.GroupSummary;
+import bf.kvill.spring_phone_book.dto.GroupView;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactCacheSerializerTest {
+
+    private final GenericJackson2JsonRedisSerializer json = new GenericJackson2JsonRedisSerializer();
+    private final CompactCacheSerializer serializer = new CompactCacheSerializer(json, true, 1024);
+
+    @Test
+    void shouldRoundTripContactsWithNullFields() {
+        GroupView friends = new GroupView(3L, "Amis", null);
+        List<ContactView> contacts = List.of(
+                new ContactView(1L, "Jean", "Dupont", "+22670000001", null, friends),
+                new ContactView(2L, "Aïcha", "Ouédraogo", "+22670000002", "aicha@example.com", null));
+
+        byte[] bytes = serializer.serialize(contacts);
+
+        assertEquals(CompactCacheSerializer.MAGIC, bytes[0]);
+        assertEquals(contacts, serializer.deserialize(bytes));
+    }
+
+    @Test
+    void shouldRoundTripEmptyListAndGroups() {
+        assertEquals(List.of(), serializer.deserialize(serializer.serialize(List.of())));
+
+        List<GroupView> groups = List.of(new GroupView(1L, "Travail", "Collègues"));
+        assertEquals(groups, serializer.deserialize(serializer.serialize(groups)));
+    }
+
+    @Test
+    void shouldRoundTripGroupSummaries() {
+        List<GroupSummary> summaries = List.of(
+                new GroupSummary(1L, "Famille", null, 42),
+                new GroupSummary(2L, "Travail", "Collègues", 0));
+
+        assertEquals(summaries, serializer.deserialize(serializer.serialize(summaries)));
+    }
+
+    @Test
+    void shouldCompressLargePayloads() {
+        List<ContactView> contacts = new ArrayList<>();
+        for (long i = 0; i < 500; i++) {
+            contacts.add(new ContactView(i, "Prenom" + i, "Nom", "+2267000" + i, null, new GroupView(1L, "Famille", null)));
+        }
+
+        byte[] compressed = serializer.serialize(contacts);
+        byte[] plain = new CompactCacheSerializer(json, false, 1024).serialize(contacts);
+
+        assertEquals(1, compressed[2] & 1);
+        assertTrue(compressed.length < plain.length);
+        assertEquals(contacts, serializer.deserialize(compressed));
+        assertTrue(plain.length < json.serialize(contacts).length);
+    }
+
+    @Test
+    void shouldTreatUnknownSchemaVersionAsMiss() {
+        byte[] bytes = serializer.serialize(List.of(new GroupView(1L, "Amis", null)));
+        bytes[1] = (byte) (CompactCacheSerializer.VERSION + 1);
+
+        assertNull(serializer.deserialize(bytes));
+    }
+
+    @Test
+    void shouldDelegateOtherValuesToJson() {
+        String value = "tokenVersion";
+
+        byte[] bytes = serializer.serialize(value);
+
+        assertEquals('"', bytes[0]);
+        assertEquals(value, serializer.deserialize(bytes));
+    }
+}
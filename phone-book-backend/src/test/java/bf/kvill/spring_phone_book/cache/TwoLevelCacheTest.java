@@ -0,0 +1,74 @@
+package bf.kvill.spring_phone_book.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TwoLevelCacheTest {
+
+    private ConcurrentMapCache remote;
+    private CacheInvalidationBus bus;
+    private TwoLevelCache cache;
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        remote = new ConcurrentMapCache("contacts");
+        bus = mock(CacheInvalidationBus.class);
+        cache = new TwoLevelCache("contacts", Caffeine.newBuilder().maximumSize(10).build(), remote, bus);
+        meterRegistry = new SimpleMeterRegistry();
+        cache.bindMetrics(meterRegistry);
+    }
+
+    @Test
+    void shouldServeRepeatedReadsFromLocalTier() {
+        remote.put("user:1", "contacts");
+
+        assertEquals("contacts", cache.get("user:1").get());
+        remote.evict("user:1");
+        assertEquals("contacts", cache.get("user:1").get());
+
+        assertEquals(1.0, hits("l1"));
+        assertEquals(1.0, hits("l2"));
+        assertEquals(0.5, meterRegistry.get("cache.tier.hit.ratio").tags("cache", "contacts", "tier", "l1").gauge().value());
+    }
+
+    @Test
+    void shouldBroadcastEvictionsAndWrites() {
+        cache.put("user:1", "v1");
+        cache.evict("user:1");
+
+        verify(bus, times(2)).publishEvict("contacts", "user:1");
+        assertNull(cache.get("user:1"));
+        assertNull(remote.get("user:1"));
+    }
+
+    @Test
+    void shouldDropLocalEntryOnRemoteInvalidation() {
+        cache.put("user:1", "v1");
+        remote.put("user:1", "v2");
+
+        cache.evictLocal("user:1");
+
+        assertEquals("v2", cache.get("user:1").get());
+    }
+
+    @Test
+    void shouldCacheNullValues() {
+        cache.put("user:2", null);
+
+        assertNotNull(cache.get("user:2"));
+        assertNull(cache.get("user:2").get());
+    }
+
+    private double hits(String tier) {
+        return meterRegistry.get("cache.tier.gets").tags("cache", "contacts", "tier", tier, "result", "hit")
+                .functionCounter().count();
+    }
+}
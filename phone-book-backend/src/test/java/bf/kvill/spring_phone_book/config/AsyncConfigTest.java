@@ -0,0 +1,58 @@
+package bf.kvill.spring_phone_book.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncConfigTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AsyncConfig config = new AsyncConfig(registry, new MockEnvironment());
+
+    @Test
+    void shouldRejectAndCountTasksBeyondPoolAndQueue() {
+        ThreadPoolTaskExecutor executor = config.boundedExecutor("test", 1, 1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            // Un thread occupé, une tâche en file : la suivante est refusée
+            executor.execute(() -> await(release));
+            executor.execute(() -> await(release));
+
+            assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> { }));
+            assertEquals(1, registry.get("executor.rejected").tag("name", "test").counter().count());
+            assertEquals(1, registry.get("executor.queued").tag("name", "test").gauge().value());
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void shouldKeepPoolsSeparatePerOperation() {
+        ThreadPoolTaskExecutor contacts = config.contactsExecutor(2, 4, 10);
+        ThreadPoolTaskExecutor search = config.searchExecutor(1, 1, 1);
+        try {
+            assertNotSame(contacts.getThreadPoolExecutor(), search.getThreadPoolExecutor());
+            assertEquals(4, contacts.getMaxPoolSize());
+            assertEquals(1, search.getMaxPoolSize());
+            assertNotNull(registry.find("executor.pool.max").tag("name", "search").gauge());
+        } finally {
+            contacts.shutdown();
+            search.shutdown();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
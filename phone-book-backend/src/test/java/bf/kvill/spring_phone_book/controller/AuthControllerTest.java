@@ -2,6 +2,7 @@ package bf.kvill.spring_phone_book.controller;
 
 import bf.kvill.spring_phone_book.security.JwtUtil;
 import bf.kvill.spring_phone_book.service.CustomUserDetailsService;
+import bf.kvill.spring_phone_book.service.TokenVersionService;
 import bf.kvill.spring_phone_book.service.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
@@ -46,6 +47,9 @@ class AuthControllerTest {
     @MockBean
     private CustomUserDetailsService userDetailsService;
 
+    @MockBean
+    private TokenVersionService tokenVersionService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -0,0 +1,202 @@
+package bf.kvill.spring_phone_book.controller;
+
+import bf.kvill.spring_phone_book.enums.Role;
+import bf.kvill.spring_phone_book.model.Contact;
+import bf.kvill.spring_phone_book.model.Group;
+import bf.kvill.spring_phone_book.model.User;
+import bf.kvill.spring_phone_book.repository.ContactRepository;
+import bf.kvill.spring_phone_book.repository.ContactSpecifications;
+import bf.kvill.spring_phone_book.repository.GroupRepository;
+import bf.kvill.spring_phone_book.repository.UserRepository;
+import bf.kvill.spring_phone_book.security.JwtUtil;
+import bf.kvill.spring_phone_book.service.CustomUserDetailsService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "jwt.stateless-auth.enabled=true",
+        "rate-limit.enabled=false",
+        // Charset de la requête transmis tel quel à l'import (sinon forcé en UTF-8 par CharacterEncodingFilter)
+        "server.servlet.encoding.force-request=false"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ContactBatchControllerTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ContactBatchControllerTest.class);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ContactRepository contactRepository;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private User user;
+    private String bearer;
+
+    @BeforeEach
+    void setUp() {
+        contactRepository.deleteAll();
+        groupRepository.deleteAll();
+        userRepository.deleteAll();
+
+        user = new User();
+        user.setUsername("batch-user");
+        user.setPassword("hash");
+        user.setRoles(Set.of(Role.USER));
+        user = userRepository.save(user);
+        bearer = "Bearer " + jwtUtil.generateToken(userDetailsService.loadUserByUsername("batch-user"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        contactRepository.deleteAll();
+        groupRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void appliesValidOperationsAndReportsEachResult() throws Exception {
+        Contact kept = saveContact("Awa", "Ouedraogo", "+22670000001");
+        Contact removed = saveContact("Issa", "Kabore", "+22670000002");
+        Group family = new Group();
+        family.setName("Famille");
+        family.setUser(user);
+        family = groupRepository.save(family);
+
+        String body = """
+                {"operations": [
+                  {"op": "CREATE", "contact": {"firstName": "Mariam", "lastName": "Traore", "phoneNumber": "+22670000003", "groupId": %d}},
+                  {"op": "UPDATE", "id": %d, "contact": {"firstName": "Awa", "lastName": "Zongo", "phoneNumber": "+22670000001"}},
+                  {"op": "DELETE", "id": %d},
+                  {"op": "CREATE", "contact": {"firstName": "Ali", "lastName": "Sawadogo", "phoneNumber": "+22670000002"}},
+                  {"op": "CREATE", "contact": {"firstName": "X", "lastName": "Sawadogo", "phoneNumber": "+22670000004"}},
+                  {"op": "CREATE", "contact": {"firstName": "Fatou", "lastName": "Zongo", "phoneNumber": "+22670000003"}},
+                  {"op": "DELETE", "id": 999999}
+                ]}
+                """.formatted(family.getId(), kept.getId(), removed.getId());
+
+        mockMvc.perform(post("/api/contacts/batch")
+                        .header("Authorization", bearer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.updated").value(1))
+                .andExpect(jsonPath("$.deleted").value(1))
+                .andExpect(jsonPath("$.failed").value(3))
+                .andExpect(jsonPath("$.results[0].status").value(201))
+                .andExpect(jsonPath("$.results[1].status").value(200))
+                .andExpect(jsonPath("$.results[2].status").value(204))
+                // Numéro libéré par la suppression du même lot
+                .andExpect(jsonPath("$.results[3].status").value(201))
+                .andExpect(jsonPath("$.results[4].status").value(400))
+                .andExpect(jsonPath("$.results[5].status").value(409))
+                .andExpect(jsonPath("$.results[6].status").value(404));
+
+        assertEquals(3, contactRepository.count(ContactSpecifications.ownedBy(user.getId())));
+        assertEquals("Zongo", contactRepository.findById(kept.getId()).orElseThrow().getLastName());
+        assertFalse(contactRepository.existsById(removed.getId()));
+        assertEquals(1, contactRepository.findByUserIdAndGroupId(user.getId(), family.getId()).size());
+    }
+
+    @Test
+    void rejectsEmptyBatch() throws Exception {
+        mockMvc.perform(post("/api/contacts/batch")
+                        .header("Authorization", bearer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"operations\": []}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void rejectsImportWithUnknownCharset() throws Exception {
+        mockMvc.perform(post("/api/contacts/import")
+                        .header("Authorization", bearer)
+                        .contentType("text/csv")
+                        .characterEncoding("x-unknown-charset"))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Débit : N créations en N appels POST /api/contacts contre un seul POST /api/contacts/batch.
+     * Lancer avec : mvn test -Dbenchmarks=true -Dtest=ContactBatchControllerTest
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+    void batchIsFasterThanSingleCalls() throws Exception {
+        int operations = 500;
+
+        long start = System.nanoTime();
+        for (int i = 0; i < operations; i++) {
+            mockMvc.perform(post("/api/contacts")
+                            .header("Authorization", bearer)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(contactJson(i)))
+                    .andExpect(status().isCreated());
+        }
+        long singleNanos = System.nanoTime() - start;
+
+        StringBuilder body = new StringBuilder("{\"operations\": [");
+        for (int i = 0; i < operations; i++) {
+            body.append(i == 0 ? "" : ",").append("{\"op\": \"CREATE\", \"contact\": ").append(contactJson(operations + i)).append('}');
+        }
+        body.append("]}");
+        start = System.nanoTime();
+        mockMvc.perform(post("/api/contacts/batch")
+                        .header("Authorization", bearer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(operations));
+        long batchNanos = System.nanoTime() - start;
+
+        log.info("{} creations: single calls {} ms ({} ops/s), batch {} ms ({} ops/s)",
+                operations, singleNanos / 1_000_000, operations * 1_000_000_000L / singleNanos,
+                batchNanos / 1_000_000, operations * 1_000_000_000L / batchNanos);
+        assertEquals(2 * operations, contactRepository.count(ContactSpecifications.ownedBy(user.getId())));
+        assertTrue(batchNanos * 5 < singleNanos, "batch is not clearly faster than single calls");
+    }
+
+    private Contact saveContact(String firstName, String lastName, String phone) {
+        Contact contact = new Contact();
+        contact.setFirstName(firstName);
+        contact.setLastName(lastName);
+        contact.setPhoneNumber(phone);
+        contact.setUser(user);
+        return contactRepository.save(contact);
+    }
+
+    private static String contactJson(int i) {
+        return "{\"firstName\": \"Prenom\", \"lastName\": \"Nom\", \"phoneNumber\": \"+2267" + String.format("%07d", i) + "\"}";
+    }
+}
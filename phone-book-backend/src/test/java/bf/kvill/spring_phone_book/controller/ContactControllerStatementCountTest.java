@@ -0,0 +1,258 @@
+package bf.kvill.spring_phone_book.controller;
+
+import bf.kvill.spring_phone_book.enums.Role;
+import bf.kvill.spring_phone_book.model.Contact;
+import bf.kvill.spring_phone_book.model.Group;
+import bf.kvill.spring_phone_book.model.User;
+import bf.kvill.spring_phone_book.repository.ContactRepository;
+import bf.kvill.spring_phone_book.repository.GroupRepository;
+import bf.kvill.spring_phone_book.repository.UserRepository;
+import bf.kvill.spring_phone_book.security.JwtUtil;
+import bf.kvill.spring_phone_book.service.CustomUserDetailsService;
+import bf.kvill.spring_phone_book.service.TokenVersionService;
+import bf.kvill.spring_phone_book.support.SqlBudget;
+import bf.kvill.spring_phone_book.support.StatementCounter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Nombre de requêtes SQL exécutées par chaque endpoint de ContactController (Hibernate et JdbcTemplate)
+@SpringBootTest(properties = {
+        "jwt.stateless-auth.enabled=true",
+        "rate-limit.enabled=false",
+        // Pas de construction d'index en arrière-plan pendant les mesures
+        "search.index.enabled=false"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ContactControllerStatementCountTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ContactRepository contactRepository;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private TokenVersionService tokenVersionService;
+
+    private final StatementCounter statements = new StatementCounter();
+    private String bearer;
+    private Group group;
+    private final List<Contact> contacts = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+
+        User user = new User();
+        user.setUsername("stats-user");
+        user.setPassword("hash");
+        user.setRoles(Set.of(Role.USER));
+        user = userRepository.save(user);
+
+        group = new Group();
+        group.setName("Famille");
+        group.setUser(user);
+        group = groupRepository.save(group);
+
+        contacts.clear();
+        for (int i = 0; i < 3; i++) {
+            Contact contact = new Contact();
+            // Lettres seulement : ContactRequest refuse les chiffres dans les noms
+            contact.setFirstName("Prenom" + (char) ('A' + i));
+            contact.setLastName("Nom" + (char) ('A' + i));
+            contact.setPhoneNumber("+2267000000" + i);
+            contact.setUser(user);
+            // Deux contacts sur trois dans le groupe
+            contact.setGroup(i < 2 ? group : null);
+            contacts.add(contactRepository.save(contact));
+        }
+
+        bearer = "Bearer " + jwtUtil.generateToken(userDetailsService.loadUserByUsername("stats-user"));
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        // Version du token déjà en cache : seules les requêtes de l'endpoint sont comptées
+        tokenVersionService.currentVersion(user.getId());
+    }
+
+    @AfterEach
+    void tearDown() {
+        cleanUp();
+    }
+
+    @Test
+    void shouldNotQueryUsersToResolveTheCurrentUser() throws Exception {
+        // Première requête : lecture des contacts et de leur groupe en une requête
+        long coldStatements = statements.count(this::getContacts);
+        assertTrue(coldStatements <= 1, "cold GET /api/contacts ran " + coldStatements + " statements");
+
+        // Régime établi : authentification, utilisateur courant et liste servis sans SQL
+        assertEquals(0, statements.count(this::getContacts));
+    }
+
+    @Test
+    void readEndpointsShouldRunOneStatementEach() throws Exception {
+        List<String> urls = List.of(
+                "/api/contacts/page?limit=2",
+                "/api/contacts/" + contacts.get(0).getId(),
+                "/api/contacts/search/phone?phoneNumber=70000000",
+                "/api/contacts/search/phone/page?phoneNumber=70000000",
+                "/api/contacts/search/firstname?firstName=Prenom",
+                "/api/contacts/search/firstname/page?firstName=Prenom",
+                "/api/contacts/search/lastname?lastName=Nom",
+                "/api/contacts/search/lastname/page?lastName=Nom",
+                "/api/contacts/group/" + group.getId(),
+                "/api/contacts/search?query=Nom",
+                "/api/contacts/search/page?query=Nom");
+
+        for (String url : urls) {
+            statements.assertAtMost(1, "GET " + url, () -> mockMvc.perform(get(url).header("Authorization", bearer))
+                    .andExpect(status().isOk()));
+        }
+    }
+
+    @Test
+    void asyncEndpointsShouldRunOneStatementEach() throws Exception {
+        // Exécutées sur les pools dédiés : les requêtes des autres threads sont comptées aussi
+        for (String url : List.of("/api/contacts/async", "/api/contacts/search/async?query=Nom")) {
+            statements.assertAtMost(1, "GET " + url, () -> {
+                MvcResult started = mockMvc.perform(get(url).header("Authorization", bearer))
+                        .andExpect(request().asyncStarted())
+                        .andReturn();
+                mockMvc.perform(asyncDispatch(started))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.length()").value(3));
+            });
+        }
+    }
+
+    @Test
+    @SqlBudget(statements = 2)
+    void createShouldNotLoadMoreThanTheGroup() throws Exception {
+        // Groupe de l'utilisateur + INSERT
+        mockMvc.perform(post("/api/contacts")
+                        .header("Authorization", bearer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(contactJson("Awa", "Traore", "+22671000000", group.getId())))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.group.name").value("Famille"));
+    }
+
+    @Test
+    @SqlBudget(statements = 3)
+    void updateShouldFetchTheContactWithItsGroupInOneStatement() throws Exception {
+        // Contact et groupe actuel en une jointure + nouveau groupe + UPDATE
+        mockMvc.perform(put("/api/contacts/" + contacts.get(2).getId())
+                        .header("Authorization", bearer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(contactJson("PrenomC", "NomC", "+22670000002", group.getId())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.group.name").value("Famille"));
+    }
+
+    @Test
+    @SqlBudget(statements = 2)
+    void deleteShouldRunASelectAndADelete() throws Exception {
+        mockMvc.perform(delete("/api/contacts/" + contacts.get(0).getId())
+                        .header("Authorization", bearer))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    void batchShouldNotLoadEntities() throws Exception {
+        // Ids possédés + numéros déjà pris + DELETE ... IN + un batch d'UPDATE + un batch d'INSERT,
+        // quel que soit le nombre d'opérations
+        String body = "{\"operations\":["
+                + "{\"op\":\"UPDATE\",\"id\":" + contacts.get(0).getId() + ",\"contact\":"
+                + contactJson("PrenomA", "Renomme", "+22670000000", null) + "},"
+                + "{\"op\":\"DELETE\",\"id\":" + contacts.get(1).getId() + "},"
+                + "{\"op\":\"CREATE\",\"contact\":" + contactJson("Awa", "Traore", "+22671000000", null) + "}"
+                + "]}";
+        statements.assertAtMost(5, "POST /api/contacts/batch", () -> mockMvc.perform(post("/api/contacts/batch")
+                        .header("Authorization", bearer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.failed").value(0)));
+    }
+
+    @Test
+    void importShouldRunAFixedNumberOfStatementsPerBatch() throws Exception {
+        // Numéros déjà pris + groupes existants + INSERT du nouveau groupe + batch d'INSERT des contacts
+        String csv = "firstName,lastName,phoneNumber,email,group\n"
+                + "Awa,Traore,+22671000000,,Travail\n";
+        statements.assertAtMost(4, "POST /api/contacts/import", () -> mockMvc.perform(post("/api/contacts/import")
+                        .header("Authorization", bearer)
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1)));
+    }
+
+    @Test
+    void exportShouldRunASingleStreamingQuery() throws Exception {
+        // Une requête lue en flux, sur le thread de l'exécuteur MVC
+        statements.assertAtMost(1, "GET /api/contacts/export", () -> {
+            MvcResult started = mockMvc.perform(get("/api/contacts/export?format=CSV").header("Authorization", bearer))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk());
+        });
+    }
+
+    private void getContacts() throws Exception {
+        mockMvc.perform(get("/api/contacts").header("Authorization", bearer))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3));
+    }
+
+    private static String contactJson(String firstName, String lastName, String phoneNumber, Long groupId) {
+        return "{\"firstName\":\"" + firstName + "\",\"lastName\":\"" + lastName + "\",\"phoneNumber\":\"" + phoneNumber + "\""
+                + (groupId == null ? "" : ",\"groupId\":" + groupId) + "}";
+    }
+
+    // Contacts avant groupes, groupes avant utilisateurs (clés étrangères)
+    private void cleanUp() {
+        contactRepository.deleteAll();
+        groupRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+}
@@ -0,0 +1,162 @@
+package bf.kvill.spring_phone_book.controller;
+
+import bf.kvill.spring_phone_book.config.AsyncConfig;
+import bf.kvill.spring_phone_book.enums.Role;
+import bf.kvill.spring_phone_book.exception.ServiceUnavailableException;
+import bf.kvill.spring_phone_book.model.User;
+import bf.kvill.spring_phone_book.repository.ContactRepository;
+import bf.kvill.spring_phone_book.repository.GroupRepository;
+import bf.kvill.spring_phone_book.repository.UserRepository;
+import bf.kvill.spring_phone_book.security.JwtUtil;
+import bf.kvill.spring_phone_book.service.ContactExportService;
+import bf.kvill.spring_phone_book.service.CustomUserDetailsService;
+import jakarta.servlet.DispatcherType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Places d'export rendues même quand le flux ne démarre jamais
+@SpringBootTest(properties = {
+        "rate-limit.enabled=false",
+        "search.index.enabled=false",
+        "export.max-concurrent=2",
+        // Un seul thread MVC, sans file : occupé, il refuse toute nouvelle réponse en flux
+        "async.mvc.core-size=1",
+        "async.mvc.max-size=1",
+        "async.mvc.queue-capacity=0"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ContactExportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ContactExportService exportService;
+
+    @Autowired
+    @Qualifier(AsyncConfig.MVC_EXECUTOR)
+    private ThreadPoolTaskExecutor mvcAsyncExecutor;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ContactRepository contactRepository;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private String bearer;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+        User user = new User();
+        user.setUsername("export-user");
+        user.setPassword("hash");
+        user.setRoles(Set.of(Role.USER));
+        userRepository.save(user);
+        bearer = "Bearer " + jwtUtil.generateToken(userDetailsService.loadUserByUsername("export-user"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        cleanUp();
+    }
+
+    @Test
+    void shouldReleaseTheSlotWhenTheExecutorRejectsTheStream() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        mvcAsyncExecutor.execute(() -> {
+            started.countDown();
+            await(release);
+        });
+        try {
+            started.await();
+            // Plus de refus que de places : sans libération, les derniers exports verraient la limite atteinte
+            for (int i = 0; i < 4; i++) {
+                mockMvc.perform(dispatchWithoutResult(export())).andExpect(status().isServiceUnavailable());
+            }
+        } finally {
+            release.countDown();
+        }
+
+        assertAllSlotsAvailable();
+        MvcResult exported = export();
+        mockMvc.perform(asyncDispatch(exported)).andExpect(status().isOk());
+        assertAllSlotsAvailable();
+    }
+
+    private MvcResult export() throws Exception {
+        return mockMvc.perform(get("/api/contacts/export?format=CSV").header("Authorization", bearer))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    // asyncDispatch attend le résultat relevé par l'intercepteur de MockMvc, jamais appelé quand la tâche
+    // est refusée : redispatch direct, comme le conteneur après setConcurrentResultAndDispatch
+    private static RequestBuilder dispatchWithoutResult(MvcResult started) {
+        return servletContext -> {
+            MockHttpServletRequest request = started.getRequest();
+            request.setDispatcherType(DispatcherType.ASYNC);
+            request.setAsyncStarted(false);
+            return request;
+        };
+    }
+
+    // Les deux places se réservent de nouveau, pas une troisième
+    private void assertAllSlotsAvailable() {
+        List<ContactExportService.Slot> slots = new ArrayList<>();
+        try {
+            slots.add(exportService.reserveSlot());
+            slots.add(exportService.reserveSlot());
+            assertThrows(ServiceUnavailableException.class, exportService::reserveSlot);
+        } finally {
+            slots.forEach(ContactExportService.Slot::close);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void cleanUp() {
+        contactRepository.deleteAll();
+        groupRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+}
@@ -0,0 +1,214 @@
+package bf.kvill.spring_phone_book.controller;
+
+import bf.kvill.spring_phone_book.enums.Role;
+import bf.kvill.spring_phone_book.model.Contact;
+import bf.kvill.spring_phone_book.model.Group;
+import bf.kvill.spring_phone_book.model.User;
+import bf.kvill.spring_phone_book.repository.ContactRepository;
+import bf.kvill.spring_phone_book.repository.ContactSpecifications;
+import bf.kvill.spring_phone_book.repository.GroupRepository;
+import bf.kvill.spring_phone_book.repository.UserRepository;
+import bf.kvill.spring_phone_book.security.JwtUtil;
+import bf.kvill.spring_phone_book.service.CustomUserDetailsService;
+import bf.kvill.spring_phone_book.service.TokenVersionService;
+import bf.kvill.spring_phone_book.support.SqlBudget;
+import bf.kvill.spring_phone_book.support.StatementCounter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Nombre de requêtes SQL exécutées par chaque endpoint de GroupController
+@SpringBootTest(properties = {
+        "jwt.stateless-auth.enabled=true",
+        "rate-limit.enabled=false",
+        "search.index.enabled=false"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class GroupControllerStatementCountTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ContactRepository contactRepository;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private TokenVersionService tokenVersionService;
+
+    private final StatementCounter statements = new StatementCounter();
+    private String bearer;
+    private User user;
+    private Group family;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+
+        user = new User();
+        user.setUsername("group-stats-user");
+        user.setPassword("hash");
+        user.setRoles(Set.of(Role.USER));
+        user = userRepository.save(user);
+
+        family = saveGroup("Famille");
+        saveGroup("Bureau");
+        for (int i = 0; i < 2; i++) {
+            Contact contact = new Contact();
+            // Lettres seulement : le PUT du test de synthèse renvoie ces noms à ContactRequest
+            contact.setFirstName("Prenom" + (char) ('A' + i));
+            contact.setLastName("Nom" + (char) ('A' + i));
+            contact.setPhoneNumber("+2267100000" + i);
+            contact.setUser(user);
+            contact.setGroup(family);
+            contactRepository.save(contact);
+        }
+
+        bearer = "Bearer " + jwtUtil.generateToken(userDetailsService.loadUserByUsername("group-stats-user"));
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        tokenVersionService.currentVersion(user.getId());
+    }
+
+    @AfterEach
+    void tearDown() {
+        cleanUp();
+    }
+
+    @Test
+    @SqlBudget(statements = 1)
+    void createShouldRunASingleInsert() throws Exception {
+        mockMvc.perform(post("/api/groups")
+                        .header("Authorization", bearer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Sport\",\"description\":\"Club\"}"))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    @SqlBudget(statements = 1, rows = 2)
+    void listShouldNotLoadOwnersOrContacts() throws Exception {
+        // Avant le chargement LAZY : + utilisateur propriétaire et ses rôles
+        mockMvc.perform(get("/api/groups")
+                        .header("Authorization", bearer))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+    }
+
+    @Test
+    void summaryShouldCountContactsInOneCachedQuery() throws Exception {
+        // Une requête GROUP BY, puis servi par le cache "groups"
+        statements.assertAtMost(1, "cold GET /api/groups/summary", () -> expectCounts(2, 0));
+        assertEquals(0, statements.count(() -> expectCounts(2, 0)));
+
+        // Création dans "Bureau", déplacement vers "Bureau", suppression : le cache est invalidé à chaque écriture
+        Long bureauId = groupRepository.findByName("Bureau").orElseThrow().getId();
+        mockMvc.perform(post("/api/contacts")
+                        .header("Authorization", bearer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\":\"Awa\",\"lastName\":\"Traore\",\"phoneNumber\":\"+22672000000\",\"groupId\":" + bureauId + "}"))
+                .andExpect(status().isCreated());
+        expectCounts(2, 1);
+
+        Contact moved = contactRepository.findByUserIdAndGroupId(user.getId(), family.getId()).get(0);
+        mockMvc.perform(put("/api/contacts/" + moved.getId())
+                        .header("Authorization", bearer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\":\"" + moved.getFirstName() + "\",\"lastName\":\"" + moved.getLastName()
+                                + "\",\"phoneNumber\":\"" + moved.getPhoneNumber() + "\",\"groupId\":" + bureauId + "}"))
+                .andExpect(status().isOk());
+        expectCounts(1, 2);
+
+        mockMvc.perform(delete("/api/contacts/" + moved.getId()).header("Authorization", bearer))
+                .andExpect(status().isNoContent());
+        expectCounts(1, 1);
+    }
+
+    @Test
+    @SqlBudget(statements = 1, rows = 1)
+    void getShouldRunOneStatement() throws Exception {
+        mockMvc.perform(get("/api/groups/" + family.getId())
+                        .header("Authorization", bearer))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Famille"));
+    }
+
+    @Test
+    @SqlBudget(statements = 2)
+    void updateShouldRunASelectAndAnUpdate() throws Exception {
+        mockMvc.perform(put("/api/groups/" + family.getId())
+                        .header("Authorization", bearer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Famille proche\"}"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void deleteShouldDetachContactsInOneStatement() throws Exception {
+        // Groupe + UPDATE des contacts du groupe + DELETE, quel que soit le nombre de contacts
+        statements.assertAtMost(3, "DELETE /api/groups/{id}", () -> mockMvc.perform(delete("/api/groups/" + family.getId())
+                        .header("Authorization", bearer))
+                .andExpect(status().isNoContent()));
+
+        // Les contacts ne sont pas supprimés avec le groupe
+        assertEquals(2, contactRepository.count(ContactSpecifications.ownedBy(user.getId())));
+        assertTrue(contactRepository.findByUserIdAndGroupId(user.getId(), family.getId()).isEmpty());
+    }
+
+    // Résumé trié par nom : "Bureau" puis "Famille"
+    private void expectCounts(long family, long office) throws Exception {
+        mockMvc.perform(get("/api/groups/summary").header("Authorization", bearer))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].name").value("Bureau"))
+                .andExpect(jsonPath("$[0].contactCount").value(office))
+                .andExpect(jsonPath("$[1].name").value("Famille"))
+                .andExpect(jsonPath("$[1].contactCount").value(family));
+    }
+
+    private Group saveGroup(String name) {
+        Group group = new Group();
+        group.setName(name);
+        group.setUser(user);
+        return groupRepository.save(group);
+    }
+
+    // Contacts avant groupes, groupes avant utilisateurs (clés étrangères)
+    private void cleanUp() {
+        contactRepository.deleteAll();
+        groupRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+}
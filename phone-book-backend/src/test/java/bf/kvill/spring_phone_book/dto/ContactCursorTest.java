@@ -0,0 +1,37 @@
+package bf.kvill.spring_phone_book.dto;
+
+import bf.kvill.spring_phone_book.exception.InvalidCursorException;
+import bf.kvill.spring_phone_book.model.Contact;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContactCursorTest {
+
+    @Test
+    void shouldRoundTripKeysetPosition() {
+        Contact contact = new Contact();
+        contact.setId(42L);
+        contact.setLastName("Ouédraogo");
+        contact.setFirstName("Aïcha");
+
+        ScrollPosition position = ContactCursor.decode(ContactCursor.encode(contact));
+
+        KeysetScrollPosition keyset = assertInstanceOf(KeysetScrollPosition.class, position);
+        assertEquals("Ouédraogo", keyset.getKeys().get("lastName"));
+        assertEquals("Aïcha", keyset.getKeys().get("firstName"));
+        assertEquals(42L, keyset.getKeys().get("id"));
+    }
+
+    @Test
+    void shouldStartFromBeginningWithoutCursor() {
+        assertTrue(ContactCursor.decode(null).isInitial());
+    }
+
+    @Test
+    void shouldRejectTamperedCursor() {
+        assertThrows(InvalidCursorException.class, () -> ContactCursor.decode("not-a-cursor"));
+    }
+}
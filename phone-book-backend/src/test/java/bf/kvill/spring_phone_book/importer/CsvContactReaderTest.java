@@ -0,0 +1,87 @@
+package bf.kvill.spring_phone_book.importer;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvContactReaderTest {
+
+    @Test
+    void readsRowsByHeaderNameWithQuotesAndLineNumbers() throws IOException {
+        String csv = "\uFEFFPrenom,Nom,Telephone,Email,Groupe\r\n"
+                + "Awa,Ouedraogo,+22670000001,awa@example.com,Famille\r\n"
+                + "\r\n"
+                + "\"Jean, Paul\",\"Sa\"\"wadogo\",+22670000002,,\r\n";
+
+        List<ImportRow> rows = readAll(csv);
+
+        assertEquals(2, rows.size());
+        assertEquals(2, rows.get(0).line());
+        assertEquals("Awa", rows.get(0).request().getFirstName());
+        assertEquals("+22670000001", rows.get(0).request().getPhoneNumber());
+        assertEquals("Famille", rows.get(0).groupName());
+
+        assertEquals(4, rows.get(1).line());
+        assertEquals("Jean, Paul", rows.get(1).request().getFirstName());
+        assertEquals("Sa\"wadogo", rows.get(1).request().getLastName());
+        assertNull(rows.get(1).request().getEmail());
+        assertNull(rows.get(1).groupName());
+    }
+
+    @Test
+    void detectsSemicolonSeparatorAndMultilineFields() throws IOException {
+        String csv = "lastName;firstName;phoneNumber\n"
+                + "\"Kabore\nFils\";Issa;+22670000003\n"
+                + "Traore;Mariam;+22670000004";
+
+        List<ImportRow> rows = readAll(csv);
+
+        assertEquals(2, rows.size());
+        assertEquals("Kabore\nFils", rows.get(0).request().getLastName());
+        assertEquals(4, rows.get(1).line());
+        assertEquals("Mariam", rows.get(1).request().getFirstName());
+    }
+
+    @Test
+    void rejectsOversizedRecordsAndKeepsReading() throws IOException {
+        String csv = "firstName,lastName,phoneNumber\n"
+                + "Awa,\"" + "x".repeat(CsvContactReader.MAX_FIELD_LENGTH + 1) + "\",+22670000001\n"
+                + ",".repeat(CsvContactReader.MAX_RECORD_LENGTH) + "\n"
+                + "Issa,Kabore,+22670000002\n"
+                + "Ali,\"jamais refermé,+22670000003\n"
+                + "x".repeat(CsvContactReader.MAX_RECORD_LENGTH);
+
+        List<ImportRow> rows = readAll(csv);
+
+        assertEquals(4, rows.size());
+        assertNotNull(rows.get(0).error());
+        assertNotNull(rows.get(1).error());
+        assertNull(rows.get(2).error());
+        assertEquals("Kabore", rows.get(2).request().getLastName());
+        assertEquals(4, rows.get(2).line());
+        assertNotNull(rows.get(3).error());
+        assertEquals(5, rows.get(3).line());
+    }
+
+    @Test
+    void emptyInputHasNoRows() throws IOException {
+        assertTrue(readAll("").isEmpty());
+    }
+
+    private static List<ImportRow> readAll(String csv) throws IOException {
+        List<ImportRow> rows = new ArrayList<>();
+        try (CsvContactReader reader = new CsvContactReader(new BufferedReader(new StringReader(csv)))) {
+            ImportRow row;
+            while ((row = reader.next()) != null) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+}
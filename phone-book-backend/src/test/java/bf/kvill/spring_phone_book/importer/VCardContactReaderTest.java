@@ -0,0 +1,93 @@
+package bf.kvill.spring_phone_book.importer;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VCardContactReaderTest {
+
+    @Test
+    void readsNameFirstPhoneEmailAndCategory() throws IOException {
+        String vcf = "BEGIN:VCARD\r\n"
+                + "VERSION:3.0\r\n"
+                + "N:Ouedraogo;Awa;;;\r\n"
+                + "FN:Awa Ouedraogo\r\n"
+                + "item1.TEL;TYPE=CELL:+226 70 00-00 01\r\n"
+                + "TEL;TYPE=HOME:+22650000000\r\n"
+                + "EMAIL;TYPE=INTERNET:awa@exam\r\n"
+                + " ple.com\r\n"
+                + "CATEGORIES:Famille,Travail\r\n"
+                + "END:VCARD\r\n"
+                + "BEGIN:VCARD\r\n"
+                + "VERSION:4.0\r\n"
+                + "FN:Issa Kabore\r\n"
+                + "TEL;VALUE=uri:tel:+22670000002\r\n"
+                + "END:VCARD\r\n";
+
+        List<ImportRow> rows = readAll(vcf);
+
+        assertEquals(2, rows.size());
+        ImportRow first = rows.get(0);
+        assertEquals(1, first.line());
+        assertEquals("Awa", first.request().getFirstName());
+        assertEquals("Ouedraogo", first.request().getLastName());
+        assertEquals("+22670000001", first.request().getPhoneNumber());
+        assertEquals("awa@example.com", first.request().getEmail());
+        assertEquals("Famille", first.groupName());
+
+        ImportRow second = rows.get(1);
+        assertEquals(11, second.line());
+        assertEquals("Issa", second.request().getFirstName());
+        assertEquals("Kabore", second.request().getLastName());
+        assertEquals("+22670000002", second.request().getPhoneNumber());
+        assertNull(second.groupName());
+    }
+
+    @Test
+    void unescapesStructuredValues() throws IOException {
+        String vcf = "BEGIN:VCARD\nN:D\\;Souza;Marie\\, Claire\nTEL:+22670000003\nEND:VCARD\n";
+
+        ImportRow row = readAll(vcf).get(0);
+
+        assertEquals("D;Souza", row.request().getLastName());
+        assertEquals("Marie, Claire", row.request().getFirstName());
+    }
+
+    @Test
+    void rejectsCardWithOversizedReadPropertyButTruncatesIgnoredOnes() throws IOException {
+        String folded = " " + "A".repeat(1000) + "\r\n";
+        String vcf = "BEGIN:VCARD\r\n"
+                + "N:Ouedraogo;Awa;;;\r\n"
+                + "TEL:+22670000001\r\n"
+                + "PHOTO;ENCODING=b:\r\n" + folded.repeat(10)
+                + "END:VCARD\r\n"
+                + "BEGIN:VCARD\r\n"
+                + "N:Kabore;" + "I".repeat(VCardContactReader.MAX_LINE_LENGTH) + ";;;\r\n"
+                + "TEL:+22670000002\r\n"
+                + "END:VCARD\r\n";
+
+        List<ImportRow> rows = readAll(vcf);
+
+        assertEquals(2, rows.size());
+        assertNull(rows.get(0).error());
+        assertEquals("+22670000001", rows.get(0).request().getPhoneNumber());
+        assertNotNull(rows.get(1).error());
+        assertEquals(16, rows.get(1).line());
+    }
+
+    private static List<ImportRow> readAll(String vcf) throws IOException {
+        List<ImportRow> rows = new ArrayList<>();
+        try (VCardContactReader reader = new VCardContactReader(new StringReader(vcf))) {
+            ImportRow row;
+            while ((row = reader.next()) != null) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+}
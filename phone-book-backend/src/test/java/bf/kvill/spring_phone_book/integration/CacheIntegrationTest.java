@@ -1,7 +1,8 @@
 package bf.kvill.spring_phone_book.integration;
 
+import bf.kvill.spring_phone_book.cache.SearchCacheGenerations;
 import bf.kvill.spring_phone_book.model.Contact;
-import bf.kvill.spring_phone_book.model.User;
+import bf.kvill.spring_phone_book.security.UserRef;
 import bf.kvill.spring_phone_book.service.ContactService;
 import bf.kvill.spring_phone_book.service.UserService;
 import org.junit.jupiter.api.Disabled;
@@ -10,6 +11,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.cache.CacheManager;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.transaction.TestTransaction;
 import org.springframework.transaction.annotation.Transactional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -29,9 +31,12 @@ class CacheIntegrationTest {
     @Autowired
     private CacheManager cacheManager;
 
+    @Autowired
+    private SearchCacheGenerations searchCacheGenerations;
+
     @Test
     void shouldCacheContactsForUser() {
-        User user = userService.createUser("testuser", "password");
+        UserRef user = UserRef.from(userService.createUser("testuser", "password"));
         
         var contacts1 = contactService.getAllContactsForUser(user);
         
@@ -46,7 +51,7 @@ class CacheIntegrationTest {
 
     @Test
     void shouldEvictCacheOnContactCreation() {
-        User user = userService.createUser("testuser2", "password");
+        UserRef user = UserRef.from(userService.createUser("testuser2", "password"));
         contactService.getAllContactsForUser(user);
         
         var cache = cacheManager.getCache("contacts");
@@ -63,17 +68,36 @@ class CacheIntegrationTest {
 
     @Test
     void shouldCacheSearchResults() {
-        User user = userService.createUser("testuser3", "password");
+        UserRef user = UserRef.from(userService.createUser("testuser3", "password"));
         String query = "test";
         
         var results1 = contactService.searchContacts(query, user);
         
         var cache = cacheManager.getCache("searches");
         assertNotNull(cache);
-        assertNotNull(cache.get("user:" + user.getId() + ":query:" + query));
+        long generation = searchCacheGenerations.current(user.getId());
+        assertNotNull(cache.get("user:" + user.getId() + ":gen:" + generation + ":query:" + query));
         
         var results2 = contactService.searchContacts(query, user);
         
         assertEquals(results1.size(), results2.size());
     }
+
+    @Test
+    void shouldInvalidateAllSearchesOfUserOnContactWrite() {
+        UserRef user = UserRef.from(userService.createUser("testuser4", "password"));
+        long before = searchCacheGenerations.current(user.getId());
+
+        Contact contact = new Contact();
+        contact.setFirstName("Jane");
+        contact.setLastName("Doe");
+        contact.setPhoneNumber("+1234567891");
+        contactService.createContact(contact, user);
+
+        // La génération n'est incrémentée qu'après commit
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+
+        assertEquals(before + 1, searchCacheGenerations.current(user.getId()));
+    }
 }
\ No newline at end of file
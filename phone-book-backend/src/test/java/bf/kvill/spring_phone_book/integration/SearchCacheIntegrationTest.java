@@ -0,0 +1,172 @@
+package bf.kvill.spring_phone_book.integration;
+
+import bf.kvill.spring_phone_book.cache.LocalSearchCacheGenerations;
+import bf.kvill.spring_phone_book.cache.SearchCacheGenerations;
+import bf.kvill.spring_phone_book.dto.ContactView;
+import bf.kvill.spring_phone_book.model.Contact;
+import bf.kvill.spring_phone_book.repository.ContactRepository;
+import bf.kvill.spring_phone_book.repository.GroupRepository;
+import bf.kvill.spring_phone_book.repository.UserRepository;
+import bf.kvill.spring_phone_book.security.UserRef;
+import bf.kvill.spring_phone_book.service.ContactService;
+import bf.kvill.spring_phone_book.service.UserService;
+import bf.kvill.spring_phone_book.support.StatementCounter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Cache "searches" indexé par génération, sur le profil de test (cache simple, LocalSearchCacheGenerations)
+@SpringBootTest(properties = {
+        "rate-limit.enabled=false",
+        // Recherche servie par la base : chaque échec de cache se voit au nombre de requêtes
+        "search.index.enabled=false"
+})
+@ActiveProfiles("test")
+class SearchCacheIntegrationTest {
+
+    @Autowired
+    private ContactService contactService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private SearchCacheGenerations searchCacheGenerations;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ContactRepository contactRepository;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final StatementCounter statements = new StatementCounter();
+    private UserRef user;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        user = UserRef.from(userService.createUser("search-cache-user", "password"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        cleanUp();
+    }
+
+    @Test
+    void shouldUseTheLocalGenerationsWithTheSimpleCache() {
+        assertInstanceOf(LocalSearchCacheGenerations.class, searchCacheGenerations);
+    }
+
+    @Test
+    void shouldReturnTheCreatedContactOnTheNextSearch() throws Exception {
+        assertEquals(List.of(), searchHittingTheDatabase("Doe"));
+        assertEquals(List.of(), searchFromCache("Doe"));
+
+        writeAndCheckGeneration(() -> contactService.createContact(contact("Jane", "Doe", "+22670000001"), user));
+
+        assertEquals(List.of("Jane"), firstNames(searchHittingTheDatabase("Doe")));
+        assertEquals(List.of("Jane"), firstNames(searchFromCache("Doe")));
+    }
+
+    @Test
+    void shouldReturnTheUpdatedContactOnTheNextSearch() throws Exception {
+        Long id = contactService.createContact(contact("Awa", "Traore", "+22670000002"), user).getId();
+        assertEquals(List.of("Awa"), firstNames(searchHittingTheDatabase("Traore")));
+        assertEquals(List.of("Awa"), firstNames(searchFromCache("Traore")));
+
+        writeAndCheckGeneration(() -> contactService.updateContact(id, contact("Awa", "Ouedraogo", "+22670000002"), user));
+
+        assertEquals(List.of(), searchHittingTheDatabase("Traore"));
+        assertEquals(List.of("Awa"), firstNames(searchHittingTheDatabase("Ouedraogo")));
+    }
+
+    @Test
+    void shouldDropTheDeletedContactOnTheNextSearch() throws Exception {
+        Long id = contactService.createContact(contact("Moussa", "Kabore", "+22670000003"), user).getId();
+        assertEquals(List.of("Moussa"), firstNames(searchHittingTheDatabase("Kabore")));
+        assertEquals(List.of("Moussa"), firstNames(searchFromCache("Kabore")));
+
+        writeAndCheckGeneration(() -> contactService.deleteContact(id, user));
+
+        assertEquals(List.of(), searchHittingTheDatabase("Kabore"));
+    }
+
+    @Test
+    void shouldKeepTheGenerationWhenTheWriteRollsBack() throws Exception {
+        assertEquals(List.of(), searchHittingTheDatabase("Sawadogo"));
+        long before = searchCacheGenerations.current(user.getId());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            contactService.createContact(contact("Ali", "Sawadogo", "+22670000004"), user);
+            status.setRollbackOnly();
+        });
+
+        assertEquals(before, searchCacheGenerations.current(user.getId()));
+        assertEquals(List.of(), searchFromCache("Sawadogo"));
+    }
+
+    // Écriture dans une transaction : la génération ne bouge qu'au commit
+    private void writeAndCheckGeneration(Runnable write) {
+        long before = searchCacheGenerations.current(user.getId());
+        transactionTemplate.executeWithoutResult(status -> {
+            write.run();
+            assertEquals(before, searchCacheGenerations.current(user.getId()), "generation moved before commit");
+        });
+        assertEquals(before + 1, searchCacheGenerations.current(user.getId()));
+    }
+
+    private List<ContactView> searchHittingTheDatabase(String query) throws Exception {
+        List<ContactView> results = new ArrayList<>();
+        long count = statements.count(() -> results.addAll(contactService.searchContacts(query, user)));
+        assertTrue(count > 0, "search '" + query + "' was served from the cache");
+        return results;
+    }
+
+    private List<ContactView> searchFromCache(String query) throws Exception {
+        List<ContactView> results = new ArrayList<>();
+        assertEquals(0, statements.count(() -> results.addAll(contactService.searchContacts(query, user))),
+                "search '" + query + "' hit the database");
+        return results;
+    }
+
+    private static List<String> firstNames(List<ContactView> contacts) {
+        return contacts.stream().map(ContactView::firstName).toList();
+    }
+
+    private static Contact contact(String firstName, String lastName, String phoneNumber) {
+        Contact contact = new Contact();
+        contact.setFirstName(firstName);
+        contact.setLastName(lastName);
+        contact.setPhoneNumber(phoneNumber);
+        return contact;
+    }
+
+    private void cleanUp() {
+        contactRepository.deleteAll();
+        groupRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+}
@@ -0,0 +1,209 @@
+package bf.kvill.spring_phone_book.integration;
+
+import bf.kvill.spring_phone_book.SpringPhoneBookApplication;
+import bf.kvill.spring_phone_book.enums.Role;
+import bf.kvill.spring_phone_book.model.Contact;
+import bf.kvill.spring_phone_book.model.User;
+import bf.kvill.spring_phone_book.repository.ContactRepository;
+import bf.kvill.spring_phone_book.repository.ContactSpecifications;
+import bf.kvill.spring_phone_book.repository.UserRepository;
+import bf.kvill.spring_phone_book.security.JwtUtil;
+import bf.kvill.spring_phone_book.service.CustomUserDetailsService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Débit et latence p99 de GET /api/contacts/page avec 1000 clients simultanés : pool de threads
+ * Tomcat (modèle actuel), puis profil virtual-threads.
+ *
+ * Chaque modèle démarre son propre contexte sur un port libre, avec le même pool JDBC. Avec H2
+ * en mémoire, le temps de requête est surtout CPU et l'écart reste faible ; pour mesurer avec
+ * les attentes réseau de la production, lancer contre la pile Docker Compose :
+ * -Dloadtest.profiles=docker (SPRING_DATASOURCE_URL et REDIS_HOST pointant vers les conteneurs).
+ *
+ * Lancer avec : mvn test -Dbenchmarks=true -Dtest=ThreadingModelLoadTest
+ */
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class ThreadingModelLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ThreadingModelLoadTest.class);
+
+    private static final int CLIENTS = 1000;
+    private static final int CONTACTS = 500;
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+    private static final Duration MEASURE = Duration.ofSeconds(20);
+
+    @Test
+    void comparesPlatformAndVirtualThreadsAtOneThousandClients() throws Exception {
+        Result platform = run(false);
+        Result virtual = run(true);
+
+        report("platform", platform);
+        report("virtual", virtual);
+
+        assertEquals(0, platform.errors(), "errors with the Tomcat thread pool");
+        assertEquals(0, virtual.errors(), "errors with virtual threads");
+        assertTrue(platform.requests() > 0 && virtual.requests() > 0);
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+        String model = virtualThreads ? "virtual" : "platform";
+        List<String> profiles = new ArrayList<>(List.of(System.getProperty("loadtest.profiles", "test").split(",")));
+        if (virtualThreads) {
+            profiles.add("virtual-threads");
+        }
+        List<String> properties = new ArrayList<>(List.of(
+                "server.port=0",
+                "rate-limit.enabled=false",
+                "jwt.stateless-auth.enabled=true",
+                // Même pool JDBC pour les deux modèles
+                "spring.datasource.hikari.maximum-pool-size=20",
+                // Le profil test journalise Spring Security en DEBUG
+                "logging.level.org.springframework.security=WARN",
+                "logging.level.bf.kvill.spring_phone_book=WARN"));
+        if (profiles.contains("test")) {
+            properties.add("spring.datasource.url=jdbc:h2:mem:loadtest-" + model);
+        }
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SpringPhoneBookApplication.class)
+                .profiles(profiles.toArray(String[]::new))
+                .properties(properties.toArray(String[]::new))
+                .run()) {
+            String username = "load-" + model;
+            User user = seed(context, username, virtualThreads ? '8' : '7');
+            try {
+                String token = context.getBean(JwtUtil.class)
+                        .generateToken(context.getBean(CustomUserDetailsService.class).loadUserByUsername(username));
+                int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+                return load(URI.create("http://localhost:" + port + "/api/contacts/page?limit=50"), token);
+            } finally {
+                ContactRepository contacts = context.getBean(ContactRepository.class);
+                contacts.deleteAllInBatch(contacts.findAll(ContactSpecifications.ownedBy(user.getId())));
+                context.getBean(UserRepository.class).deleteById(user.getId());
+            }
+        }
+    }
+
+    // Numéros distincts par modèle : la colonne est unique sur toute la table
+    private static User seed(ConfigurableApplicationContext context, String username, char phonePrefix) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("hash");
+        user.setRoles(Set.of(Role.USER));
+        user = context.getBean(UserRepository.class).save(user);
+
+        List<Contact> contacts = new ArrayList<>(CONTACTS);
+        for (int i = 0; i < CONTACTS; i++) {
+            Contact contact = new Contact();
+            contact.setFirstName("Prenom" + i);
+            contact.setLastName("Nom" + (i % 50));
+            contact.setPhoneNumber("+226" + phonePrefix + String.format("%07d", i));
+            contact.setUser(user);
+            contacts.add(contact);
+        }
+        context.getBean(ContactRepository.class).saveAll(contacts);
+        return user;
+    }
+
+    // Modèle fermé : chaque client enchaîne ses requêtes ; seules celles lancées après l'échauffement sont mesurées
+    private static Result load(URI uri, String token) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .header("Authorization", "Bearer " + token)
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+        long measureStart = System.nanoTime() + WARMUP.toNanos();
+        long measureEnd = measureStart + MEASURE.toNanos();
+        AtomicLong errors = new AtomicLong();
+
+        List<Future<long[]>> clients = new ArrayList<>(CLIENTS);
+        try (HttpClient http = HttpClient.newBuilder()
+                     .executor(Executors.newVirtualThreadPerTaskExecutor())
+                     .connectTimeout(Duration.ofSeconds(10))
+                     .build();
+             ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < CLIENTS; c++) {
+                clients.add(executor.submit(() -> {
+                    long[] latencies = new long[1024];
+                    int count = 0;
+                    long start;
+                    while ((start = System.nanoTime()) < measureEnd) {
+                        boolean ok;
+                        try {
+                            ok = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+                        } catch (IOException e) {
+                            ok = false;
+                        }
+                        if (start < measureStart) {
+                            continue;
+                        }
+                        if (!ok) {
+                            errors.incrementAndGet();
+                        }
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = System.nanoTime() - start;
+                    }
+                    return Arrays.copyOf(latencies, count);
+                }));
+            }
+
+            List<long[]> perClient = new ArrayList<>(CLIENTS);
+            int total = 0;
+            for (Future<long[]> client : clients) {
+                long[] latencies = client.get();
+                perClient.add(latencies);
+                total += latencies.length;
+            }
+            long[] all = new long[total];
+            int offset = 0;
+            for (long[] latencies : perClient) {
+                System.arraycopy(latencies, 0, all, offset, latencies.length);
+                offset += latencies.length;
+            }
+            Arrays.sort(all);
+            return new Result(all.length, all.length / (double) MEASURE.toSeconds(),
+                    percentileMillis(all, 0.50), percentileMillis(all, 0.99), errors.get());
+        }
+    }
+
+    private static double percentileMillis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+    private static void report(String model, Result result) {
+        log.info("{}, {} clients, {} s: {} req/s, p50 {} ms, p99 {} ms, {} errors",
+                model, CLIENTS, MEASURE.toSeconds(), Math.round(result.throughput()),
+                Math.round(result.p50Millis() * 10) / 10.0, Math.round(result.p99Millis() * 10) / 10.0, result.errors());
+    }
+
+    private record Result(long requests, double throughput, double p50Millis, double p99Millis, long errors) {
+    }
+}
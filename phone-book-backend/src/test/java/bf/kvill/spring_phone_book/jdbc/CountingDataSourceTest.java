@@ -0,0 +1,65 @@
+package bf.kvill.spring_phone_book.jdbc;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CountingDataSourceTest {
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource h2 = new DriverManagerDataSource("jdbc:h2:mem:counting;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(new CountingDataSource(h2));
+        jdbcTemplate.execute("DROP TABLE IF EXISTS items");
+        jdbcTemplate.execute("CREATE TABLE items (id INT PRIMARY KEY, name VARCHAR(20))");
+    }
+
+    @Test
+    void countsStatementsAndFetchedRowsInsideAScope() {
+        SqlStatistics.Counts counts;
+        try (SqlStatistics.Scope scope = SqlStatistics.open()) {
+            counts = scope.counts();
+            // Un lot JDBC : un seul aller-retour
+            jdbcTemplate.batchUpdate("INSERT INTO items VALUES (?, ?)",
+                    List.of(new Object[] {1, "a"}, new Object[] {2, "b"}, new Object[] {3, "c"}));
+            jdbcTemplate.queryForList("SELECT name FROM items", String.class);
+            jdbcTemplate.queryForObject("SELECT COUNT(*) FROM items", Long.class);
+        }
+
+        assertEquals(3, counts.statements());
+        assertEquals(4, counts.rows());
+    }
+
+    @Test
+    void ignoresConnectionsObtainedOutsideAScope() {
+        jdbcTemplate.queryForList("SELECT name FROM items", String.class);
+        assertNull(SqlStatistics.current());
+    }
+
+    @Test
+    void nestedScopesAndPropagatedTasksCountInTheEnclosingScope() throws Exception {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setTaskDecorator(SqlStatistics::propagate);
+        executor.initialize();
+        try (SqlStatistics.Scope outer = SqlStatistics.open()) {
+            try (SqlStatistics.Scope inner = SqlStatistics.open()) {
+                jdbcTemplate.queryForList("SELECT name FROM items", String.class);
+                executor.submit(() -> jdbcTemplate.queryForList("SELECT name FROM items", String.class)).get();
+                assertEquals(2, inner.counts().statements());
+            }
+            jdbcTemplate.queryForList("SELECT name FROM items", String.class);
+            assertEquals(3, outer.counts().statements());
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
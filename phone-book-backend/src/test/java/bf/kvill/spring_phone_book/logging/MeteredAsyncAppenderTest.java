@@ -0,0 +1,124 @@
+package bf.kvill.spring_phone_book.logging;
+
+import bf.kvill.spring_phone_book.logging.MeteredAsyncAppender.OverflowPolicy;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.OutputStreamAppender;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MeteredAsyncAppenderTest {
+
+    private final LoggerContext context = new LoggerContext();
+
+    // Sans adaptateur MDC, prepareForDeferredProcessing échoue sur chaque événement
+    @BeforeEach
+    void setUp() {
+        context.setMDCAdapter(new LogbackMDCAdapter());
+    }
+
+    @Test
+    void blockPolicyWritesEveryEventBeforeStopping() {
+        GatedOutputStream out = new GatedOutputStream();
+        out.open();
+        MeteredAsyncAppender appender = appender(out, 16, OverflowPolicy.BLOCK);
+        Logger logger = logger(appender);
+
+        for (int i = 0; i < 1000; i++) {
+            logger.info("event {}", i);
+        }
+        appender.stop();
+
+        String[] lines = out.lines();
+        assertEquals(1000, lines.length);
+        assertEquals("INFO event 999", lines[999]);
+        assertEquals(0, appender.getDroppedCount());
+    }
+
+    @Test
+    void dropPolicyDiscardsInfoButKeepsWarningsWhenTheWriterIsStalled() {
+        // Écriture bloquée : la file se remplit
+        GatedOutputStream out = new GatedOutputStream();
+        MeteredAsyncAppender appender = appender(out, 10, OverflowPolicy.DROP);
+        Logger logger = logger(appender);
+
+        for (int i = 0; i < 50; i++) {
+            logger.info("event {}", i);
+        }
+        logger.warn("still written");
+        assertTrue(appender.getQueueDepth() <= appender.getQueueCapacity());
+
+        out.open();
+        appender.stop();
+
+        String[] lines = out.lines();
+        assertTrue(appender.getDroppedCount() > 0);
+        // Chaque événement est soit écrit soit compté comme écarté
+        assertEquals(51, lines.length + appender.getDroppedCount());
+        assertEquals("WARN still written", lines[lines.length - 1]);
+    }
+
+    private MeteredAsyncAppender appender(GatedOutputStream out, int queueSize, OverflowPolicy policy) {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%level %msg%n");
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> delegate = new OutputStreamAppender<>();
+        delegate.setContext(context);
+        delegate.setName("memory");
+        delegate.setEncoder(encoder);
+        delegate.setImmediateFlush(false);
+        delegate.setOutputStream(out);
+        delegate.start();
+
+        MeteredAsyncAppender appender = new MeteredAsyncAppender(delegate, queueSize, policy, 10, 4);
+        appender.setContext(context);
+        appender.setName("test");
+        appender.start();
+        return appender;
+    }
+
+    private Logger logger(MeteredAsyncAppender appender) {
+        Logger logger = context.getLogger("async-test");
+        logger.setLevel(Level.DEBUG);
+        logger.setAdditive(false);
+        logger.addAppender(appender);
+        return logger;
+    }
+
+    // Flux mémoire dont l'écriture attend l'ouverture de la barrière
+    private static class GatedOutputStream extends ByteArrayOutputStream {
+
+        private final CountDownLatch gate = new CountDownLatch(1);
+
+        void open() {
+            gate.countDown();
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            super.write(bytes, offset, length);
+        }
+
+        String[] lines() {
+            return toString(StandardCharsets.UTF_8).split("\n");
+        }
+    }
+}
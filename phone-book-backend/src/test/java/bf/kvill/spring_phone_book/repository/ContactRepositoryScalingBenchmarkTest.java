@@ -0,0 +1,142 @@
+package bf.kvill.spring_phone_book.repository;
+
+import bf.kvill.spring_phone_book.dto.ContactView;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Vérifie que le coût d'une lecture dépend du carnet de l'appelant et non de la taille de la table.
+ * Mesure les requêtes de ContactService : liste (projection) et recherche en base (repli de l'index).
+ * Lancer avec : mvn test -Dbenchmarks=true -Dtest=ContactRepositoryScalingBenchmarkTest
+ */
+@DataJpaTest
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class ContactRepositoryScalingBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ContactRepositoryScalingBenchmarkTest.class);
+
+    private static final int USERS = 10_000;
+    private static final int TARGET_BOOK_SIZE = 100;
+    private static final int[] TABLE_SIZES = { 10_000, 100_000, 1_000_000 };
+    private static final int ITERATIONS = 200;
+
+    @Autowired
+    private ContactRepository contactRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private long nextContactId = 1;
+
+    @Test
+    void ownerScopedQueriesStayFlatAsOtherTenantsGrow() {
+        seedUsers();
+        long targetUserId = 1L;
+        insertContacts(targetUserId, TARGET_BOOK_SIZE);
+
+        List<long[]> results = new ArrayList<>();
+        int rows = TARGET_BOOK_SIZE;
+        for (int tableSize : TABLE_SIZES) {
+            rows += insertOtherTenants(tableSize - rows);
+
+            long list = medianNanos(() -> list(targetUserId));
+            long search = medianNanos(() -> search(targetUserId, "mart"));
+            results.add(new long[] { rows, list, search });
+
+            assertEquals(TARGET_BOOK_SIZE, list(targetUserId).size());
+        }
+
+        for (long[] r : results) {
+            log.info("{} rows: list {} µs, search {} µs", r[0], r[1] / 1_000, r[2] / 1_000);
+        }
+
+        // Une table 100x plus grande ne doit pas rendre la lecture 100x plus lente
+        long[] smallest = results.get(0);
+        long[] largest = results.get(results.size() - 1);
+        assertTrue(largest[1] < smallest[1] * 5, "contact list grows with table size");
+        assertTrue(largest[2] < smallest[2] * 5, "contact search grows with table size");
+    }
+
+    // ContactService.getAllContactsForUser
+    private List<ContactView> list(long userId) {
+        return contactRepository.findViews(ContactSpecifications.ownedBy(userId), ScrollPosition.keyset(), 0);
+    }
+
+    // ContactService.searchContacts tant que l'index en mémoire n'est pas prêt
+    private List<ContactView> search(long userId, String query) {
+        return contactRepository.findViews(ContactSpecifications.ownedBy(userId).and(ContactSpecifications.matches(query)),
+                ScrollPosition.keyset(), 0);
+    }
+
+    private long medianNanos(Supplier<List<ContactView>> query) {
+        long[] samples = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            entityManager.clear();
+            long start = System.nanoTime();
+            query.get();
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples[ITERATIONS / 2];
+    }
+
+    private void seedUsers() {
+        List<Object[]> batch = new ArrayList<>(USERS);
+        for (long id = 1; id <= USERS; id++) {
+            batch.add(new Object[] { id, "user" + id, "x", 0 });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, username, password, token_version) VALUES (?, ?, ?, ?)", batch);
+    }
+
+    private int insertOtherTenants(int count) {
+        int inserted = 0;
+        while (inserted < count) {
+            int chunk = Math.min(10_000, count - inserted);
+            List<Object[]> batch = new ArrayList<>(chunk);
+            for (int i = 0; i < chunk; i++) {
+                long userId = 2 + (nextContactId % (USERS - 1));
+                batch.add(row(userId));
+            }
+            insert(batch);
+            inserted += chunk;
+        }
+        return inserted;
+    }
+
+    private void insertContacts(long userId, int count) {
+        List<Object[]> batch = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            batch.add(row(userId));
+        }
+        insert(batch);
+    }
+
+    private Object[] row(long userId) {
+        long id = nextContactId++;
+        String lastName = (id % 7 == 0) ? "Martin" + id : "Nom" + id;
+        return new Object[] { id, lastName, "Prenom" + id, "+226" + (10_000_000 + id), userId };
+    }
+
+    private void insert(List<Object[]> batch) {
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO contacts (id, last_name, first_name, phone_number, user_id) VALUES (?, ?, ?, ?, ?)",
+                batch);
+    }
+}
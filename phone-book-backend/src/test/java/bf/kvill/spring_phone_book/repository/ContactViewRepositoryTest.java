@@ -0,0 +1,125 @@
+package bf.kvill.spring_phone_book.repository;
+
+import bf.kvill.spring_phone_book.dto.ContactCursor;
+import bf.kvill.spring_phone_book.dto.ContactView;
+import bf.kvill.spring_phone_book.enums.Role;
+import bf.kvill.spring_phone_book.model.Contact;
+import bf.kvill.spring_phone_book.model.Group;
+import bf.kvill.spring_phone_book.model.User;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.ScrollPosition;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class ContactViewRepositoryTest {
+
+    @Autowired
+    private ContactRepository contactRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User owner;
+    private Group family;
+
+    @BeforeEach
+    void setUp() {
+        owner = persistUser("owner");
+        User other = persistUser("other");
+
+        family = new Group();
+        family.setName("Famille");
+        family.setUser(owner);
+        entityManager.persist(family);
+
+        persistContact(owner, "Awa", "Zongo", "+22670000001", family);
+        persistContact(owner, "Issa", "Kabore", "+22670000002", null);
+        persistContact(owner, "Ali", "Kabore", "+22670000003", null);
+        persistContact(other, "Moussa", "Kabore", "+22670000004", null);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void projectsOwnedContactsSortedWithGroupJoined() {
+        List<ContactView> views = contactRepository.findViews(
+                ContactSpecifications.ownedBy(owner.getId()), ScrollPosition.keyset(), 0);
+
+        assertEquals(List.of("Ali", "Issa", "Awa"), views.stream().map(ContactView::firstName).toList());
+        assertNull(views.get(0).group());
+        assertEquals("Famille", views.get(2).group().name());
+        assertEquals(family.getId(), views.get(2).group().id());
+    }
+
+    @Test
+    void resumesAfterKeysetCursor() {
+        List<ContactView> first = contactRepository.findViews(
+                ContactSpecifications.ownedBy(owner.getId()), ScrollPosition.keyset(), 2);
+        List<ContactView> next = contactRepository.findViews(
+                ContactSpecifications.ownedBy(owner.getId()), ContactCursor.decode(ContactCursor.encode(first.get(1))), 2);
+
+        assertEquals(List.of("Ali", "Issa"), first.stream().map(ContactView::firstName).toList());
+        assertEquals(List.of("Awa"), next.stream().map(ContactView::firstName).toList());
+    }
+
+    @Test
+    void matchesPhoneOnDigitsLikeTheSearchIndex() {
+        List<ContactView> views = contactRepository.findViews(
+                ContactSpecifications.ownedBy(owner.getId()).and(ContactSpecifications.matches("70 00 00 03")),
+                ScrollPosition.keyset(), 0);
+
+        assertEquals(List.of("Ali"), views.stream().map(ContactView::firstName).toList());
+    }
+
+    @Test
+    void matchesNothingForBlankQueryLikeTheSearchIndex() {
+        persistContact(owner, "Awa Marie", "Zongo", "+22670000009", null);
+        entityManager.flush();
+
+        for (String query : List.of("", " ", "   ")) {
+            List<ContactView> views = contactRepository.findViews(
+                    ContactSpecifications.ownedBy(owner.getId()).and(ContactSpecifications.matches(query)),
+                    ScrollPosition.keyset(), 0);
+
+            assertTrue(views.isEmpty(), "'" + query + "'");
+        }
+    }
+
+    @Test
+    void treatsLikeWildcardsInQueryLiterally() {
+        for (String query : List.of("%", "_", "A_a", "\\")) {
+            List<ContactView> views = contactRepository.findViews(
+                    ContactSpecifications.ownedBy(owner.getId()).and(ContactSpecifications.matches(query)),
+                    ScrollPosition.keyset(), 0);
+
+            assertTrue(views.isEmpty(), query);
+        }
+    }
+
+    private User persistUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("hash");
+        user.setRoles(Set.of(Role.USER));
+        entityManager.persist(user);
+        return user;
+    }
+
+    private void persistContact(User user, String firstName, String lastName, String phone, Group group) {
+        Contact contact = new Contact();
+        contact.setFirstName(firstName);
+        contact.setLastName(lastName);
+        contact.setPhoneNumber(phone);
+        contact.setGroup(group);
+        contact.setUser(user);
+        entityManager.persist(contact);
+    }
+}
@@ -0,0 +1,120 @@
+package bf.kvill.spring_phone_book.search;
+
+import bf.kvill.spring_phone_book.cache.LocalSearchCacheGenerations;
+import bf.kvill.spring_phone_book.cache.SearchCacheGenerations;
+import bf.kvill.spring_phone_book.dto.ContactView;
+import bf.kvill.spring_phone_book.model.Contact;
+import bf.kvill.spring_phone_book.model.User;
+import bf.kvill.spring_phone_book.repository.ContactRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class ContactSearchIndexTest {
+
+    private static final Long USER_ID = 1L;
+
+    private ContactRepository contactRepository;
+    private SearchCacheGenerations generations;
+    private ContactSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        contactRepository = mock(ContactRepository.class);
+        when(contactRepository.findViews(any(), any(), anyInt()))
+                .thenReturn(List.of(view(10L, "Jean", "Ouedraogo", "+226 70 00 12 34")));
+        generations = new LocalSearchCacheGenerations();
+        index = new ContactSearchIndex(contactRepository, generations, true, 10, Duration.ofMinutes(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        index.shutdown();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void shouldFallBackToDatabaseUntilIndexIsBuilt() throws InterruptedException {
+        assertTrue(index.search(USER_ID, "drao").isEmpty());
+
+        assertEquals(List.of(10L), awaitSearch("drao"));
+        assertEquals(List.of(10L), index.search(USER_ID, "70 00").orElseThrow());
+    }
+
+    @Test
+    void shouldRebuildWhenAnotherReplicaMovesTheGeneration() throws InterruptedException {
+        awaitSearch("drao");
+        when(contactRepository.findViews(any(), any(), anyInt())).thenReturn(List.of(
+                view(10L, "Jean", "Ouedraogo", "+226 70 00 12 34"),
+                view(11L, "Awa", "Sawadogo", "+226 76 00 00 00")));
+
+        // Écriture validée sur une autre replica : seule la génération partagée a bougé
+        generations.bump(USER_ID);
+
+        assertTrue(index.search(USER_ID, "sawa").isEmpty());
+        assertEquals(List.of(11L), awaitSearch("sawa"));
+        verify(contactRepository, times(2)).findViews(any(), any(), anyInt());
+    }
+
+    @Test
+    void shouldApplyLocalWritesAfterCommitWithoutRebuilding() throws InterruptedException {
+        awaitSearch("drao");
+
+        TransactionSynchronizationManager.initSynchronization();
+        index.contactSaved(contact(11L, "Awa", "Sawadogo", "+226 76 00 00 00"));
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+
+        // Génération et index avancent ensemble, dans une seule synchronisation après commit
+        assertEquals(1, synchronizations.size());
+        assertEquals(0, generations.current(USER_ID));
+        assertEquals(List.of(), index.search(USER_ID, "sawa").orElseThrow());
+
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+
+        assertEquals(1, generations.current(USER_ID));
+        assertEquals(List.of(11L), index.search(USER_ID, "sawa").orElseThrow());
+        verify(contactRepository, times(1)).findViews(any(), any(), anyInt());
+    }
+
+    private List<Long> awaitSearch(String query) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (System.nanoTime() < deadline) {
+            Optional<List<Long>> ids = index.search(USER_ID, query);
+            if (ids.isPresent()) {
+                return ids.get();
+            }
+            Thread.sleep(10);
+        }
+        return fail("Search index not built in time");
+    }
+
+    private static ContactView view(Long id, String firstName, String lastName, String phoneNumber) {
+        return new ContactView(id, firstName, lastName, phoneNumber, null, null);
+    }
+
+    private static Contact contact(Long id, String firstName, String lastName, String phoneNumber) {
+        User user = new User();
+        user.setId(USER_ID);
+        Contact contact = new Contact();
+        contact.setId(id);
+        contact.setFirstName(firstName);
+        contact.setLastName(lastName);
+        contact.setPhoneNumber(phoneNumber);
+        contact.setUser(user);
+        return contact;
+    }
+}
@@ -0,0 +1,92 @@
+package bf.kvill.spring_phone_book.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserSearchIndexTest {
+
+    private static final Logger log = LoggerFactory.getLogger(UserSearchIndexTest.class);
+
+    private UserSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new UserSearchIndex();
+        index.put(1L, "Jean", "Ouedraogo", "+226 70 12 34 56");
+        index.put(2L, "Marie", "Kabore", "(226) 76-98-76-54");
+        index.put(3L, "Al", "Martin", "+33 6 12 34 56 78");
+    }
+
+    @Test
+    void shouldMatchNameSubstringIgnoringCase() {
+        assertEquals(List.of(1L), index.search("DRAO"));
+        assertEquals(List.of(3L), index.search("mart"));
+    }
+
+    @Test
+    void shouldMatchTwoCharacterQueries() {
+        assertEquals(List.of(3L), index.search("al"));
+        assertEquals(List.of(1L), index.search("go"));
+    }
+
+    @Test
+    void shouldMatchPhoneDigitsWhateverTheFormatting() {
+        assertEquals(List.of(2L), index.search("76 98"));
+        assertEquals(List.of(2L), index.search("(226) 76"));
+        assertEquals(2, index.search("226").size());
+    }
+
+    @Test
+    void shouldMatchNothingForBlankQueries() {
+        index.put(4L, "Awa Marie", "Zongo", "+226 71 00 00 00");
+
+        assertTrue(index.search("").isEmpty());
+        assertTrue(index.search(" ").isEmpty());
+        assertTrue(index.search("   ").isEmpty());
+    }
+
+    @Test
+    void shouldReflectUpdatesAndRemovals() {
+        index.put(1L, "Jean", "Sawadogo", "+226 70 12 34 56");
+        assertTrue(index.search("ouedraogo").isEmpty());
+        assertEquals(List.of(1L), index.search("sawa"));
+
+        index.remove(1L);
+        assertTrue(index.search("sawa").isEmpty());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+    void shouldAnswerUnderOneMillisecondAtP99For100kContacts() {
+        String[] names = { "jean", "marie", "paul", "awa", "issa", "fatim", "moussa", "aicha", "ali", "rose" };
+        Random random = new Random(42);
+        UserSearchIndex large = new UserSearchIndex();
+        for (long id = 0; id < 100_000; id++) {
+            large.put(id, names[random.nextInt(names.length)] + id, "Nom" + Long.toString(id, 36),
+                    "+226 " + (70_000_000 + random.nextInt(9_999_999)));
+        }
+
+        String[] queries = { "moussa12", "nom2bx", "70123", "rose9", "issa4711" };
+        long[] samples = new long[10_000];
+        for (int i = 0; i < samples.length; i++) {
+            long start = System.nanoTime();
+            large.search(queries[i % queries.length]);
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        long p99 = samples[(int) (samples.length * 0.99)];
+        log.info("UserSearchIndex 100k contacts: p50={} µs, p99={} µs",
+                samples[samples.length / 2] / 1_000, p99 / 1_000);
+        assertTrue(p99 < 1_000_000, "p99 above 1 ms: " + p99 + " ns");
+    }
+}
@@ -0,0 +1,104 @@
+package bf.kvill.spring_phone_book.security;
+
+import bf.kvill.spring_phone_book.enums.Role;
+import bf.kvill.spring_phone_book.model.User;
+import bf.kvill.spring_phone_book.repository.UserRepository;
+import bf.kvill.spring_phone_book.service.CustomUserDetailsService;
+import bf.kvill.spring_phone_book.service.TokenVersionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class JwtAuthenticationFilterTest {
+
+    private UserRepository userRepository;
+    private JwtUtil jwtUtil;
+    private JwtAuthenticationFilter filter;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", "myVerySecureSecretKeyThatIsAtLeast256BitsLongForHS256Algorithm");
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 86400000L);
+        ReflectionTestUtils.setField(jwtUtil, "refreshExpiration", 604800000L);
+        jwtUtil.init();
+
+        User user = new User();
+        user.setId(7L);
+        user.setUsername("alice");
+        user.setPassword("hash");
+        user.setRoles(Set.of(Role.USER));
+        userRepository = mock(UserRepository.class);
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(user));
+        when(userRepository.findTokenVersionById(7L)).thenReturn(Optional.of(0L));
+
+        CustomUserDetailsService userDetailsService = new CustomUserDetailsService(userRepository);
+        TokenVersionService tokenVersionService = new TokenVersionService(userRepository, new ConcurrentMapCacheManager());
+        filter = new JwtAuthenticationFilter(jwtUtil, userDetailsService, tokenVersionService);
+        ReflectionTestUtils.setField(filter, "statelessAuth", true);
+
+        token = jwtUtil.generateToken(userDetailsService.loadUserByUsername("alice"));
+        clearInvocations(userRepository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void shouldAuthenticateFromClaimsWithoutLoadingUser() throws Exception {
+        Authentication first = authenticate(token);
+        SecurityContextHolder.clearContext();
+        authenticate(token);
+
+        JwtPrincipal principal = assertInstanceOf(JwtPrincipal.class, first.getPrincipal());
+        assertEquals(7L, principal.id());
+        assertEquals("alice", first.getName());
+        assertTrue(first.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_USER")));
+
+        verify(userRepository, never()).findByUsername(any());
+        // La version n'est lue qu'une fois puis servie par le cache
+        verify(userRepository, times(1)).findTokenVersionById(7L);
+    }
+
+    @Test
+    void shouldRejectTokenAfterRevocation() throws Exception {
+        when(userRepository.findTokenVersionById(7L)).thenReturn(Optional.of(1L));
+
+        assertNull(authenticate(token));
+    }
+
+    @Test
+    void shouldFallBackToDatabaseForTokenWithoutUserId() throws Exception {
+        String legacyToken = jwtUtil.generateToken(
+                new org.springframework.security.core.userdetails.User("alice", "hash", Set.of()));
+
+        Authentication authentication = authenticate(legacyToken);
+
+        assertNotNull(authentication);
+        assertEquals("alice", authentication.getName());
+        verify(userRepository).findByUsername("alice");
+    }
+
+    private Authentication authenticate(String jwt) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/contacts");
+        request.addHeader("Authorization", "Bearer " + jwt);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
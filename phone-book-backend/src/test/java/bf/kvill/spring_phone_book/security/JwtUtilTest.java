@@ -1,5 +1,8 @@
 package bf.kvill.spring_phone_book.security;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.security.core.userdetails.User;
@@ -21,6 +24,7 @@ class JwtUtilTest {
         ReflectionTestUtils.setField(jwtUtil, "secret", "myVerySecureSecretKeyThatIsAtLeast256BitsLongForHS256Algorithm");
         ReflectionTestUtils.setField(jwtUtil, "expiration", 86400000L);
         ReflectionTestUtils.setField(jwtUtil, "refreshExpiration", 604800000L);
+        jwtUtil.init();
         
         userDetails = new User("testuser", "password", new ArrayList<>());
     }
@@ -61,4 +65,34 @@ class JwtUtilTest {
         String token = jwtUtil.generateToken(userDetails);
         assertFalse(jwtUtil.isTokenExpired(token));
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldServeRepeatedParsesFromCache() {
+        String token = jwtUtil.generateToken(userDetails);
+
+        Claims first = jwtUtil.parseClaims(token);
+
+        assertSame(first, jwtUtil.parseClaims(token));
+        assertTrue(jwtUtil.validateToken(first, userDetails));
+    }
+
+    @Test
+    void shouldRejectTamperedTokenEvenWhenOriginalIsCached() {
+        String token = jwtUtil.generateToken(userDetails);
+        jwtUtil.parseClaims(token);
+
+        int i = token.lastIndexOf('.') + 5;
+        char replacement = token.charAt(i) == 'A' ? 'B' : 'A';
+        String tampered = token.substring(0, i) + replacement + token.substring(i + 1);
+
+        assertThrows(JwtException.class, () -> jwtUtil.parseClaims(tampered));
+    }
+
+    @Test
+    void shouldRejectExpiredToken() {
+        ReflectionTestUtils.setField(jwtUtil, "expiration", -1000L);
+        String token = jwtUtil.generateToken(userDetails);
+
+        assertThrows(ExpiredJwtException.class, () -> jwtUtil.parseClaims(token));
+    }
+}
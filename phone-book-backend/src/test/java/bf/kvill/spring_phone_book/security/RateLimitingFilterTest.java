@@ -0,0 +1,62 @@
+package bf.kvill.spring_phone_book.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitingFilterTest {
+
+    @Test
+    void shouldKeyBucketsByRouteTemplate() {
+        assertEquals("/api/contacts/{id}", RateLimitingFilter.routeTemplate("/api/contacts/42"));
+        assertEquals("/api/contacts/group/{id}", RateLimitingFilter.routeTemplate("/api/contacts/group/7"));
+        assertEquals("/api/contacts/search/phone", RateLimitingFilter.routeTemplate("/api/contacts/search/phone"));
+        assertEquals("/api/v2/contacts", RateLimitingFilter.routeTemplate("/api/v2/contacts"));
+    }
+
+    @Test
+    void shouldShareOneBucketAcrossIdsOfTheSameRoute() throws Exception {
+        LocalRateLimitBuckets buckets = new LocalRateLimitBuckets(1000, Duration.ofMinutes(10));
+        RateLimitingFilter filter = new RateLimitingFilter(buckets, true, 5, 3, Duration.ofMinutes(1));
+
+        for (int id = 1; id <= 3; id++) {
+            assertEquals(200, call(filter, "/api/contacts/" + id));
+        }
+        assertEquals(429, call(filter, "/api/contacts/4"));
+        assertEquals(1, buckets.size());
+    }
+
+    @Test
+    void shouldBoundLocalBucketCount() {
+        LocalRateLimitBuckets buckets = new LocalRateLimitBuckets(100, Duration.ofMinutes(10));
+        RateLimitingFilter filter = new RateLimitingFilter(buckets, true, 5, 100, Duration.ofMinutes(1));
+
+        for (int i = 0; i < 1000; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/contacts");
+            request.setRemoteAddr("10.0." + (i / 256) + "." + (i % 256));
+            assertDoesNotThrow(() -> filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain()));
+        }
+
+        assertTrue(buckets.size() <= 100);
+    }
+
+    @Test
+    void shouldLetEverythingThroughWhenDisabled() throws Exception {
+        RateLimitingFilter filter = new RateLimitingFilter(
+                new LocalRateLimitBuckets(10, Duration.ofMinutes(10)), false, 1, 1, Duration.ofMinutes(1));
+
+        assertEquals(200, call(filter, "/api/auth/login"));
+        assertEquals(200, call(filter, "/api/auth/login"));
+    }
+
+    private static int call(RateLimitingFilter filter, String uri) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", uri), response, new MockFilterChain());
+        return response.getStatus();
+    }
+}
@@ -0,0 +1,134 @@
+package bf.kvill.spring_phone_book.security;
+
+import bf.kvill.spring_phone_book.config.RateLimitConfig;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.Refill;
+import io.github.bucket4j.distributed.AsyncBucketProxy;
+import io.github.bucket4j.distributed.ExpirationAfterWriteStrategy;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisURI;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Deux réplicas simulées partagent les mêmes buckets via un Redis embarqué
+class RedisRateLimitBucketsTest {
+
+    private static RedisServer redisServer;
+    private static RedisClient redisClient;
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        int port = freePort();
+        redisServer = new RedisServer(port);
+        redisServer.start();
+        redisClient = RedisClient.create(RedisURI.create("localhost", port));
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        if (redisClient != null) {
+            redisClient.shutdown();
+        }
+        if (redisServer != null) {
+            redisServer.stop();
+        }
+    }
+
+    @Test
+    void shouldEnforceOneLimitAcrossReplicas() throws Exception {
+        RateLimitingFilter replicaA = replica();
+        RateLimitingFilter replicaB = replica();
+
+        assertEquals(200, call(replicaA, "/api/contacts/1"));
+        assertEquals(200, call(replicaB, "/api/contacts/2"));
+        assertEquals(200, call(replicaA, "/api/contacts/3"));
+        assertEquals(429, call(replicaB, "/api/contacts/4"));
+        assertEquals(429, call(replicaA, "/api/contacts/5"));
+    }
+
+    @Test
+    void shouldShareBucketsBetweenSyncAndAsyncCalls() throws Exception {
+        LettuceCompareAndSwapProxyManager proxyManager = new LettuceCompareAndSwapProxyManager(redisClient,
+                ExpirationAfterWriteStrategy.basedOnTimeForRefillingBucketUpToMax(Duration.ofMinutes(1)), Duration.ofSeconds(1));
+        byte[] key = "rate-limit:async-test".getBytes();
+        BucketConfiguration configuration = BucketConfiguration.builder()
+                .addLimit(Bandwidth.classic(2, Refill.intervally(2, Duration.ofMinutes(1))))
+                .build();
+        AsyncBucketProxy asyncBucket = proxyManager.asAsync().builder().build(key, configuration);
+
+        assertTrue(asyncBucket.tryConsume(1).get());
+        assertTrue(proxyManager.builder().build(key, configuration).tryConsume(1));
+        assertFalse(asyncBucket.tryConsume(1).get());
+
+        proxyManager.asAsync().removeProxy(key).get();
+        assertTrue(proxyManager.getProxyConfiguration(key).isEmpty());
+    }
+
+    @Test
+    void shouldStartWithRedisDownAndLimitOnceItIsUp() throws Exception {
+        int port = freePort();
+        RateLimitConfig config = config(Duration.ofMillis(100));
+        RedisClient client = config.rateLimitRedisClient("localhost", port, "", Duration.ofSeconds(1));
+        RedisServer lateRedis = new RedisServer(port);
+        try {
+            // Pas de connexion à la création du bean : Redis injoignable ne bloque pas le démarrage
+            RateLimitingFilter filter = new RateLimitingFilter(config.redisRateLimitBuckets(client),
+                    true, 5, 3, Duration.ofMinutes(1));
+
+            // Stockage injoignable : requêtes laissées passer
+            for (int i = 0; i < 5; i++) {
+                assertEquals(200, call(filter, "/api/groups"));
+            }
+
+            lateRedis.start();
+            Thread.sleep(200);
+
+            assertEquals(200, call(filter, "/api/groups"));
+            assertEquals(200, call(filter, "/api/groups"));
+            assertEquals(200, call(filter, "/api/groups"));
+            assertEquals(429, call(filter, "/api/groups"));
+        } finally {
+            client.shutdown();
+            lateRedis.stop();
+        }
+    }
+
+    private static RateLimitingFilter replica() {
+        RateLimitBuckets buckets = config(Duration.ofSeconds(5)).redisRateLimitBuckets(redisClient);
+        return new RateLimitingFilter(buckets, true, 5, 3, Duration.ofMinutes(1));
+    }
+
+    private static RateLimitConfig config(Duration retryDelay) {
+        RateLimitConfig config = new RateLimitConfig();
+        ReflectionTestUtils.setField(config, "period", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(config, "retryDelay", retryDelay);
+        return config;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static int call(RateLimitingFilter filter, String uri) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.setRemoteAddr("192.168.1.10");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response.getStatus();
+    }
+}
@@ -0,0 +1,49 @@
+package bf.kvill.spring_phone_book.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerServiceTest {
+
+    @Test
+    void cancellingTheFutureInterruptsTheWorkerThread() throws InterruptedException {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.initialize();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        try {
+            CompletableFuture<String> result = CircuitBreakerService.submit(() -> {
+                started.countDown();
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+                return "late";
+            }, executor);
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            // Ce que fait le TimeLimiter avec cancel-running-future=true
+            result.cancel(true);
+
+            assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+            assertEquals(0, awaitIdle(executor));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static int awaitIdle(ThreadPoolTaskExecutor executor) throws InterruptedException {
+        for (int i = 0; i < 500 && executor.getActiveCount() > 0; i++) {
+            Thread.sleep(10);
+        }
+        return executor.getActiveCount();
+    }
+}
@@ -0,0 +1,122 @@
+package bf.kvill.spring_phone_book.service;
+
+import bf.kvill.spring_phone_book.enums.ExportFormat;
+import bf.kvill.spring_phone_book.enums.Role;
+import bf.kvill.spring_phone_book.model.PhoneNumbers;
+import bf.kvill.spring_phone_book.model.User;
+import bf.kvill.spring_phone_book.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Export d'un million de contacts avec un heap réduit : une liste matérialisée ne tiendrait pas
+ * en mémoire, l'export en flux si. Base H2 sur disque (en mémoire, les lignes occuperaient le heap)
+ * et exécution paresseuse des requêtes, pour que H2 ne charge pas tout le résultat.
+ * Lancer avec : mvn -Pheap-tests test
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:file:./target/export-heap-test/db;LAZY_QUERY_EXECUTION=TRUE")
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "heapTests", matches = "true")
+class ContactExportHeapTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ContactExportHeapTest.class);
+
+    private static final int ROWS = 1_000_000;
+    private static final int SEED_BATCH = 10_000;
+
+    @Autowired
+    private ContactExportService exportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void exportsOneMillionContactsWithBoundedHeap() throws IOException {
+        long maxHeap = Runtime.getRuntime().maxMemory();
+        // Environ 250 octets par ContactView et ses chaînes : 1M de lignes dépasseraient le heap
+        assertTrue(maxHeap < ROWS * 250L, "run with a small heap (-Xmx192m), current max " + (maxHeap >> 20) + " MB");
+
+        User user = new User();
+        user.setUsername("heap-export");
+        user.setPassword("hash");
+        user.setRoles(Set.of(Role.USER));
+        user = userRepository.save(user);
+        seed(user.getId());
+
+        LineCountingOutputStream out = new LineCountingOutputStream();
+        long start = System.nanoTime();
+        long exported = exportService.export(user.getId(), ExportFormat.NDJSON, out);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        log.info("Exported {} contacts ({} MB) in {} ms, peak sampled heap {} MB of {} MB",
+                exported, out.bytes >> 20, millis, out.peakHeap >> 20, maxHeap >> 20);
+        assertEquals(ROWS, exported);
+        assertEquals(ROWS, out.lines);
+    }
+
+    private void seed(Long userId) {
+        String sql = "INSERT INTO contacts (first_name, last_name, phone_number, phone_digits, phone_digits_reversed, user_id) "
+                + "VALUES (?, ?, ?, ?, ?, ?)";
+        for (int from = 0; from < ROWS; from += SEED_BATCH) {
+            List<Object[]> batch = new ArrayList<>(SEED_BATCH);
+            for (int i = from; i < from + SEED_BATCH; i++) {
+                String phone = "+226" + String.format("%08d", i);
+                batch.add(new Object[] { "Prenom" + i, "Nom" + (i % 5000), phone,
+                        PhoneNumbers.digits(phone), PhoneNumbers.reversedDigits(phone), userId });
+            }
+            jdbcTemplate.batchUpdate(sql, batch);
+        }
+    }
+
+    // Jette les octets, compte les lignes et relève le heap utilisé pendant l'export
+    private static final class LineCountingOutputStream extends OutputStream {
+
+        private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        private long bytes;
+        private long lines;
+        private long peakHeap;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+            if (b == '\n') {
+                newLine();
+            }
+        }
+
+        @Override
+        public void write(byte[] buffer, int offset, int length) {
+            bytes += length;
+            for (int i = offset; i < offset + length; i++) {
+                if (buffer[i] == '\n') {
+                    newLine();
+                }
+            }
+        }
+
+        private void newLine() {
+            if (++lines % 50_000 == 0) {
+                peakHeap = Math.max(peakHeap, memory.getHeapMemoryUsage().getUsed());
+            }
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package bf.kvill.spring_phone_book.service;
+
+import bf.kvill.spring_phone_book.enums.ExportFormat;
+import bf.kvill.spring_phone_book.enums.Role;
+import bf.kvill.spring_phone_book.exception.ServiceUnavailableException;
+import bf.kvill.spring_phone_book.importer.ContactRecordReader;
+import bf.kvill.spring_phone_book.importer.CsvContactReader;
+import bf.kvill.spring_phone_book.importer.ImportRow;
+import bf.kvill.spring_phone_book.importer.VCardContactReader;
+import bf.kvill.spring_phone_book.model.Contact;
+import bf.kvill.spring_phone_book.model.Group;
+import bf.kvill.spring_phone_book.model.User;
+import bf.kvill.spring_phone_book.repository.ContactRepository;
+import bf.kvill.spring_phone_book.repository.GroupRepository;
+import bf.kvill.spring_phone_book.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ContactExportServiceTest {
+
+    @Autowired
+    private ContactExportService exportService;
+
+    @Autowired
+    private ContactRepository contactRepository;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        contactRepository.deleteAll();
+        groupRepository.deleteAll();
+        userRepository.deleteAll();
+
+        user = new User();
+        user.setUsername("exporter");
+        user.setPassword("hash");
+        user.setRoles(Set.of(Role.USER));
+        user = userRepository.save(user);
+
+        Group family = new Group();
+        family.setName("Famille");
+        family.setUser(user);
+        family = groupRepository.save(family);
+
+        saveContact("Issa", "Kabore", "+22670000002", null, null);
+        saveContact("Awa", "Ouedraogo", "+22670000001", "awa@example.com", family);
+        saveContact("Jean, Paul", "D'Souza", "+22670000003", null, null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        contactRepository.deleteAll();
+        groupRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void exportsOneJsonObjectPerLineSortedByName() throws IOException {
+        String ndjson = export(ExportFormat.NDJSON);
+
+        String[] lines = ndjson.split("\n");
+        assertEquals(3, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals("D'Souza", first.get("lastName").asText());
+        assertTrue(first.get("group").isNull());
+        JsonNode last = objectMapper.readTree(lines[2]);
+        assertEquals("Ouedraogo", last.get("lastName").asText());
+        assertEquals("Famille", last.get("group").get("name").asText());
+    }
+
+    @Test
+    void csvExportCanBeImportedBack() throws IOException {
+        List<ImportRow> rows = readAll(new CsvContactReader(new BufferedReader(new StringReader(export(ExportFormat.CSV)))));
+
+        assertEquals(3, rows.size());
+        assertEquals("Jean, Paul", rows.get(0).request().getFirstName());
+        assertEquals("+22670000002", rows.get(1).request().getPhoneNumber());
+        assertEquals("awa@example.com", rows.get(2).request().getEmail());
+        assertEquals("Famille", rows.get(2).groupName());
+    }
+
+    @Test
+    void vcardExportCanBeImportedBack() throws IOException {
+        List<ImportRow> rows = readAll(new VCardContactReader(new StringReader(export(ExportFormat.VCARD))));
+
+        assertEquals(3, rows.size());
+        assertEquals("Jean, Paul", rows.get(0).request().getFirstName());
+        assertEquals("D'Souza", rows.get(0).request().getLastName());
+        assertEquals("Famille", rows.get(2).groupName());
+    }
+
+    @Test
+    void refusesExportsBeyondTheConcurrencyLimit() {
+        List<ContactExportService.Slot> slots = new ArrayList<>();
+        try {
+            for (int i = 0; i < 4; i++) {
+                slots.add(exportService.reserveSlot());
+            }
+            assertThrows(ServiceUnavailableException.class, exportService::reserveSlot);
+
+            // Libérer deux fois la même place n'en rend qu'une
+            slots.get(0).close();
+            slots.get(0).close();
+            slots.set(0, exportService.reserveSlot());
+            assertThrows(ServiceUnavailableException.class, exportService::reserveSlot);
+        } finally {
+            slots.forEach(ContactExportService.Slot::close);
+        }
+    }
+
+    private String export(ExportFormat format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(3, exportService.export(user.getId(), format, out));
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private void saveContact(String firstName, String lastName, String phone, String email, Group group) {
+        Contact contact = new Contact();
+        contact.setFirstName(firstName);
+        contact.setLastName(lastName);
+        contact.setPhoneNumber(phone);
+        contact.setEmail(email);
+        contact.setGroup(group);
+        contact.setUser(user);
+        contactRepository.save(contact);
+    }
+
+    private static List<ImportRow> readAll(ContactRecordReader reader) throws IOException {
+        List<ImportRow> rows = new ArrayList<>();
+        try (reader) {
+            ImportRow row;
+            while ((row = reader.next()) != null) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+}
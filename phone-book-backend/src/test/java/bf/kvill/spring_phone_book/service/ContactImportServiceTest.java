@@ -0,0 +1,207 @@
+package bf.kvill.spring_phone_book.service;
+
+import bf.kvill.spring_phone_book.dto.ImportReport;
+import bf.kvill.spring_phone_book.enums.Role;
+import bf.kvill.spring_phone_book.importer.CsvContactReader;
+import bf.kvill.spring_phone_book.model.Contact;
+import bf.kvill.spring_phone_book.model.Group;
+import bf.kvill.spring_phone_book.model.User;
+import bf.kvill.spring_phone_book.repository.ContactRepository;
+import bf.kvill.spring_phone_book.repository.GroupRepository;
+import bf.kvill.spring_phone_book.repository.UserRepository;
+import bf.kvill.spring_phone_book.security.UserRef;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Locale;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ContactImportServiceTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ContactImportServiceTest.class);
+
+    @Autowired
+    private ContactImportService importService;
+
+    @Autowired
+    private ContactService contactService;
+
+    @Autowired
+    private ContactRepository contactRepository;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private UserRef user;
+    private User other;
+
+    @BeforeEach
+    void setUp() {
+        contactRepository.deleteAll();
+        groupRepository.deleteAll();
+        userRepository.deleteAll();
+        user = UserRef.from(saveUser("importer"));
+        other = saveUser("other");
+    }
+
+    // Les autres tests du contexte suppriment les utilisateurs sans passer par les groupes
+    @AfterEach
+    void tearDown() {
+        contactRepository.deleteAll();
+        groupRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void importsValidRowsAndReportsRejectedOnes() throws IOException {
+        Group taken = new Group();
+        taken.setName("Voisins");
+        taken.setUser(other);
+        groupRepository.save(taken);
+
+        String csv = "firstName,lastName,phoneNumber,email,group\n"
+                + "Awa,Ouedraogo,+22670000001,awa@example.com,Famille\n"
+                + "Issa,Kabore,+22670000002,,famille\n"
+                + "X,Traore,+22670000003,,\n"
+                + "Mariam,Traore,+22670000001,,\n"
+                + "Ali,Sawadogo,+22670000004,,Voisins\n"
+                + "Fatou,Zongo,+22670000005,,\n";
+
+        ImportReport report = importService.importContacts(new CsvContactReader(reader(csv)), user);
+
+        assertEquals(3, report.getImported());
+        assertEquals(3, report.getFailed());
+        assertFalse(report.isErrorsTruncated());
+        assertEquals(4, report.getErrors().get(0).line());
+        assertTrue(report.getErrors().get(0).message().startsWith("firstName"));
+        assertEquals(5, report.getErrors().get(1).line());
+        assertEquals(6, report.getErrors().get(2).line());
+
+        // Un seul groupe créé pour "Famille" / "famille"
+        var groups = groupRepository.findByUserId(user.getId());
+        assertEquals(1, groups.size());
+        var contacts = contactService.getAllContactsForUser(user);
+        assertEquals(3, contacts.size());
+        assertEquals(2, contacts.stream().filter(c -> c.group() != null).count());
+    }
+
+    @Test
+    void rejectsPhoneNumbersAlreadyStored() throws IOException {
+        String csv = "firstName,lastName,phoneNumber\nAwa,Ouedraogo,+22670000001\n";
+        importService.importContacts(new CsvContactReader(reader(csv)), user);
+
+        ImportReport report = importService.importContacts(new CsvContactReader(reader(csv)), user);
+
+        assertEquals(0, report.getImported());
+        assertEquals(1, report.getFailed());
+        assertEquals(2, report.getErrors().get(0).line());
+    }
+
+    @Test
+    void reportsRowsRejectedByTheReader() throws IOException {
+        String csv = "firstName,lastName,phoneNumber\n"
+                + "Awa,\"" + "x".repeat(100_000) + "\",+22670000001\n"
+                + "Issa,Kabore,+22670000002\n";
+
+        ImportReport report = importService.importContacts(new CsvContactReader(reader(csv)), user);
+
+        assertEquals(1, report.getImported());
+        assertEquals(1, report.getFailed());
+        assertEquals(2, report.getErrors().get(0).line());
+    }
+
+    // L'import reconnaît un numéro en double au nom de la contrainte
+    @Test
+    void duplicatePhoneViolationNamesItsConstraint() {
+        contactRepository.saveAndFlush(contact("+22670000001"));
+
+        DataIntegrityViolationException e = assertThrows(DataIntegrityViolationException.class,
+                () -> contactRepository.saveAndFlush(contact("+22670000001")));
+        assertTrue(e.getMostSpecificCause().getMessage().toLowerCase(Locale.ROOT).contains(Contact.PHONE_NUMBER_UNIQUE));
+    }
+
+    /**
+     * Débit de l'import : 100 000 lignes CSV générées à la volée.
+     * Lancer avec : mvn test -Dbenchmarks=true -Dtest=ContactImportServiceTest
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+    void importsOneHundredThousandContactsInSeconds() throws IOException {
+        int rows = 100_000;
+        long start = System.nanoTime();
+        ImportReport report = importService.importContacts(new CsvContactReader(new BufferedReader(generatedCsv(rows))), user);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        log.info("Imported {} contacts in {} ms ({} rows/s)", report.getImported(), millis, rows * 1000L / millis);
+        assertEquals(rows, report.getImported());
+        assertTrue(millis < 30_000, "100k contacts took " + millis + " ms");
+    }
+
+    private Contact contact(String phoneNumber) {
+        Contact contact = new Contact();
+        contact.setFirstName("Awa");
+        contact.setLastName("Ouedraogo");
+        contact.setPhoneNumber(phoneNumber);
+        contact.setUser(other);
+        return contact;
+    }
+
+    private User saveUser(String username) {
+        User u = new User();
+        u.setUsername(username);
+        u.setPassword("hash");
+        u.setRoles(Set.of(Role.USER));
+        return userRepository.save(u);
+    }
+
+    private static BufferedReader reader(String content) {
+        return new BufferedReader(new StringReader(content));
+    }
+
+    // CSV produit ligne par ligne, sans jamais exister entièrement en mémoire
+    private static Reader generatedCsv(int rows) {
+        return new Reader() {
+            private int next = -1;
+            private String current = "firstName,lastName,phoneNumber,group\n";
+            private int position;
+
+            @Override
+            public int read(char[] buffer, int offset, int length) {
+                if (position == current.length()) {
+                    if (++next >= rows) {
+                        return -1;
+                    }
+                    current = "Prenom,Nom,+2267" + String.format("%07d", next) + ",Groupe" + (next % 10) + "\n";
+                    position = 0;
+                }
+                int n = Math.min(length, current.length() - position);
+                current.getChars(position, position + n, buffer, offset);
+                position += n;
+                return n;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+}
@@ -0,0 +1,23 @@
+package bf.kvill.spring_phone_book.support;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Budget SQL d'une méthode de test : le test échoue s'il exécute plus de statements requêtes
+ * (ou lit plus de rows lignes). Seul le corps du test est mesuré, pas le @BeforeEach.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(SqlBudgetExtension.class)
+public @interface SqlBudget {
+
+    long statements();
+
+    // Pas de limite par défaut
+    long rows() default Long.MAX_VALUE;
+}
@@ -0,0 +1,43 @@
+package bf.kvill.spring_phone_book.support;
+
+import bf.kvill.spring_phone_book.jdbc.SqlStatistics;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Vérifie les budgets @SqlBudget : une mesure SqlStatistics est ouverte autour du corps du test.
+ * Pour mesurer plusieurs actions dans un même test (boucle sur des routes, appel à froid puis à
+ * chaud), utiliser StatementCounter.
+ */
+public class SqlBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(SqlBudgetExtension.class);
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        if (context.getRequiredTestMethod().isAnnotationPresent(SqlBudget.class)) {
+            context.getStore(NAMESPACE).put(context.getUniqueId(), SqlStatistics.open());
+        }
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        SqlStatistics.Scope scope = context.getStore(NAMESPACE).remove(context.getUniqueId(), SqlStatistics.Scope.class);
+        if (scope == null) {
+            return;
+        }
+        scope.close();
+
+        SqlBudget budget = context.getRequiredTestMethod().getAnnotation(SqlBudget.class);
+        long statements = scope.counts().statements();
+        long rows = scope.counts().rows();
+        String test = context.getDisplayName();
+        assertTrue(statements <= budget.statements(),
+                () -> test + " ran " + statements + " statements, budget " + budget.statements());
+        assertTrue(rows <= budget.rows(),
+                () -> test + " fetched " + rows + " rows, budget " + budget.rows());
+    }
+}
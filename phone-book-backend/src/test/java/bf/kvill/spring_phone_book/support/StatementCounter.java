@@ -0,0 +1,40 @@
+package bf.kvill.spring_phone_book.support;
+
+import bf.kvill.spring_phone_book.jdbc.SqlStatistics;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compte les requêtes SQL exécutées pendant une action de test, via CountingDataSource.
+ *
+ * Seules les requêtes de l'action sont comptées : celles du thread de test (MockMvc compris) et
+ * celles des tâches que l'action soumet aux exécuteurs de l'application. Les requêtes d'Hibernate
+ * et de JdbcTemplate (import, export, lots) sont comptées de la même façon.
+ */
+public final class StatementCounter {
+
+    // Nombre de requêtes exécutées pendant l'action
+    public long count(Action action) throws Exception {
+        return measure(action).statements();
+    }
+
+    // Requêtes et lignes lues pendant l'action
+    public SqlStatistics.Counts measure(Action action) throws Exception {
+        try (SqlStatistics.Scope scope = SqlStatistics.open()) {
+            action.run();
+            return scope.counts();
+        }
+    }
+
+    // Échoue si l'action dépasse son budget de requêtes
+    public void assertAtMost(long budget, String description, Action action) throws Exception {
+        long statements = count(action);
+        assertTrue(statements <= budget,
+                () -> description + " ran " + statements + " statements, budget " + budget);
+    }
+
+    @FunctionalInterface
+    public interface Action {
+        void run() throws Exception;
+    }
+}
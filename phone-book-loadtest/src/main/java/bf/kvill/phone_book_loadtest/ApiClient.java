@@ -0,0 +1,128 @@
+package bf.kvill.phone_book_loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.MissingNode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+/**
+ * Client HTTP de l'API, partagé par tous les utilisateurs virtuels.
+ *
+ * Appels bloquants faits depuis des threads virtuels : HttpClient est lui-même servi par des
+ * threads virtuels. Une erreur réseau ou un délai dépassé donne un statut 0, compté comme une
+ * erreur de l'endpoint et non comme un arrêt du tir.
+ */
+public class ApiClient {
+
+    static final int NETWORK_ERROR = 0;
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final URI baseUrl;
+    private final Duration requestTimeout;
+    private final HttpClient httpClient;
+
+    public ApiClient(URI baseUrl, Duration requestTimeout) {
+        this.baseUrl = baseUrl;
+        this.requestTimeout = requestTimeout;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    public record Response(int status, JsonNode body) {
+
+        boolean isSuccess() {
+            return status >= 200 && status < 300;
+        }
+    }
+
+    public Response get(VirtualUser user, String path) {
+        return send(request(user, path).GET());
+    }
+
+    public Response post(VirtualUser user, String path, Object body) {
+        return send(request(user, path).POST(json(body)));
+    }
+
+    public Response put(VirtualUser user, String path, Object body) {
+        return send(request(user, path).PUT(json(body)));
+    }
+
+    public Response delete(VirtualUser user, String path) {
+        return send(request(user, path).DELETE());
+    }
+
+    public boolean isUp() {
+        Response health = send(HttpRequest.newBuilder(baseUrl.resolve("/actuator/health"))
+                .timeout(requestTimeout).GET());
+        return health.isSuccess();
+    }
+
+    static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    // Jeton JWT de l'utilisateur une fois connecté ; X-Forwarded-For : un client distinct par
+    // utilisateur virtuel pour le rate limiting par IP, comme des navigateurs différents
+    private HttpRequest.Builder request(VirtualUser user, String path) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(baseUrl.resolve(path))
+                .timeout(requestTimeout)
+                .header("Accept", "application/json")
+                .header("X-Forwarded-For", user.clientIp());
+        if (user.token() != null) {
+            builder.header("Authorization", "Bearer " + user.token());
+        }
+        return builder;
+    }
+
+    private static HttpRequest.BodyPublisher json(Object body) {
+        try {
+            return HttpRequest.BodyPublishers.ofByteArray(JSON.writeValueAsBytes(body));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot serialize request body", e);
+        }
+    }
+
+    private Response send(HttpRequest.Builder builder) {
+        HttpRequest request = builder.header("Content-Type", "application/json").build();
+        try {
+            HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            return new Response(response.statusCode(), parse(response.body()));
+        } catch (IOException e) {
+            // Connexion refusée, délai dépassé (HttpTimeoutException)
+            return new Response(NETWORK_ERROR, MissingNode.getInstance());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Response(NETWORK_ERROR, MissingNode.getInstance());
+        }
+    }
+
+    private static JsonNode parse(byte[] body) {
+        if (body.length == 0) {
+            return MissingNode.getInstance();
+        }
+        try {
+            return JSON.readTree(body);
+        } catch (IOException e) {
+            // Corps non JSON (erreur du rate limiting, page d'erreur) : seul le statut compte
+            return MissingNode.getInstance();
+        }
+    }
+
+    static Map<String, Object> credentials(String username, String password) {
+        return Map.of("username", username, "password", password);
+    }
+}
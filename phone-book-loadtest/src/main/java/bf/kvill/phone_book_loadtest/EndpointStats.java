@@ -0,0 +1,93 @@
+package bf.kvill.phone_book_loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latences d'un endpoint, en microsecondes, dans deux histogrammes HdrHistogram :
+ *
+ * - temps de réponse : depuis l'instant où la requête devait partir selon le planning des
+ *   arrivées. Si le générateur ou le serveur prend du retard, l'attente est comptée : c'est
+ *   la correction de l'omission coordonnée, la latence vue par un client qui n'attend pas
+ *   la réponse précédente pour arriver ;
+ * - temps de service : depuis l'envoi effectif, ce que mesurerait un client en boucle fermée.
+ *
+ * Un écart entre les deux indique que la file d'attente, et non le traitement, fait la latence.
+ * Les Recorder sont écrits sans verrou par les threads virtuels ; drain() rapatrie l'intervalle
+ * écoulé dans les totaux (un seul thread de rapport).
+ */
+public class EndpointStats {
+
+    private final String endpoint;
+    private final Recorder responseTime = new Recorder(3);
+    private final Recorder serviceTime = new Recorder(3);
+    private final Histogram totalResponseTime = new Histogram(3);
+    private final Histogram totalServiceTime = new Histogram(3);
+    private final LongAdder unexpected = new LongAdder();
+    private final ConcurrentMap<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+    private Histogram intervalResponseTime;
+    private Histogram intervalServiceTime;
+
+    public EndpointStats(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    public String endpoint() {
+        return endpoint;
+    }
+
+    public void record(long intendedStartNanos, long sentNanos, long endNanos, int status, boolean expected) {
+        responseTime.recordValue(TimeUnit.NANOSECONDS.toMicros(endNanos - intendedStartNanos));
+        serviceTime.recordValue(TimeUnit.NANOSECONDS.toMicros(endNanos - sentNanos));
+        statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+        if (!expected) {
+            unexpected.increment();
+        }
+    }
+
+    // Intervalle écoulé depuis le dernier appel (temps de réponse), ajouté aux totaux
+    public synchronized Interval drain() {
+        intervalResponseTime = responseTime.getIntervalHistogram(intervalResponseTime);
+        intervalServiceTime = serviceTime.getIntervalHistogram(intervalServiceTime);
+        totalResponseTime.add(intervalResponseTime);
+        totalServiceTime.add(intervalServiceTime);
+        return new Interval(snapshot(intervalResponseTime), snapshot(intervalServiceTime));
+    }
+
+    // Copie étiquetée par endpoint, bornes de l'intervalle conservées (journal .hlog)
+    private Histogram snapshot(Histogram interval) {
+        Histogram copy = interval.copy();
+        copy.setStartTimeStamp(interval.getStartTimeStamp());
+        copy.setEndTimeStamp(interval.getEndTimeStamp());
+        copy.setTag(endpoint);
+        return copy;
+    }
+
+    public record Interval(Histogram responseTime, Histogram serviceTime) {
+    }
+
+    public synchronized Histogram totalResponseTime() {
+        return totalResponseTime.copy();
+    }
+
+    public synchronized Histogram totalServiceTime() {
+        return totalServiceTime.copy();
+    }
+
+    public long unexpected() {
+        return unexpected.sum();
+    }
+
+    public Map<Integer, Long> statuses() {
+        Map<Integer, Long> counts = new TreeMap<>();
+        statuses.forEach((status, count) -> counts.put(status, count.sum()));
+        return counts;
+    }
+}
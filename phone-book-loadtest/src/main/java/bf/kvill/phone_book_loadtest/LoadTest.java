@@ -0,0 +1,191 @@
+package bf.kvill.phone_book_loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Tir de charge de l'API en modèle ouvert.
+ *
+ * Les arrivées suivent un planning fixé à l'avance (débit cible, intervalles constants ou
+ * poissonniens) : une réponse lente ne ralentit pas les arrivées suivantes, comme avec de vrais
+ * utilisateurs. Chaque arrivée part sur son propre thread virtuel et joue une opération du
+ * mélange (Operation) pour un utilisateur tiré au hasard. Les requêtes de la période de
+ * chauffe ne sont pas mesurées.
+ *
+ * Lancement (application démarrée avec le profil h2) :
+ * mvn compile exec:java -Dloadtest.rate=100 -Dloadtest.duration=PT2M
+ */
+public final class LoadTest {
+
+    private static final long REPORT_INTERVAL_SECONDS = 5;
+    private static final int SEED_GROUPS = 3;
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        ApiClient client = new ApiClient(config.baseUrl(), config.requestTimeout());
+        if (!client.isUp()) {
+            System.err.println("Backend not reachable at " + config.baseUrl() + " (GET /actuator/health)");
+            System.exit(1);
+        }
+
+        long runId = System.currentTimeMillis() / 1_000;
+        Workload workload = new Workload(client, runId);
+        List<VirtualUser> users = prepareUsers(config, workload, runId);
+        if (users.isEmpty()) {
+            System.err.println("No virtual user could sign up and log in");
+            System.exit(1);
+        }
+
+        Map<Operation, EndpointStats> stats = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new EndpointStats(operation.endpoint()));
+        }
+        run(config, workload, users, stats);
+        new Report(config, new ArrayList<>(stats.values()), config.duration().toNanos() / 1e9).write(System.out);
+        if (stats.values().stream().allMatch(s -> s.totalResponseTime().getTotalCount() == 0)) {
+            System.err.println("No request completed during the measurement");
+            System.exit(1);
+        }
+    }
+
+    // Inscription, connexion et carnet initial, en parallèle (un thread virtuel par utilisateur)
+    private static List<VirtualUser> prepareUsers(LoadTestConfig config, Workload workload, long runId) {
+        System.out.printf("Preparing %d users with %d contacts each on %s%n",
+                config.users(), config.seedContacts(), config.baseUrl());
+        List<VirtualUser> ready = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < config.users(); i++) {
+                VirtualUser user = new VirtualUser("lt" + runId + "_" + i, "loadtest-" + runId,
+                        "10.42." + (i / 250) + "." + (i % 250 + 1));
+                executor.execute(() -> {
+                    if (workload.signUp(user)) {
+                        workload.seed(user, SEED_GROUPS, config.seedContacts(), ThreadLocalRandom.current());
+                        synchronized (ready) {
+                            ready.add(user);
+                        }
+                    }
+                });
+            }
+        }
+        System.out.printf("%d/%d users ready%n", ready.size(), config.users());
+        return ready;
+    }
+
+    private static void run(LoadTestConfig config, Workload workload, List<VirtualUser> users,
+                              Map<Operation, EndpointStats> stats) throws IOException, InterruptedException {
+        Files.createDirectories(config.reportDir());
+        long intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / config.rate()));
+        SplittableRandom random = new SplittableRandom();
+        Semaphore inFlight = new Semaphore(config.maxInFlight());
+        AtomicInteger arrivals = new AtomicInteger();
+
+        long start = System.nanoTime();
+        long measureFrom = start + config.warmup().toNanos();
+        long end = measureFrom + config.duration().toNanos();
+        System.out.printf("Open model: %.1f req/s (%s arrivals), warmup %s, measure %s%n", config.rate(),
+                config.poisson() ? "poisson" : "constant", config.warmup(), config.duration());
+
+        try (PrintStream hlog = new PrintStream(config.reportDir().resolve("latency.hlog").toFile());
+             ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor()) {
+            HistogramLogWriter logWriter = new HistogramLogWriter(hlog);
+            logWriter.outputLogFormatVersion();
+            logWriter.outputStartTime(System.currentTimeMillis());
+            logWriter.outputLegend();
+            reporter.scheduleAtFixedRate(() -> progress(stats, logWriter, inFlight, arrivals, config, start, measureFrom),
+                    REPORT_INTERVAL_SECONDS, REPORT_INTERVAL_SECONDS, TimeUnit.SECONDS);
+
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (long intended = start; intended < end; intended += nextInterval(config, intervalNanos, random)) {
+                    long wait = intended - System.nanoTime();
+                    if (wait > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                    // Générateur saturé : l'attente d'une place est comptée dans le temps de réponse
+                    inFlight.acquire();
+                    long scheduled = intended;
+                    Operation operation = Operation.pick(random);
+                    VirtualUser user = users.get(random.nextInt(users.size()));
+                    arrivals.incrementAndGet();
+                    executor.execute(() -> {
+                        try {
+                            long sent = System.nanoTime();
+                            Workload.Outcome outcome = workload.run(operation, user, ThreadLocalRandom.current());
+                            if (scheduled >= measureFrom) {
+                                stats.get(outcome.operation()).record(scheduled, sent, System.nanoTime(),
+                                        outcome.status(), outcome.operation().isExpected(outcome.status()));
+                            }
+                        } finally {
+                            inFlight.release();
+                        }
+                    });
+                }
+            }
+            reporter.shutdownNow();
+            reporter.awaitTermination(REPORT_INTERVAL_SECONDS, TimeUnit.SECONDS);
+            // Dernier intervalle : requêtes terminées depuis le dernier rapport
+            for (EndpointStats endpoint : stats.values()) {
+                EndpointStats.Interval interval = endpoint.drain();
+                writeInterval(logWriter, interval.responseTime());
+            }
+        }
+        System.out.printf("%d arrivals scheduled%n", arrivals.get());
+    }
+
+    // Intervalles exponentiels de moyenne 1/débit : arrivées indépendantes (processus de Poisson)
+    private static long nextInterval(LoadTestConfig config, long meanNanos, SplittableRandom random) {
+        if (!config.poisson()) {
+            return meanNanos;
+        }
+        return Math.max(1, (long) (-Math.log(1 - random.nextDouble()) * meanNanos));
+    }
+
+    private static void progress(Map<Operation, EndpointStats> stats, HistogramLogWriter logWriter, Semaphore inFlight,
+                                 AtomicInteger arrivals, LoadTestConfig config, long start, long measureFrom) {
+        long now = System.nanoTime();
+        int active = config.maxInFlight() - inFlight.availablePermits();
+        if (now < measureFrom) {
+            System.out.printf("[%4ds warmup ] %d arrivals, in flight %4d%n",
+                    TimeUnit.NANOSECONDS.toSeconds(now - start), arrivals.get(), active);
+            return;
+        }
+        Histogram all = new Histogram(3);
+        for (EndpointStats endpoint : stats.values()) {
+            EndpointStats.Interval interval = endpoint.drain();
+            writeInterval(logWriter, interval.responseTime());
+            all.add(interval.responseTime());
+        }
+        System.out.printf("[%4ds measure] %7.1f req/s, in flight %4d, p50 %8.2f ms, p99 %8.2f ms, max %8.2f ms%n",
+                TimeUnit.NANOSECONDS.toSeconds(now - start), all.getTotalCount() / (double) REPORT_INTERVAL_SECONDS,
+                active, all.getValueAtPercentile(50) / 1_000.0, all.getValueAtPercentile(99) / 1_000.0,
+                all.getMaxValue() / 1_000.0);
+    }
+
+    private static void writeInterval(HistogramLogWriter logWriter, Histogram interval) {
+        if (interval.getTotalCount() == 0) {
+            return;
+        }
+        synchronized (logWriter) {
+            logWriter.outputIntervalHistogram(interval);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package bf.kvill.phone_book_loadtest;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Paramètres du tir, lus dans les propriétés système (-Dloadtest.*).
+ *
+ * @param rate          arrivées par seconde, indépendantes des temps de réponse (modèle ouvert)
+ * @param poisson       arrivées poissonniennes (intervalles exponentiels) plutôt qu'à intervalle fixe
+ * @param users         comptes créés pour le tir ; chaque arrivée est jouée par l'un d'eux, au hasard
+ * @param seedContacts  contacts créés par utilisateur avant la mesure
+ * @param maxInFlight   requêtes simultanées au plus ; au-delà, l'attente compte dans la latence
+ */
+public record LoadTestConfig(URI baseUrl,
+                             double rate,
+                             boolean poisson,
+                             Duration warmup,
+                             Duration duration,
+                             int users,
+                             int seedContacts,
+                             int maxInFlight,
+                             Duration requestTimeout,
+                             Path reportDir) {
+
+    public static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig(
+                URI.create(property("base-url", "http://localhost:8080")),
+                Double.parseDouble(property("rate", "50")),
+                property("arrivals", "poisson").equals("poisson"),
+                Duration.parse(property("warmup", "PT10S")),
+                Duration.parse(property("duration", "PT60S")),
+                Integer.parseInt(property("users", "20")),
+                Integer.parseInt(property("seed-contacts", "50")),
+                Integer.parseInt(property("max-in-flight", "1000")),
+                Duration.parse(property("request-timeout", "PT10S")),
+                Path.of(property("report-dir", "target/loadtest")));
+    }
+
+    private static String property(String name, String defaultValue) {
+        return System.getProperty("loadtest." + name, defaultValue);
+    }
+}
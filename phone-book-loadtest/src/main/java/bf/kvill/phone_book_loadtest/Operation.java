@@ -0,0 +1,67 @@
+package bf.kvill.phone_book_loadtest;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Opérations du scénario, avec leur part dans le mélange (en pourcentage) et le nom de
+ * l'endpoint sous lequel leurs latences sont rapportées : lectures majoritaires, écritures
+ * régulières, comme l'usage d'un carnet d'adresses.
+ */
+public enum Operation {
+
+    LIST_CONTACTS("GET /api/contacts", 20),
+    LIST_CONTACTS_PAGE("GET /api/contacts/page", 5),
+    SEARCH_CONTACTS("GET /api/contacts/search", 20),
+    GET_CONTACT("GET /api/contacts/{id}", 10),
+    CREATE_CONTACT("POST /api/contacts", 10),
+    UPDATE_CONTACT("PUT /api/contacts/{id}", 8),
+    DELETE_CONTACT("DELETE /api/contacts/{id}", 5),
+    CONTACTS_BY_GROUP("GET /api/contacts/group/{groupId}", 5),
+    LIST_GROUPS("GET /api/groups", 8),
+    GROUP_SUMMARY("GET /api/groups/summary", 4),
+    CREATE_GROUP("POST /api/groups", 2),
+    UPDATE_GROUP("PUT /api/groups/{id}", 3);
+
+    private static final Operation[] VALUES = values();
+    private static final int TOTAL_WEIGHT;
+
+    static {
+        int total = 0;
+        for (Operation operation : VALUES) {
+            total += operation.weight;
+        }
+        TOTAL_WEIGHT = total;
+    }
+
+    private final String endpoint;
+    private final int weight;
+
+    Operation(String endpoint, int weight) {
+        this.endpoint = endpoint;
+        this.weight = weight;
+    }
+
+    public String endpoint() {
+        return endpoint;
+    }
+
+    public int weight() {
+        return weight;
+    }
+
+    // Statut attendu : une recherche sans résultat répond 404 (ContactNotFoundException)
+    public boolean isExpected(int status) {
+        return (status >= 200 && status < 300) || (this == SEARCH_CONTACTS && status == 404);
+    }
+
+    public static Operation pick(RandomGenerator random) {
+        int ticket = random.nextInt(TOTAL_WEIGHT);
+        for (Operation operation : VALUES) {
+            ticket -= operation.weight;
+            if (ticket < 0) {
+                return operation;
+            }
+        }
+        throw new IllegalStateException("Unreachable");
+    }
+}
@@ -0,0 +1,125 @@
+package bf.kvill.phone_book_loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rapport final, par endpoint puis tous endpoints confondus :
+ *
+ * - tableau des percentiles sur la sortie standard (millisecondes) ;
+ * - une distribution complète par endpoint (.hgrm, lisible par HdrHistogram Plotter), temps de
+ *   réponse et temps de service ;
+ * - summary.json pour comparer deux tirs ou alimenter une CI.
+ */
+public class Report {
+
+    private static final double MICROS_PER_MILLI = 1_000.0;
+    private static final String ALL = "ALL";
+
+    private final LoadTestConfig config;
+    private final List<EndpointStats> endpoints;
+    private final double measuredSeconds;
+
+    public Report(LoadTestConfig config, List<EndpointStats> endpoints, double measuredSeconds) {
+        this.config = config;
+        this.endpoints = endpoints;
+        this.measuredSeconds = measuredSeconds;
+    }
+
+    public void write(PrintStream out) throws IOException {
+        Files.createDirectories(config.reportDir());
+        Histogram allResponse = new Histogram(3);
+        Histogram allService = new Histogram(3);
+        long allUnexpected = 0;
+        Map<String, Object> summary = new LinkedHashMap<>();
+        Map<String, Object> perEndpoint = new LinkedHashMap<>();
+
+        out.printf("%n%-36s %8s %7s %8s %9s %9s %9s %9s %9s %12s%n", "endpoint (response time, ms)",
+                "count", "errors", "req/s", "p50", "p90", "p99", "p99.9", "max", "service p99");
+        for (EndpointStats stats : endpoints) {
+            Histogram response = stats.totalResponseTime();
+            Histogram service = stats.totalServiceTime();
+            if (response.getTotalCount() == 0) {
+                continue;
+            }
+            allResponse.add(response);
+            allService.add(service);
+            allUnexpected += stats.unexpected();
+            printRow(out, stats.endpoint(), response, service, stats.unexpected());
+            writeDistribution(stats.endpoint(), response, service);
+            perEndpoint.put(stats.endpoint(), summary(response, service, stats.unexpected(), stats.statuses()));
+        }
+        printRow(out, ALL, allResponse, allService, allUnexpected);
+        writeDistribution(ALL, allResponse, allService);
+
+        summary.put("baseUrl", config.baseUrl().toString());
+        summary.put("targetRate", config.rate());
+        summary.put("arrivals", config.poisson() ? "poisson" : "constant");
+        summary.put("users", config.users());
+        summary.put("measuredSeconds", measuredSeconds);
+        summary.put("all", summary(allResponse, allService, allUnexpected, Map.of()));
+        summary.put("endpoints", perEndpoint);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(config.reportDir().resolve("summary.json").toFile(), summary);
+        out.printf("%nReports written to %s%n", config.reportDir().toAbsolutePath());
+    }
+
+    private void printRow(PrintStream out, String endpoint, Histogram response, Histogram service, long unexpected) {
+        out.printf("%-36s %8d %7d %8.1f %9.2f %9.2f %9.2f %9.2f %9.2f %12.2f%n", endpoint,
+                response.getTotalCount(), unexpected, response.getTotalCount() / measuredSeconds,
+                millis(response, 50), millis(response, 90), millis(response, 99), millis(response, 99.9),
+                response.getMaxValue() / MICROS_PER_MILLI, millis(service, 99));
+    }
+
+    private Map<String, Object> summary(Histogram response, Histogram service, long unexpected, Map<Integer, Long> statuses) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("count", response.getTotalCount());
+        values.put("errors", unexpected);
+        values.put("throughput", response.getTotalCount() / measuredSeconds);
+        values.put("responseTimeMs", percentiles(response));
+        values.put("serviceTimeMs", percentiles(service));
+        if (!statuses.isEmpty()) {
+            values.put("statuses", statuses);
+        }
+        return values;
+    }
+
+    private static Map<String, Double> percentiles(Histogram histogram) {
+        Map<String, Double> values = new LinkedHashMap<>();
+        values.put("mean", histogram.getMean() / MICROS_PER_MILLI);
+        values.put("p50", millis(histogram, 50));
+        values.put("p90", millis(histogram, 90));
+        values.put("p99", millis(histogram, 99));
+        values.put("p99.9", millis(histogram, 99.9));
+        values.put("max", histogram.getMaxValue() / MICROS_PER_MILLI);
+        return values;
+    }
+
+    private void writeDistribution(String endpoint, Histogram response, Histogram service) throws IOException {
+        String name = fileName(endpoint);
+        try (PrintStream file = new PrintStream(config.reportDir().resolve(name + ".hgrm").toFile())) {
+            response.outputPercentileDistribution(file, MICROS_PER_MILLI);
+        }
+        try (PrintStream file = new PrintStream(config.reportDir().resolve(name + "-service.hgrm").toFile())) {
+            service.outputPercentileDistribution(file, MICROS_PER_MILLI);
+        }
+    }
+
+    // "GET /api/contacts/{id}" -> get-api-contacts-id
+    static String fileName(String endpoint) {
+        return endpoint.toLowerCase().replaceAll("[^a-z0-9]+", "-").replaceAll("^-|-$", "");
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / MICROS_PER_MILLI;
+    }
+}
@@ -0,0 +1,81 @@
+package bf.kvill.phone_book_loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * Compte créé pour le tir, avec les contacts et groupes qu'il possède.
+ *
+ * Modèle ouvert : plusieurs requêtes d'un même utilisateur peuvent être en vol en même temps,
+ * les listes d'IDs sont donc protégées par le moniteur de l'objet. Un contact tiré pour être
+ * supprimé quitte la liste avant l'appel : deux suppressions ne visent jamais le même ID.
+ */
+public class VirtualUser {
+
+    private final String username;
+    private final String password;
+    private final String clientIp;
+    private final List<Long> contactIds = new ArrayList<>();
+    private final List<Long> groupIds = new ArrayList<>();
+    private volatile String token;
+
+    public VirtualUser(String username, String password, String clientIp) {
+        this.username = username;
+        this.password = password;
+        this.clientIp = clientIp;
+    }
+
+    public String username() {
+        return username;
+    }
+
+    public String password() {
+        return password;
+    }
+
+    public String clientIp() {
+        return clientIp;
+    }
+
+    public String token() {
+        return token;
+    }
+
+    public void token(String token) {
+        this.token = token;
+    }
+
+    public synchronized void addContact(long id) {
+        contactIds.add(id);
+    }
+
+    // null si l'utilisateur n'a plus de contact
+    public synchronized Long randomContact(RandomGenerator random) {
+        return contactIds.isEmpty() ? null : contactIds.get(random.nextInt(contactIds.size()));
+    }
+
+    public synchronized Long takeRandomContact(RandomGenerator random) {
+        if (contactIds.isEmpty()) {
+            return null;
+        }
+        int index = random.nextInt(contactIds.size());
+        // Échange avec le dernier : retrait en temps constant, l'ordre n'a pas d'importance
+        Long id = contactIds.get(index);
+        contactIds.set(index, contactIds.get(contactIds.size() - 1));
+        contactIds.remove(contactIds.size() - 1);
+        return id;
+    }
+
+    public synchronized int contactCount() {
+        return contactIds.size();
+    }
+
+    public synchronized void addGroup(long id) {
+        groupIds.add(id);
+    }
+
+    public synchronized Long randomGroup(RandomGenerator random) {
+        return groupIds.isEmpty() ? null : groupIds.get(random.nextInt(groupIds.size()));
+    }
+}
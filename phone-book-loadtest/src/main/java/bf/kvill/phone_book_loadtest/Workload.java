@@ -0,0 +1,162 @@
+package bf.kvill.phone_book_loadtest;
+
+import bf.kvill.phone_book_loadtest.ApiClient.Response;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.random.RandomGenerator;
+
+/**
+ * Scénario joué par les utilisateurs virtuels : inscription et connexion, carnet initial,
+ * puis une opération du mélange par arrivée.
+ *
+ * Les données générées respectent la validation de l'API (noms en lettres seulement, numéros
+ * E.164) et les contraintes d'unicité de la base : numéros et noms de groupe portent
+ * l'identifiant du tir, plusieurs tirs peuvent viser la même instance.
+ */
+public class Workload {
+
+    private static final String[] FIRST_NAMES = {
+            "Aminata", "Boureima", "Issa", "Mariam", "Adama", "Fatimata", "Salif", "Awa", "Moussa", "Rasmata",
+            "Ousmane", "Safiatou", "Seydou", "Alimata", "Hamidou", "Clarisse", "Abdoulaye", "Nafissatou", "Karim", "Estelle"};
+    private static final String[] LAST_NAMES = {
+            "Ouedraogo", "Sawadogo", "Traore", "Kabore", "Compaore", "Zongo", "Kone", "Sanou", "Ilboudo", "Nikiema",
+            "Zoungrana", "Kafando", "Tiendrebeogo", "Yameogo", "Bationo", "Sankara", "Diallo", "Konate", "Some", "Dabire"};
+
+    private final ApiClient client;
+    private final long runId;
+    private final AtomicLong sequence = new AtomicLong();
+
+    public Workload(ApiClient client, long runId) {
+        this.client = client;
+        this.runId = runId;
+    }
+
+    // Opération réellement jouée (une lecture ou écriture sans cible devient une création) et son statut
+    public record Outcome(Operation operation, int status) {
+    }
+
+    public boolean signUp(VirtualUser user) {
+        client.post(user, "/api/auth/register", ApiClient.credentials(user.username(), user.password()));
+        Response login = client.post(user, "/api/auth/login", ApiClient.credentials(user.username(), user.password()));
+        if (!login.isSuccess() || !login.body().hasNonNull("token")) {
+            return false;
+        }
+        user.token(login.body().get("token").asText());
+        return true;
+    }
+
+    public void seed(VirtualUser user, int groups, int contacts, RandomGenerator random) {
+        for (int i = 0; i < groups; i++) {
+            createGroup(user);
+        }
+        for (int i = 0; i < contacts; i++) {
+            createContact(user, random);
+        }
+    }
+
+    public Outcome run(Operation operation, VirtualUser user, RandomGenerator random) {
+        return switch (operation) {
+            case LIST_CONTACTS -> outcome(operation, client.get(user, "/api/contacts"));
+            case LIST_CONTACTS_PAGE -> outcome(operation, client.get(user, "/api/contacts/page?limit=50"));
+            case SEARCH_CONTACTS -> outcome(operation,
+                    client.get(user, "/api/contacts/search?query=" + ApiClient.encode(searchQuery(random))));
+            case GET_CONTACT -> withContact(user, random, id -> client.get(user, "/api/contacts/" + id), operation);
+            case CREATE_CONTACT -> outcome(operation, createContact(user, random));
+            case UPDATE_CONTACT -> withContact(user, random,
+                    id -> client.put(user, "/api/contacts/" + id, contact(user, random)), operation);
+            case DELETE_CONTACT -> deleteContact(user, random);
+            case CONTACTS_BY_GROUP -> withGroup(user, random, id -> client.get(user, "/api/contacts/group/" + id), operation);
+            case LIST_GROUPS -> outcome(operation, client.get(user, "/api/groups"));
+            case GROUP_SUMMARY -> outcome(operation, client.get(user, "/api/groups/summary"));
+            case CREATE_GROUP -> outcome(operation, createGroup(user));
+            case UPDATE_GROUP -> withGroup(user, random,
+                    id -> client.put(user, "/api/groups/" + id, group("Groupe modifie")), operation);
+        };
+    }
+
+    private Outcome withContact(VirtualUser user, RandomGenerator random, Call call, Operation operation) {
+        Long id = user.randomContact(random);
+        if (id == null) {
+            return outcome(Operation.CREATE_CONTACT, createContact(user, random));
+        }
+        return outcome(operation, call.on(id));
+    }
+
+    private Outcome withGroup(VirtualUser user, RandomGenerator random, Call call, Operation operation) {
+        Long id = user.randomGroup(random);
+        if (id == null) {
+            return outcome(Operation.CREATE_GROUP, createGroup(user));
+        }
+        return outcome(operation, call.on(id));
+    }
+
+    // Retiré de la liste avant l'appel : une autre requête en vol ne le lira ni ne le supprimera
+    private Outcome deleteContact(VirtualUser user, RandomGenerator random) {
+        Long id = user.takeRandomContact(random);
+        if (id == null) {
+            return outcome(Operation.CREATE_CONTACT, createContact(user, random));
+        }
+        return outcome(Operation.DELETE_CONTACT, client.delete(user, "/api/contacts/" + id));
+    }
+
+    private Response createContact(VirtualUser user, RandomGenerator random) {
+        Response response = client.post(user, "/api/contacts", contact(user, random));
+        if (response.isSuccess() && response.body().hasNonNull("id")) {
+            user.addContact(response.body().get("id").asLong());
+        }
+        return response;
+    }
+
+    private Response createGroup(VirtualUser user) {
+        Response response = client.post(user, "/api/groups", group("Groupe"));
+        if (response.isSuccess() && response.body().hasNonNull("id")) {
+            user.addGroup(response.body().get("id").asLong());
+        }
+        return response;
+    }
+
+    private Map<String, Object> contact(VirtualUser user, RandomGenerator random) {
+        Map<String, Object> body = new HashMap<>();
+        String firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+        String lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+        body.put("firstName", firstName);
+        body.put("lastName", lastName);
+        body.put("phoneNumber", phoneNumber());
+        body.put("email", firstName.toLowerCase() + "." + lastName.toLowerCase() + sequence.get() + "@example.com");
+        // Un contact sur trois sans groupe
+        Long groupId = random.nextInt(3) == 0 ? null : user.randomGroup(random);
+        if (groupId != null) {
+            body.put("groupId", groupId);
+        }
+        return body;
+    }
+
+    private Map<String, Object> group(String prefix) {
+        return Map.of("name", prefix + " " + runId + "-" + sequence.incrementAndGet(),
+                "description", "Groupe du tir de charge " + runId);
+    }
+
+    // +226, 5 chiffres du tir, 6 chiffres de séquence : unique, 14 chiffres au plus (E.164)
+    private String phoneNumber() {
+        return String.format("+226%05d%06d", runId % 100_000, sequence.incrementAndGet() % 1_000_000);
+    }
+
+    // Début d'un nom de famille du jeu de données : 4 lettres, au moins 2 exigées par l'API
+    private static String searchQuery(RandomGenerator random) {
+        String name = random.nextBoolean()
+                ? LAST_NAMES[random.nextInt(LAST_NAMES.length)]
+                : FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+        return name.substring(0, 4).toLowerCase();
+    }
+
+    private static Outcome outcome(Operation operation, Response response) {
+        return new Outcome(operation, response.status());
+    }
+
+    @FunctionalInterface
+    private interface Call {
+        Response on(long id);
+    }
+}
@@ -0,0 +1,47 @@
+package bf.kvill.phone_book_loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EndpointStatsTest {
+
+    @Test
+    void responseTimeStartsAtTheScheduledArrivalNotAtTheSend() {
+        EndpointStats stats = new EndpointStats("GET /api/contacts");
+        long intended = 0;
+        // Requête partie avec 200 ms de retard sur le planning, servie en 5 ms
+        long sent = TimeUnit.MILLISECONDS.toNanos(200);
+        long end = sent + TimeUnit.MILLISECONDS.toNanos(5);
+
+        stats.record(intended, sent, end, 200, true);
+        stats.drain();
+
+        Histogram response = stats.totalResponseTime();
+        Histogram service = stats.totalServiceTime();
+        assertEquals(1, response.getTotalCount());
+        assertTrue(response.getMaxValue() >= 204_000, "response time includes the queueing delay");
+        assertTrue(service.getMaxValue() <= 5_100, "service time excludes it");
+    }
+
+    @Test
+    void drainAccumulatesIntervalsAndCountsStatuses() {
+        EndpointStats stats = new EndpointStats("GET /api/contacts/search");
+        stats.record(0, 0, 1_000_000, 200, true);
+        EndpointStats.Interval first = stats.drain();
+        stats.record(0, 0, 1_000_000, 404, true);
+        stats.record(0, 0, 1_000_000, 500, false);
+        EndpointStats.Interval second = stats.drain();
+
+        assertEquals(1, first.responseTime().getTotalCount());
+        assertEquals(2, second.responseTime().getTotalCount());
+        assertEquals(3, stats.totalResponseTime().getTotalCount());
+        assertEquals(1, stats.unexpected());
+        assertEquals(Map.of(200, 1L, 404, 1L, 500, 1L), stats.statuses());
+    }
+}
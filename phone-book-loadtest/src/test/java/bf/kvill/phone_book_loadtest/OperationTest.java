@@ -0,0 +1,44 @@
+package bf.kvill.phone_book_loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OperationTest {
+
+    @Test
+    void weightsArePercentages() {
+        int total = 0;
+        for (Operation operation : Operation.values()) {
+            total += operation.weight();
+        }
+        assertEquals(100, total);
+    }
+
+    @Test
+    void pickFollowsTheWeights() {
+        SplittableRandom random = new SplittableRandom(42);
+        Map<Operation, Integer> picks = new EnumMap<>(Operation.class);
+        int draws = 100_000;
+        for (int i = 0; i < draws; i++) {
+            picks.merge(Operation.pick(random), 1, Integer::sum);
+        }
+        for (Operation operation : Operation.values()) {
+            double share = picks.getOrDefault(operation, 0) * 100.0 / draws;
+            assertEquals(operation.weight(), share, 1.0, operation.name());
+        }
+    }
+
+    @Test
+    void onlySearchAcceptsNotFound() {
+        assertTrue(Operation.SEARCH_CONTACTS.isExpected(404));
+        assertFalse(Operation.GET_CONTACT.isExpected(404));
+        assertFalse(Operation.LIST_CONTACTS.isExpected(429));
+    }
+}